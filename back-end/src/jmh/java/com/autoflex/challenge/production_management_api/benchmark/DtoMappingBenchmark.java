@@ -0,0 +1,68 @@
+package com.autoflex.challenge.production_management_api.benchmark;
+
+import com.autoflex.challenge.production_management_api.dto.response.ProductResponseDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.service.CatalogIndex;
+import com.autoflex.challenge.production_management_api.service.GreedyProductionPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response shaping: entity to DTO mapping for product listings and JSON serialization of the
+ * suggestion response with the same Jackson mapper type Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int productCount;
+
+    @Param({"3", "12"})
+    private int bomFanOut;
+
+    @Param({"1000000"})
+    private int stockMagnitude;
+
+    private SyntheticCatalog catalog;
+    private ProductSuggestionResponse suggestion;
+    private JsonMapper jsonMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = SyntheticCatalog.generate(productCount, bomFanOut, stockMagnitude);
+        CatalogIndex.Snapshot snapshot = CatalogIndex.build(catalog.rawMaterials(), catalog.products());
+        suggestion = new GreedyProductionPlanner().plan(snapshot, snapshot.copyStock());
+        jsonMapper = JsonMapper.builder().build();
+    }
+
+    @Benchmark
+    public void productFromEntity(Blackhole blackhole) {
+        for (Product product : catalog.products())
+            blackhole.consume(ProductResponseDTO.fromEntity(product));
+    }
+
+    @Benchmark
+    public byte[] serializeSuggestion() {
+        return jsonMapper.writeValueAsBytes(suggestion);
+    }
+}
@@ -0,0 +1,62 @@
+package com.autoflex.challenge.production_management_api.benchmark;
+
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.service.CatalogIndex;
+import com.autoflex.challenge.production_management_api.service.GreedyProductionPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planner throughput: the greedy plan over a resident snapshot (what getProductSuggestion runs per
+ * request) and the one-off cost of building the snapshot from entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int productCount;
+
+    @Param({"3", "12"})
+    private int bomFanOut;
+
+    @Param({"1000", "1000000"})
+    private int stockMagnitude;
+
+    private SyntheticCatalog catalog;
+    private CatalogIndex.Snapshot snapshot;
+    private GreedyProductionPlanner planner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = SyntheticCatalog.generate(productCount, bomFanOut, stockMagnitude);
+        snapshot = CatalogIndex.build(catalog.rawMaterials(), catalog.products());
+        planner = new GreedyProductionPlanner();
+    }
+
+    @Benchmark
+    public ProductSuggestionResponse greedyPlan() {
+        return planner.plan(snapshot, snapshot.copyStock());
+    }
+
+    @Benchmark
+    public CatalogIndex.Snapshot buildSnapshot() {
+        return CatalogIndex.build(catalog.rawMaterials(), catalog.products());
+    }
+}
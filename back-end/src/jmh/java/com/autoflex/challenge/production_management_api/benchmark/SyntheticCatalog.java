@@ -0,0 +1,57 @@
+package com.autoflex.challenge.production_management_api.benchmark;
+
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic catalog for benchmarks.
+ *
+ * @param products       products, each with a distinct SKU and a random value
+ * @param rawMaterials   raw materials shared by the products' BOMs
+ */
+public record SyntheticCatalog(List<Product> products, List<RawMaterial> rawMaterials) {
+
+    /**
+     * @param productCount   number of products
+     * @param bomFanOut      raw materials per product BOM
+     * @param stockMagnitude order of magnitude of each material's stock
+     */
+    public static SyntheticCatalog generate(int productCount, int bomFanOut, int stockMagnitude) {
+        SplittableRandom random = new SplittableRandom(42);
+        int materialCount = Math.max(bomFanOut, productCount / 4);
+
+        List<RawMaterial> rawMaterials = new ArrayList<>(materialCount);
+        for (int i = 0; i < materialCount; i++) {
+            long id = i + 1;
+            int stock = stockMagnitude / 2 + random.nextInt(Math.max(1, stockMagnitude));
+            rawMaterials.add(new RawMaterial(id, "RM-" + id, "Raw material " + id, stock));
+        }
+
+        List<Product> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setSkuCode("PRD-" + (i + 1));
+            product.setName("Product " + (i + 1));
+            product.setValue(1 + random.nextInt(10_000) / 100.0);
+
+            // consecutive materials from a random offset keep every BOM free of duplicates
+            int offset = random.nextInt(materialCount);
+            for (int k = 0; k < bomFanOut; k++) {
+                ProductRawMaterial line = new ProductRawMaterial();
+                line.setId((long) i * bomFanOut + k + 1);
+                line.setProduct(product);
+                line.setRawMaterial(rawMaterials.get((offset + k) % materialCount));
+                line.setRequiredQuantity(1 + random.nextInt(20));
+                product.getMaterials().add(line);
+            }
+            products.add(product);
+        }
+        return new SyntheticCatalog(products, rawMaterials);
+    }
+}
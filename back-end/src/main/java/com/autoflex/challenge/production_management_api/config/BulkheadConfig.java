@@ -0,0 +1,40 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link DatabaseBulkhead} in front of the API when {@code app.bulkhead.enabled} is set,
+ * which by default follows {@code spring.threads.virtual.enabled}: with virtual threads the container
+ * no longer limits concurrency, so something else has to keep requests off an exhausted connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final DatabaseBulkhead bulkhead;
+
+    public BulkheadConfig(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                          @Value("${app.bulkhead.read-permits:0}") int readPermits,
+                          @Value("${app.bulkhead.write-permits:0}") int writePermits,
+                          @Value("${app.bulkhead.max-wait-ms:2000}") long maxWaitMillis) {
+        // 0 means "derive from the connection pool"
+        this.bulkhead = readPermits > 0 && writePermits > 0
+                ? new DatabaseBulkhead(readPermits, writePermits, maxWaitMillis)
+                : DatabaseBulkhead.forPoolSize(poolSize, maxWaitMillis);
+    }
+
+    @Bean
+    public DatabaseBulkhead databaseBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(bulkhead)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,63 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Holds a {@link DatabaseBulkhead} permit for the duration of each API call. A handler's
+ * {@link DatabaseAccess} decides the pool; otherwise GET and HEAD count as reads and the rest as writes.
+ */
+class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final DatabaseBulkhead bulkhead;
+
+    BulkheadInterceptor(DatabaseBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        DatabaseAccess.Mode mode = accessOf(request, handler);
+        if (mode != DatabaseAccess.Mode.NONE) {
+            request.setAttribute(PERMIT_ATTRIBUTE, bulkhead.acquire(mode == DatabaseAccess.Mode.READ));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // async handlers (streams, emitters) run outside the bulkhead; the re-dispatch takes a fresh permit
+        release(request);
+    }
+
+    private static DatabaseAccess.Mode accessOf(HttpServletRequest request, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            DatabaseAccess access = handlerMethod.getMethodAnnotation(DatabaseAccess.class);
+            if (access != null) {
+                return access.value();
+            }
+        }
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                ? DatabaseAccess.Mode.READ : DatabaseAccess.Mode.WRITE;
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Semaphore permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            bulkhead.release(permit);
+        }
+    }
+}
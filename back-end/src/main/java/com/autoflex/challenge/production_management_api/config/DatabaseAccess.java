@@ -0,0 +1,26 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tells the {@link DatabaseBulkhead} which permit pool a handler draws from, overriding the HTTP method.
+ * Handlers that only work on the resident catalog or the in-memory buffers are {@link Mode#NONE}, so they
+ * neither wait for nor hold a permit that a request needing a connection could use.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DatabaseAccess {
+
+    Mode value();
+
+    enum Mode {
+        NONE,
+        READ,
+        WRITE
+    }
+}
@@ -0,0 +1,59 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import com.autoflex.challenge.production_management_api.exceptions.BulkheadFullException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many requests may be working against the database at once. Reads and writes draw from
+ * separate permit pools whose sum matches the connection pool, so a burst of listings cannot starve
+ * writes and no request ever blocks inside {@code getConnection()}. Waiters park on the semaphore,
+ * which costs a virtual thread almost nothing.
+ */
+public class DatabaseBulkhead {
+
+    private final Semaphore readPermits;
+    private final Semaphore writePermits;
+    private final long maxWaitMillis;
+
+    public DatabaseBulkhead(int readPermits, int writePermits, long maxWaitMillis) {
+        if (readPermits < 1 || writePermits < 1) {
+            throw new IllegalArgumentException("Bulkhead needs at least one read and one write permit");
+        }
+        this.readPermits = new Semaphore(readPermits, true);
+        this.writePermits = new Semaphore(writePermits, true);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /** Sizes the pools from the connection pool: a third (at least one) for writes, the rest for reads. */
+    public static DatabaseBulkhead forPoolSize(int poolSize, long maxWaitMillis) {
+        int writes = Math.max(1, poolSize / 3);
+        return new DatabaseBulkhead(Math.max(1, poolSize - writes), writes, maxWaitMillis);
+    }
+
+    /** Takes a permit from the matching pool and returns it; pass the result to {@link #release}. */
+    public Semaphore acquire(boolean readOnly) {
+        Semaphore permits = readOnly ? readPermits : writePermits;
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return permits;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new BulkheadFullException("Server is busy, please retry shortly");
+    }
+
+    public void release(Semaphore permits) {
+        permits.release();
+    }
+
+    public int availableReadPermits() {
+        return readPermits.availablePermits();
+    }
+
+    public int availableWritePermits() {
+        return writePermits.availablePermits();
+    }
+}
@@ -0,0 +1,69 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import com.autoflex.challenge.production_management_api.service.ProductService;
+import com.autoflex.challenge.production_management_api.service.StockDeltaBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+/** Exposes counters the services and the entity cache already keep; request timers and Hikari meters come from Boot itself. */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder suggestionMetrics(ProductService productService) {
+        return registry -> FunctionCounter.builder("suggestions.coalesced", productService, ProductService::getCoalescedSuggestionCalls)
+                .description("Suggestion requests served by a computation already in flight")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder stockDeltaMetrics(StockDeltaBuffer stockDeltaBuffer) {
+        return registry -> {
+            Gauge.builder("stock.deltas.pending", stockDeltaBuffer, StockDeltaBuffer::pendingAdjustmentCount)
+                    .description("Stock adjustments waiting for the next write-behind flush")
+                    .register(registry);
+            FunctionCounter.builder("stock.deltas.rejected", stockDeltaBuffer, StockDeltaBuffer::rejectedDeltaCount)
+                    .description("Stock deltas dropped at flush time")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        // hit/miss/put/eviction counts of every entity and natural-id region, read from the JCache statistics beans
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+            if (regionFactory instanceof JCacheRegionFactory jcache) {
+                CacheManager cacheManager = jcache.getCacheManager();
+                for (String name : cacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, cacheManager.getCache(name));
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(ObjectProvider<DatabaseBulkhead> bulkhead) {
+        return registry -> bulkhead.ifAvailable(b -> {
+            Gauge.builder("bulkhead.permits.available", b, DatabaseBulkhead::availableReadPermits)
+                    .tag("pool", "read")
+                    .description("Free database bulkhead permits")
+                    .register(registry);
+            Gauge.builder("bulkhead.permits.available", b, DatabaseBulkhead::availableWritePermits)
+                    .tag("pool", "write")
+                    .description("Free database bulkhead permits")
+                    .register(registry);
+        });
+    }
+}
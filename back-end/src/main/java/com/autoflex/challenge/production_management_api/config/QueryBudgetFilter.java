@@ -0,0 +1,38 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/** Counts the statements each request issues and flags requests over budget, the usual sign of an N+1. */
+class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final int maxStatements;
+
+    QueryBudgetFilter(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.Stats stats = QueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop();
+            if (stats.statements() > maxStatements) {
+                log.warn("Possible N+1: {} {} issued {} statements ({} ms in JDBC), budget is {}",
+                        request.getMethod(), request.getRequestURI(), stats.statements(), stats.elapsedMillis(), maxStatements);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.autoflex.challenge.production_management_api.config;
+
+/**
+ * Per-thread JDBC statement tally fed by the DataSource proxy. The request filter opens one scope per
+ * HTTP request; tests can open their own to assert a query budget:
+ * <pre>{@code
+ * QueryCounter.Stats stats = QueryCounter.start();
+ * try { service.call(); } finally { QueryCounter.stop(); }
+ * assertThat(stats.statements()).isEqualTo(1);
+ * }</pre>
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /** Starts counting on the current thread, replacing any scope already open. */
+    public static Stats start() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static Stats current() {
+        return CURRENT.get();
+    }
+
+    static void record(long elapsedMillis) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.elapsedMillis += elapsedMillis;
+        }
+    }
+
+    /** Statements executed in one scope; a JDBC batch counts once, as it is one round trip. */
+    public static final class Stats {
+        private int statements;
+        private long elapsedMillis;
+
+        public int statements() {
+            return statements;
+        }
+
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource in a timing proxy: statements are counted per request and only slow ones are
+ * logged, replacing {@code spring.jpa.show-sql}. On by default; {@code app.query-log.enabled=false}
+ * removes the proxy entirely.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.query-log.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryLoggingConfig {
+
+    @Bean
+    public static BeanPostProcessor queryLoggingDataSourcePostProcessor(Environment environment) {
+        // read from the Environment: post-processors are created before placeholders are resolvable
+        long slowThresholdMillis = environment.getProperty("app.query-log.slow-threshold-ms", Long.class, 100L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new QueryLoggingListener(slowThresholdMillis))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryBudgetFilter queryBudgetFilter(@Value("${app.query-log.max-statements-per-request:20}") int maxStatements) {
+        return new QueryBudgetFilter(maxStatements);
+    }
+}
@@ -0,0 +1,36 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Feeds {@link QueryCounter} and logs statements slower than the threshold, without their bind values. */
+class QueryLoggingListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryLoggingListener.class);
+
+    private final long slowThresholdMillis;
+
+    QueryLoggingListener(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        QueryCounter.record(elapsed);
+        if (elapsed >= slowThresholdMillis) {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            log.warn("Slow query ({} ms{}): {}", elapsed, execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "", sql);
+        }
+    }
+}
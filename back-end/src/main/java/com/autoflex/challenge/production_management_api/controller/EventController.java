@@ -0,0 +1,26 @@
+package com.autoflex.challenge.production_management_api.controller;
+
+import com.autoflex.challenge.production_management_api.service.ChangeFeed;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventController {
+
+    private final ChangeFeed changeFeed;
+
+    public EventController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    // long-lived: the request thread and the bulkhead permit are released as soon as the stream opens
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe() {
+        return ResponseEntity.status(HttpStatus.OK).body(changeFeed.subscribe());
+    }
+}
@@ -1,17 +1,36 @@
 package com.autoflex.challenge.production_management_api.controller;
 
+import com.autoflex.challenge.production_management_api.config.DatabaseAccess;
+import com.autoflex.challenge.production_management_api.dto.request.MaterialQuantityRequest;
 import com.autoflex.challenge.production_management_api.dto.request.ProductRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.request.StockScenarioBatchDTO;
+import com.autoflex.challenge.production_management_api.dto.request.StockScenarioDTO;
+import com.autoflex.challenge.production_management_api.dto.response.BulkProductResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.service.Deadline;
+import com.autoflex.challenge.production_management_api.service.PlanningMode;
+import com.autoflex.challenge.production_management_api.service.ProcurementService;
+import com.autoflex.challenge.production_management_api.service.ProductBulkService;
 import com.autoflex.challenge.production_management_api.service.ProductService;
+import com.autoflex.challenge.production_management_api.service.SuggestionSimulator;
+import com.autoflex.challenge.production_management_api.service.WarehouseService;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,15 +38,32 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    static final String TIMEOUT_HEADER = "X-Timeout-Ms";
+
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final SuggestionSimulator suggestionSimulator;
+    private final ProcurementService procurementService;
+    private final WarehouseService warehouseService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBulkService productBulkService,
+                             SuggestionSimulator suggestionSimulator, ProcurementService procurementService,
+                             WarehouseService warehouseService) {
         this.productService = productService;
+        this.productBulkService = productBulkService;
+        this.suggestionSimulator = suggestionSimulator;
+        this.procurementService = procurementService;
+        this.warehouseService = warehouseService;
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllProducts() {
-        return ResponseEntity.status(HttpStatus.OK).body(productService.getAllProducts());
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) Long after,
+                                            @RequestParam(required = false) Integer limit) {
+        // without paging parameters the full list is kept for existing clients
+        if (after == null && limit == null) {
+            return ResponseEntity.status(HttpStatus.OK).body(productService.getAllProducts());
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(productService.getProductPage(after, limit));
     }
 
     @GetMapping("/{id}")
@@ -35,9 +71,76 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.OK).body(productService.getProduct(id));
     }
 
+    @GetMapping("/sku/{skuCode}")
+    public ResponseEntity<?> getProductBySku(@PathVariable String skuCode) {
+        return ResponseEntity.status(HttpStatus.OK).body(productService.getProductBySku(skuCode));
+    }
+
+    @GetMapping("/{id}/bom")
+    public ResponseEntity<?> getProductBom(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.OK).body(productService.getProductBom(id));
+    }
+
+    // the query parameter wins over the header when both are sent; plans come from the resident catalog
+    // and wait in the planning queue, which a held read permit would only keep from other requests
+    @DatabaseAccess(DatabaseAccess.Mode.NONE)
     @GetMapping("/suggestions")
-    public ResponseEntity<?> getProductSuggestions() {
-        return ResponseEntity.status(HttpStatus.OK).body(productService.getProductSuggestion());
+    public ResponseEntity<?> getProductSuggestions(@RequestParam(defaultValue = "greedy") String mode,
+                                                   @RequestParam(required = false) Long budgetMs,
+                                                   @RequestParam(required = false) Long timeoutMs,
+                                                   @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutHeader,
+                                                   WebRequest webRequest) {
+        Deadline deadline = Deadline.of(timeoutMs != null ? timeoutMs : timeoutHeader);
+        PlanningMode planningMode = PlanningMode.fromParam(mode);
+        if (planningMode == PlanningMode.OPTIMAL) {
+            return ResponseEntity.status(HttpStatus.OK).body(productService.getOptimalProductSuggestion(budgetMs, deadline));
+        }
+        // the greedy plan is a pure function of the catalog, so its version is a strong validator
+        String eTag = "\"catalog-" + productService.getCatalogVersion() + "\"";
+        if (matchesIfNoneMatch(webRequest, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        ProductSuggestionResponse response = productService.getProductSuggestion(deadline);
+        if (response.partial()) {
+            // a cut-short plan is not what the version stands for: never tag or cache it
+            return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noStore()).body(response);
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(response);
+    }
+
+    // unlike the other plans, per-site plans read the warehouses and their stock from the database
+    @DatabaseAccess(DatabaseAccess.Mode.READ)
+    @GetMapping(value = "/suggestions", params = "bySite=true")
+    public ResponseEntity<?> getSiteSuggestions(@RequestParam(defaultValue = "greedy") String mode,
+                                                @RequestParam(required = false) Long timeoutMs,
+                                                @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutHeader) {
+        if (PlanningMode.fromParam(mode) != PlanningMode.GREEDY) {
+            throw new IllegalArgumentException("Per-site plans are only available in greedy mode");
+        }
+        Deadline deadline = Deadline.of(timeoutMs != null ? timeoutMs : timeoutHeader);
+        return ResponseEntity.status(HttpStatus.OK).body(warehouseService.getSiteSuggestions(deadline));
+    }
+
+    @DatabaseAccess(DatabaseAccess.Mode.NONE)
+    @PostMapping("/suggestions/simulate")
+    public ResponseEntity<?> simulateSuggestion(@Valid @RequestBody StockScenarioDTO scenario) {
+        return ResponseEntity.status(HttpStatus.OK).body(suggestionSimulator.simulate(scenario));
+    }
+
+    @DatabaseAccess(DatabaseAccess.Mode.NONE)
+    @PostMapping("/suggestions/simulate/batch")
+    public ResponseEntity<?> simulateSuggestions(@Valid @RequestBody StockScenarioBatchDTO batch) {
+        return ResponseEntity.status(HttpStatus.OK).body(suggestionSimulator.simulateAll(batch.scenarios()));
+    }
+
+    // the body is parsed and aggregated before the response starts, so bad lines still map to 400/404
+    @DatabaseAccess(DatabaseAccess.Mode.NONE)
+    @PostMapping(value = "/requirements", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateRequirements(InputStream body) {
+        ProcurementService.Requirements requirements = procurementService.calculate(body);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> procurementService.write(requirements, out));
     }
 
     @PostMapping
@@ -46,15 +149,41 @@ public class ProductController {
     }
 
 
+    // rows are validated one by one in the service so each rejection is reported instead of failing the batch
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createProducts(@RequestBody List<ProductRequestDTO> productRequestDTOs) {
+        BulkProductResponse response = productBulkService.createProducts(productRequestDTOs);
+        HttpStatus status = response.createdCount() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProduct(@Valid @RequestBody ProductRequestDTO productRequestDTO, @PathVariable Long id) {
         return ResponseEntity.status(HttpStatus.OK).body(productService.updateProduct(id, productRequestDTO));
     }
 
+    // one BOM line without resending the whole product
+    @PatchMapping("/{id}/materials/{rawMaterialId}")
+    public ResponseEntity<?> updateMaterialLine(@PathVariable Long id, @PathVariable Long rawMaterialId,
+                                                @Valid @RequestBody MaterialQuantityRequest request) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(productService.updateMaterialLine(id, rawMaterialId, request.requiredQuantity()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
+    // checked by hand: WebRequest.checkNotModified tags the response on a mismatch too, and a partial plan
+    // must go out untagged
+    private static boolean matchesIfNoneMatch(WebRequest webRequest, String eTag) {
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(eTag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
 }
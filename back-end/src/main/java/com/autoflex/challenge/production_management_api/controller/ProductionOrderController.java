@@ -0,0 +1,25 @@
+package com.autoflex.challenge.production_management_api.controller;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductionOrderRequestDTO;
+import com.autoflex.challenge.production_management_api.service.ProductionOrderService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/production-orders")
+@CrossOrigin(origins = "*")
+public class ProductionOrderController {
+
+    private final ProductionOrderService productionOrderService;
+
+    public ProductionOrderController(ProductionOrderService productionOrderService) {
+        this.productionOrderService = productionOrderService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createProductionOrder(@Valid @RequestBody ProductionOrderRequestDTO productionOrderRequestDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(productionOrderService.createProductionOrder(productionOrderRequestDTO));
+    }
+}
@@ -1,13 +1,19 @@
 package com.autoflex.challenge.production_management_api.controller;
 
+import com.autoflex.challenge.production_management_api.config.DatabaseAccess;
 import com.autoflex.challenge.production_management_api.dto.request.RawMaterialRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.request.StockDeltaRequestDTO;
 import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.service.ImportFormat;
+import com.autoflex.challenge.production_management_api.service.RawMaterialImportService;
 import com.autoflex.challenge.production_management_api.service.RawMaterialService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,13 +22,20 @@ import java.util.List;
 public class RawMaterialController {
 
     private final RawMaterialService rawMaterialService;
-    public RawMaterialController(RawMaterialService rawMaterialService) {
+    private final RawMaterialImportService rawMaterialImportService;
+    public RawMaterialController(RawMaterialService rawMaterialService, RawMaterialImportService rawMaterialImportService) {
         this.rawMaterialService = rawMaterialService;
+        this.rawMaterialImportService = rawMaterialImportService;
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllRawMaterials() {
-        return ResponseEntity.status(HttpStatus.OK).body(rawMaterialService.getAllRawMaterials());
+    public ResponseEntity<?> getAllRawMaterials(@RequestParam(required = false) Long after,
+                                                @RequestParam(required = false) Integer limit) {
+        // without paging parameters the full list is kept for existing clients
+        if (after == null && limit == null) {
+            return ResponseEntity.status(HttpStatus.OK).body(rawMaterialService.getAllRawMaterials());
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(rawMaterialService.getRawMaterialPage(after, limit));
     }
 
     @GetMapping("/{id}")
@@ -30,11 +43,31 @@ public class RawMaterialController {
         return ResponseEntity.status(HttpStatus.OK).body(rawMaterialService.getRawMaterialById(id));
     }
 
+    @GetMapping("/sku/{skuCode}")
+    public ResponseEntity<?> getRawMaterialBySku(@PathVariable String skuCode) {
+        return ResponseEntity.status(HttpStatus.OK).body(rawMaterialService.getRawMaterialBySku(skuCode));
+    }
+
     @PostMapping
     public ResponseEntity<?> createRawMaterial(@Valid @RequestBody RawMaterialRequestDTO rawMaterialRequestDTO) {
         return ResponseEntity.status(HttpStatus.CREATED).body(rawMaterialService.createRawMaterial(rawMaterialRequestDTO));
     }
 
+    // the body is consumed as a stream, never bound to a request object, so file size does not matter
+    @PostMapping(value = "/import", consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<?> importRawMaterials(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                InputStream body) {
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        return ResponseEntity.status(HttpStatus.OK).body(rawMaterialImportService.importRawMaterials(body, format));
+    }
+
+    // buffered in memory; the flush runs on the scheduler, outside any request
+    @DatabaseAccess(DatabaseAccess.Mode.NONE)
+    @PostMapping("/{id}/stock-deltas")
+    public ResponseEntity<?> recordStockDelta(@Valid @RequestBody StockDeltaRequestDTO stockDeltaRequestDTO, @PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(rawMaterialService.recordStockDelta(id, stockDeltaRequestDTO.delta()));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateRawMaterial(@Valid @RequestBody RawMaterialRequestDTO rawMaterialRequestDTO, @PathVariable Long id) {
         return ResponseEntity.status(HttpStatus.OK).body(rawMaterialService.updateRawMaterial(rawMaterialRequestDTO, id));
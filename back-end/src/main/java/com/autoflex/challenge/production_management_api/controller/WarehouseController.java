@@ -0,0 +1,42 @@
+package com.autoflex.challenge.production_management_api.controller;
+
+import com.autoflex.challenge.production_management_api.dto.request.SiteStockRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.request.WarehouseRequestDTO;
+import com.autoflex.challenge.production_management_api.service.WarehouseService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/warehouses")
+@CrossOrigin(origins = "*")
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+
+    public WarehouseController(WarehouseService warehouseService) {
+        this.warehouseService = warehouseService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getAllWarehouses() {
+        return ResponseEntity.status(HttpStatus.OK).body(warehouseService.getAllWarehouses());
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createWarehouse(@Valid @RequestBody WarehouseRequestDTO warehouseRequestDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(warehouseService.createWarehouse(warehouseRequestDTO));
+    }
+
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<?> getSiteStock(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.OK).body(warehouseService.getSiteStock(id));
+    }
+
+    @PutMapping("/{id}/stock/{rawMaterialId}")
+    public ResponseEntity<?> setSiteStock(@PathVariable Long id, @PathVariable Long rawMaterialId,
+                                          @Valid @RequestBody SiteStockRequestDTO request) {
+        return ResponseEntity.status(HttpStatus.OK).body(warehouseService.setSiteStock(id, rawMaterialId, request.stock()));
+    }
+}
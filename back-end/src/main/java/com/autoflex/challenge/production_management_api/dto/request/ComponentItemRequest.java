@@ -0,0 +1,12 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record ComponentItemRequest(
+    @NotNull(message = "Component product ID is required")
+    Long componentProductId,
+
+    @Positive(message = "requiredQuantity must be greather than zero")
+    int requiredQuantity
+    ){}
@@ -0,0 +1,9 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.constraints.Positive;
+
+public record MaterialQuantityRequest(
+        @Positive(message = "requiredQuantity must be greather than zero")
+        int requiredQuantity
+) {
+}
@@ -18,5 +18,13 @@ public record ProductRequestDTO(
     double productValue,
     @NotEmpty(message = "At least one raw material is required")
     @Valid
-    List<MaterialItemRequest> materialsRequired
-){}
+    List<MaterialItemRequest> materialsRequired,
+    // optional sub-assemblies: other products consumed per unit, on top of the raw materials
+    @Valid
+    List<ComponentItemRequest> components
+){
+    public ProductRequestDTO(String productName, String skuCode, double productValue,
+                             List<MaterialItemRequest> materialsRequired) {
+        this(productName, skuCode, productValue, materialsRequired, null);
+    }
+}
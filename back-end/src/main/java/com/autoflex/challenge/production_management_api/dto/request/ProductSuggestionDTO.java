@@ -1,6 +1,7 @@
 package com.autoflex.challenge.production_management_api.dto.request;
 
 public record ProductSuggestionDTO(
+        Long productId,
         String productName,
         Integer quantityProduced,
         Double subtotal
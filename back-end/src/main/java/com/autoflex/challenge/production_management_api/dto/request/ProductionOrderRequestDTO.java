@@ -0,0 +1,11 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record ProductionOrderRequestDTO(
+        @NotNull(message = "Product ID is required")
+        Long productId,
+        @Positive(message = "quantity must be greater than zero")
+        int quantity
+) {}
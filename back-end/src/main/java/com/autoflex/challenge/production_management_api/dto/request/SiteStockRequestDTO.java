@@ -0,0 +1,10 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record SiteStockRequestDTO(
+        @NotNull(message = "Quantity is required")
+        @PositiveOrZero(message = "Must be a positive number")
+        Integer stock
+) {}
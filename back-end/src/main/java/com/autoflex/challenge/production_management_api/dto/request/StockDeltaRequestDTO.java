@@ -0,0 +1,8 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+public record StockDeltaRequestDTO(
+        @NotNull(message = "delta is required")
+        Integer delta
+) {}
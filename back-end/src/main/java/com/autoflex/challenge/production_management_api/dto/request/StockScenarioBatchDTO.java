@@ -0,0 +1,14 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record StockScenarioBatchDTO(
+        @NotEmpty(message = "At least one scenario is required")
+        @Size(max = 100, message = "At most 100 scenarios per request")
+        @Valid
+        List<StockScenarioDTO> scenarios
+) {}
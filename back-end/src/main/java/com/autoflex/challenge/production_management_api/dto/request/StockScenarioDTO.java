@@ -0,0 +1,13 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.Map;
+
+/** Hypothetical inventory: overrides replace a material's stock, then deltas are added to it. Keys are raw material IDs. */
+public record StockScenarioDTO(
+        String name,
+        Map<Long, @NotNull @PositiveOrZero(message = "Stock override cannot be negative") Integer> stockOverrides,
+        Map<Long, @NotNull Integer> stockDeltas
+) {}
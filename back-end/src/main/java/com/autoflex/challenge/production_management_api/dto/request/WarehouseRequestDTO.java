@@ -0,0 +1,10 @@
+package com.autoflex.challenge.production_management_api.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record WarehouseRequestDTO(
+        @NotBlank(message = "Warehouse code is required")
+        String code,
+        @NotBlank(message = "Warehouse name is required")
+        String name
+) {}
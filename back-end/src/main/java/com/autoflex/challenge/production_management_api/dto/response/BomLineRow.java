@@ -0,0 +1,9 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** One BOM line of a product, projected without loading the entities. */
+public record BomLineRow(
+        Long rawMaterialId,
+        String materialName,
+        int requiredQuantity
+) {
+}
@@ -0,0 +1,17 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import java.util.List;
+
+public record BulkProductResponse(
+        int createdCount,
+        List<Long> createdIds,
+        List<RejectedRowDTO> rejected
+) {
+    public static BulkProductResponse fromData(List<Long> createdIds, List<RejectedRowDTO> rejected) {
+        return new BulkProductResponse(
+                createdIds.size(),
+                createdIds,
+                rejected
+        );
+    }
+}
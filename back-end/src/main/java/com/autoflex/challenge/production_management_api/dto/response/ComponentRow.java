@@ -0,0 +1,9 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** One sub-assembly edge of the BOM graph, projected without loading the entities. */
+public record ComponentRow(
+        Long productId,
+        Long componentId,
+        int requiredQuantity
+) {
+}
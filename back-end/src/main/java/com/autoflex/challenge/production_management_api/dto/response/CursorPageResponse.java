@@ -0,0 +1,19 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the id to pass as {@code after}
+ * for the following page, or {@code null} on the last page.
+ */
+public record CursorPageResponse<T>(
+        List<T> items,
+        Long nextCursor
+) {
+    public static <T> CursorPageResponse<T> fromData(List<T> items, Long nextCursor) {
+        return new CursorPageResponse<>(
+                items,
+                nextCursor
+        );
+    }
+}
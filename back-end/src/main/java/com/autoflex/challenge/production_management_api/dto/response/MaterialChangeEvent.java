@@ -0,0 +1,9 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** Pushed when a raw material's stock changed or the material was deleted ({@code stock} is then null). */
+public record MaterialChangeEvent(
+        Long rawMaterialId,
+        Integer stock,
+        boolean removed
+) {
+}
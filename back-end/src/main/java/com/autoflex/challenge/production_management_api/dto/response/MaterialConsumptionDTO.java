@@ -0,0 +1,8 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+public record MaterialConsumptionDTO(
+        Long rawMaterialId,
+        String materialName,
+        int quantityConsumed
+) {
+}
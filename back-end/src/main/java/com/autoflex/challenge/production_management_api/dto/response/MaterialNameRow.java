@@ -0,0 +1,8 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** The current name of a raw material, projected without loading the entity. */
+public record MaterialNameRow(
+        Long rawMaterialId,
+        String materialName
+) {
+}
@@ -0,0 +1,10 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** Stock needed by a set of production targets; {@code shortfall} is what has to be bought. */
+public record MaterialRequirementDTO(
+        Long rawMaterialId,
+        long requiredQuantity,
+        int stock,
+        long shortfall
+) {
+}
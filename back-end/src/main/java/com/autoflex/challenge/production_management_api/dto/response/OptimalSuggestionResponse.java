@@ -0,0 +1,25 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+
+import java.util.List;
+
+public record OptimalSuggestionResponse(
+        List<ProductSuggestionDTO> suggestions,
+        Double totalValue,
+        Double upperBound,
+        Double optimalityGap,
+        boolean optimal
+) {
+    public static OptimalSuggestionResponse fromData(List<ProductSuggestionDTO> suggestions, double totalValue,
+                                                     double upperBound, boolean optimal) {
+        double gap = optimal || upperBound <= 0 ? 0.0 : Math.max(0.0, (upperBound - totalValue) / upperBound);
+        return new OptimalSuggestionResponse(
+                suggestions,
+                totalValue,
+                optimal ? totalValue : upperBound,
+                gap,
+                optimal
+        );
+    }
+}
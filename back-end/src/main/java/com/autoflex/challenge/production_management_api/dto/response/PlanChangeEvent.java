@@ -0,0 +1,18 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+
+import java.util.List;
+
+/**
+ * Difference between two consecutive greedy plans: rows that are new or changed, and ids of products
+ * that dropped out. Rows are matched by product id, since two products may share a name. {@code suggestionCount} is the size of the new plan, to check a locally patched copy.
+ */
+public record PlanChangeEvent(
+        long version,
+        Double totalValue,
+        int suggestionCount,
+        List<ProductSuggestionDTO> changed,
+        List<Long> removed
+) {
+}
@@ -0,0 +1,12 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import java.util.List;
+
+/** A product's direct components and its BOM flattened down to raw materials, per unit. */
+public record ProductBomResponse(
+        Long productId,
+        String productName,
+        List<ComponentSummaryDTO> components,
+        List<BomLineRow> rawMaterials
+) {
+}
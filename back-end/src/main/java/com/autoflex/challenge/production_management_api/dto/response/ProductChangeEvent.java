@@ -0,0 +1,10 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** Pushed when a product was created, updated or deleted; name and value are null for deletions. */
+public record ProductChangeEvent(
+        Long productId,
+        String productName,
+        Double productValue,
+        boolean removed
+) {
+}
@@ -4,10 +4,16 @@ import com.autoflex.challenge.production_management_api.dto.request.ProductSugge
 
 import java.util.List;
 
+/** {@code partial} is set when the request's deadline cut planning short; the plan then covers the top-ranked products only. */
 public record ProductSuggestionResponse(
         List<ProductSuggestionDTO> suggestions,
-        Double totalValue
+        Double totalValue,
+        boolean partial
 ) {
+    public ProductSuggestionResponse(List<ProductSuggestionDTO> suggestions, Double totalValue) {
+        this(suggestions, totalValue, false);
+    }
+
     public static ProductSuggestionResponse fromData(List<ProductSuggestionDTO> suggestions, double totalValue) {
         return new ProductSuggestionResponse(
                 suggestions,
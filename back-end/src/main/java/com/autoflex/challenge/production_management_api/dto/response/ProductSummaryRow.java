@@ -0,0 +1,11 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** One product summary as stored, projected without loading the entity; the BOM lines are still JSON. */
+public record ProductSummaryRow(
+        Long productId,
+        String productName,
+        String skuCode,
+        double productValue,
+        String materialsJson
+) {
+}
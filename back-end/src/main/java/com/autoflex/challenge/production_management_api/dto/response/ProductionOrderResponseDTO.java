@@ -0,0 +1,10 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import java.util.List;
+
+public record ProductionOrderResponseDTO(
+        Long productId,
+        int quantity,
+        List<MaterialConsumptionDTO> materialsConsumed
+) {
+}
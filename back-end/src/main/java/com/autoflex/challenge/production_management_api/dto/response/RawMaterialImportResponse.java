@@ -0,0 +1,16 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a streaming import. {@code rejected} lists at most the first rejections (by line
+ * number); {@code rejectedCount} always has the full total.
+ */
+public record RawMaterialImportResponse(
+        long processed,
+        long created,
+        long updated,
+        long rejectedCount,
+        List<RejectedRowDTO> rejected
+) {
+}
@@ -0,0 +1,11 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import java.util.List;
+
+/** A row of a bulk request that was not persisted, identified by its position in the request. */
+public record RejectedRowDTO(
+        int index,
+        String skuCode,
+        List<String> errors
+) {
+}
@@ -0,0 +1,6 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+public record ScenarioSuggestionDTO(
+        String name,
+        ProductSuggestionResponse suggestion
+) {}
@@ -0,0 +1,9 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/** Stock of one raw material at one site, projected without loading the entities. */
+public record SiteStockRow(
+        Long warehouseId,
+        Long rawMaterialId,
+        int stock
+) {
+}
@@ -0,0 +1,7 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+public record SiteSuggestionDTO(
+        Long warehouseId,
+        String warehouseCode,
+        ProductSuggestionResponse suggestion
+) {}
@@ -0,0 +1,16 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+
+import java.util.List;
+
+/**
+ * One independent plan per site, plus the units and value of all sites added together. {@code partial} is set
+ * when the request's deadline cut at least one site's plan short.
+ */
+public record SiteSuggestionResponse(
+        List<SiteSuggestionDTO> sites,
+        List<ProductSuggestionDTO> totals,
+        Double totalValue,
+        boolean partial
+) {}
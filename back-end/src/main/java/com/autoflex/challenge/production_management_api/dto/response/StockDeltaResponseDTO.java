@@ -0,0 +1,12 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+/**
+ * Acknowledges a buffered adjustment; {@code pendingDelta} is what is still waiting to be flushed and
+ * {@code rejectedDeltas} how many earlier flushes of this material the database refused.
+ */
+public record StockDeltaResponseDTO(
+        Long rawMaterialId,
+        long pendingDelta,
+        long rejectedDeltas
+) {
+}
@@ -0,0 +1,17 @@
+package com.autoflex.challenge.production_management_api.dto.response;
+
+import com.autoflex.challenge.production_management_api.entity.Warehouse;
+
+public record WarehouseResponseDTO(
+        Long id,
+        String code,
+        String name
+) {
+    public static WarehouseResponseDTO fromEntity(Warehouse warehouse) {
+        return new WarehouseResponseDTO(
+                warehouse.getId(),
+                warehouse.getCode(),
+                warehouse.getName()
+        );
+    }
+}
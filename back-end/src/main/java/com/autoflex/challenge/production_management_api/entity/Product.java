@@ -5,6 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,12 +18,16 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "PRODUCT")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@NaturalIdCache(region = "productBySku")
 public class Product {
     @Id
-            @GeneratedValue(strategy = GenerationType.SEQUENCE)
-            @SequenceGenerator(name = "product_seq", sequenceName = "PRODUCT_SEQ", allocationSize = 1)
+            @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+            @SequenceGenerator(name = "product_seq", sequenceName = "PRODUCT_SEQ", allocationSize = 50)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String skuCode;
 
@@ -29,6 +37,11 @@ public class Product {
     @Column(nullable = false)
     private double value;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productMaterials")
     @OneToMany(mappedBy = "product",  cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ProductRawMaterial> materials = new ArrayList<>();
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productComponents")
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<ProductComponent> components = new ArrayList<>();
 }
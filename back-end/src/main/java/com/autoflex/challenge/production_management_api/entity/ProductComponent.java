@@ -0,0 +1,37 @@
+package com.autoflex.challenge.production_management_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/** Sub-assembly line: {@code requiredQuantity} units of {@code component} go into one unit of {@code product}. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "PRODUCT_COMPONENT",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "component_id"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productComponent")
+public class ProductComponent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne
+    @JoinColumn(name = "component_id", nullable = false)
+    private Product component;
+
+    @Column(nullable = false)
+    private int requiredQuantity;
+}
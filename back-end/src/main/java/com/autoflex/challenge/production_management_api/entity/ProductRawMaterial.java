@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -13,6 +15,8 @@ import lombok.Setter;
 @Entity
 @Table(name = "PRODUCT_RAW_MATERIAL",
         uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "raw_material_id"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productRawMaterial")
 public class ProductRawMaterial {
 
     @Id
@@ -0,0 +1,67 @@
+package com.autoflex.challenge.production_management_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Read model of a product as the listings return it: the product columns plus its BOM lines, with the
+ * material names, serialized to JSON. Keyed by the product id and kept up to date by every write that
+ * changes what a listing shows, so a read never joins the BOM tables.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "PRODUCT_SUMMARY")
+public class ProductSummary implements Persistable<Long> {
+
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private String skuCode;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private double value;
+
+    @Lob
+    @Column(nullable = false)
+    private String materialsJson;
+
+    // the id is the product's, so Spring Data cannot tell a new row apart; this saves a SELECT per insert
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean created;
+
+    /** A row for a product that has no summary yet. */
+    public static ProductSummary forProduct(Long productId) {
+        ProductSummary summary = new ProductSummary();
+        summary.productId = productId;
+        summary.created = true;
+        return summary;
+    }
+
+    @Override
+    public Long getId() {
+        return productId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markStored() {
+        created = false;
+    }
+}
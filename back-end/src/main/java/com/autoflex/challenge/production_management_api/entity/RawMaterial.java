@@ -5,6 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Getter
 @Setter
@@ -12,13 +16,17 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "RAW_MATERIAL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rawMaterial")
+@NaturalIdCache(region = "rawMaterialBySku")
 public class RawMaterial {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
-    @SequenceGenerator(name = "raw_material_seq", sequenceName = "RAW_MATERIAL_SEQ", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "raw_material_seq")
+    @SequenceGenerator(name = "raw_material_seq", sequenceName = "RAW_MATERIAL_SEQ", allocationSize = 50)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String skuCode;
 
@@ -0,0 +1,37 @@
+package com.autoflex.challenge.production_management_api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/** Stock of one raw material at one site; a material without a row has no stock there. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "WAREHOUSE_STOCK",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"warehouse_id", "raw_material_id"}))
+public class WarehouseStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    // deleting a raw material drops its site stock with it
+    @ManyToOne
+    @JoinColumn(name = "raw_material_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private RawMaterial rawMaterial;
+
+    @Column(nullable = false)
+    private int stock;
+}
@@ -0,0 +1,9 @@
+package com.autoflex.challenge.production_management_api.exceptions;
+
+/** No database permit became free within the bulkhead's wait time; the caller should retry later. */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.autoflex.challenge.production_management_api.exceptions;
+
+/** A production order needs more of a raw material than is currently in stock. */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
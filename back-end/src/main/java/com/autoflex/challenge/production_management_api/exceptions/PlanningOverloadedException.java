@@ -0,0 +1,16 @@
+package com.autoflex.challenge.production_management_api.exceptions;
+
+/** The planning queue is full, or a plan was not ready within the request's deadline; the caller should retry later. */
+public class PlanningOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PlanningOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,28 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Loads entities by their {@code @NaturalId} (the SKU code). Unlike a derived {@code findBySkuCode}
+ * query, this goes through Hibernate's natural-id cache and then the entity cache, so a warm lookup
+ * never reaches the database.
+ */
+@Repository
+public class NaturalIdLookup {
+
+    private final EntityManager entityManager;
+
+    public NaturalIdLookup(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public <T> Optional<T> find(Class<T> entityType, String naturalId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(entityType).loadOptional(naturalId);
+    }
+}
@@ -1,14 +1,58 @@
 package com.autoflex.challenge.production_management_api.repository;
 
+import com.autoflex.challenge.production_management_api.dto.response.BomLineRow;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentRow;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialNameRow;
 import com.autoflex.challenge.production_management_api.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.materials m LEFT JOIN FETCH m.rawMaterial")
+    String WITH_MATERIALS = "SELECT p FROM Product p LEFT JOIN FETCH p.materials m LEFT JOIN FETCH m.rawMaterial ";
+
+    @Query(WITH_MATERIALS)
     List<Product> findAllWithMaterials();
+
+    // products whose listing shows one of these materials, e.g. to refresh their summaries after a rename
+    @Query(WITH_MATERIALS + "WHERE p.id IN (SELECT pm.product.id FROM ProductRawMaterial pm "
+            + "WHERE pm.rawMaterial.id IN :rawMaterialIds)")
+    List<Product> findAllWithMaterialsUsing(Collection<Long> rawMaterialIds);
+
+    @Query(WITH_MATERIALS + "WHERE NOT EXISTS (SELECT s.productId FROM ProductSummary s WHERE s.productId = p.id)")
+    List<Product> findAllWithMaterialsWithoutSummary();
+
+    @Query("SELECT new com.autoflex.challenge.production_management_api.dto.response.BomLineRow(rm.id, rm.name, m.requiredQuantity) "
+            + "FROM ProductRawMaterial m JOIN m.rawMaterial rm WHERE m.product.id = :productId ORDER BY rm.id")
+    List<BomLineRow> findBomLines(Long productId);
+
+    // a projection reads the names from the database, past any stale entity already in the persistence context
+    @Query("SELECT DISTINCT new com.autoflex.challenge.production_management_api.dto.response.MaterialNameRow(rm.id, rm.name) "
+            + "FROM ProductRawMaterial m JOIN m.rawMaterial rm WHERE m.product.id IN :productIds")
+    List<MaterialNameRow> findMaterialNames(Collection<Long> productIds);
+
+    @Query("SELECT new com.autoflex.challenge.production_management_api.dto.response.ComponentRow("
+            + "c.product.id, c.component.id, c.requiredQuantity) FROM ProductComponent c")
+    List<ComponentRow> findAllComponentRows();
+
+    @Query("SELECT new com.autoflex.challenge.production_management_api.dto.response.ComponentRow("
+            + "c.product.id, c.component.id, c.requiredQuantity) FROM ProductComponent c WHERE c.product.id IN :productIds")
+    List<ComponentRow> findComponentRows(Collection<Long> productIds);
+
+    // locked in id order, so writers locking overlapping sets queue up instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> lockAllById(Collection<Long> ids);
+
+    @Query("SELECT COUNT(c) > 0 FROM ProductComponent c WHERE c.component.id = :productId")
+    boolean isUsedAsComponent(Long productId);
+
+    @Query("SELECT p.skuCode FROM Product p WHERE p.skuCode IN :skuCodes")
+    List<String> findExistingSkuCodes(Collection<String> skuCodes);
 }
@@ -0,0 +1,44 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import com.autoflex.challenge.production_management_api.dto.response.ProductSummaryRow;
+import com.autoflex.challenge.production_management_api.entity.ProductSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductSummaryRepository extends JpaRepository<ProductSummary, Long> {
+    String SUMMARY_ROW = "SELECT new com.autoflex.challenge.production_management_api.dto.response.ProductSummaryRow("
+            + "s.productId, s.name, s.skuCode, s.value, s.materialsJson) FROM ProductSummary s ";
+
+    // listing reads: one table, primary-key order or lookup, no joins and no managed entities
+    @Query(SUMMARY_ROW + "ORDER BY s.productId")
+    List<ProductSummaryRow> findAllRows();
+
+    @Query(SUMMARY_ROW + "WHERE s.productId = :productId")
+    Optional<ProductSummaryRow> findRowById(Long productId);
+
+    @Query(SUMMARY_ROW + "WHERE s.productId > :after ORDER BY s.productId")
+    List<ProductSummaryRow> findRowsAfter(long after, Limit limit);
+
+    // locked in id order, so concurrent refreshes of overlapping products queue up instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductSummary s WHERE s.productId IN (SELECT pm.product.id FROM ProductRawMaterial pm "
+            + "WHERE pm.rawMaterial.id IN :rawMaterialIds) ORDER BY s.productId")
+    List<ProductSummary> lockAllUsing(Collection<Long> rawMaterialIds);
+
+    // same lock and order as lockAllUsing, so an edit and a rename of one of its materials queue up
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductSummary s WHERE s.productId IN :productIds ORDER BY s.productId")
+    List<ProductSummary> lockAllById(Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductSummary s WHERE s.productId = :productId")
+    int deleteByProductId(Long productId);
+}
@@ -1,7 +1,23 @@
 package com.autoflex.challenge.production_management_api.repository;
 
 import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
-public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long>, RawMaterialStockUpdates {
+    List<RawMaterial> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+
+    List<RawMaterial> findBySkuCodeIn(Collection<String> skuCodes);
+
+    // stock writers (orders, delta flushes) wait on the row lock, so the stock read here stays current until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM RawMaterial m WHERE m.id = :id")
+    Optional<RawMaterial> lockById(Long id);
 }
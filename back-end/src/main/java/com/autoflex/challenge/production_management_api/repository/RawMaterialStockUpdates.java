@@ -0,0 +1,14 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+/**
+ * Conditional stock updates for {@link RawMaterialRepository}. Unlike a JPQL bulk update, which makes
+ * Hibernate drop the whole raw material cache region, these invalidate only the row they change.
+ */
+public interface RawMaterialStockUpdates {
+
+    /** Decrements the stock if at least {@code amount} is left; returns the number of rows updated. */
+    int consumeStock(Long id, int amount);
+
+    /** Adds {@code delta} if the stock stays within 0 and {@code Integer.MAX_VALUE}; returns the number of rows updated. */
+    int applyStockDelta(Long id, int delta);
+}
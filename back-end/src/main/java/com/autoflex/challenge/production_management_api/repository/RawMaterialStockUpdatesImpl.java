@@ -0,0 +1,77 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Runs the stock UPDATEs on the session's connection and soft-locks the matching second-level cache entry,
+ * the way Hibernate does for an entity update: until the transaction completes, readers of that raw
+ * material go to the database and cannot put a value read before the commit back into the cache. Every
+ * other cached material stays warm.
+ */
+class RawMaterialStockUpdatesImpl implements RawMaterialStockUpdates {
+
+    // the row is locked only by this statement, never read first
+    private static final String CONSUME = "UPDATE RAW_MATERIAL SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    // the bound is checked in a wider type, so a stock near either end of the int range cannot overflow it
+    private static final String APPLY_DELTA = "UPDATE RAW_MATERIAL SET stock = stock + ? WHERE id = ? "
+            + "AND CAST(stock AS NUMERIC(19)) + ? BETWEEN 0 AND 2147483647";
+
+    private final EntityManager entityManager;
+
+    RawMaterialStockUpdatesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int consumeStock(Long id, int amount) {
+        return update(id, CONSUME, amount, amount);
+    }
+
+    @Override
+    public int applyStockDelta(Long id, int delta) {
+        return update(id, APPLY_DELTA, delta, delta);
+    }
+
+    private int update(Long id, String sql, long change, long bound) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        lockCacheEntry(session, id);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, change);
+                statement.setLong(2, id);
+                statement.setLong(3, bound);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    private static void lockCacheEntry(SessionImplementor session, Long id) {
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(RawMaterial.class);
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        if (cache == null) {
+            return;
+        }
+        Object key = cache.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        SoftLock lock = cache.lockItem(session, key, null);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.unlockItem(session, key, lock);
+            return;
+        }
+        // released on rollback too: the entry then reloads the unchanged row
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.unlockItem(session, key, lock);
+            }
+        });
+    }
+}
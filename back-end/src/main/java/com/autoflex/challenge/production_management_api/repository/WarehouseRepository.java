@@ -0,0 +1,12 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import com.autoflex.challenge.production_management_api.entity.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+    List<Warehouse> findAllByOrderByIdAsc();
+
+    boolean existsByCode(String code);
+}
@@ -0,0 +1,24 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import com.autoflex.challenge.production_management_api.dto.response.SiteStockRow;
+import com.autoflex.challenge.production_management_api.entity.WarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+
+    String STOCK_ROW = "SELECT new com.autoflex.challenge.production_management_api.dto.response.SiteStockRow("
+            + "s.warehouse.id, s.rawMaterial.id, s.stock) FROM WarehouseStock s ";
+
+    // foreign keys only: one statement for every site, no join
+    @Query(STOCK_ROW)
+    List<SiteStockRow> findAllStockRows();
+
+    @Query(STOCK_ROW + "WHERE s.warehouse.id = :warehouseId ORDER BY s.rawMaterial.id")
+    List<SiteStockRow> findStockRowsByWarehouseId(Long warehouseId);
+
+    Optional<WarehouseStock> findByWarehouseIdAndRawMaterialId(Long warehouseId, Long rawMaterialId);
+}
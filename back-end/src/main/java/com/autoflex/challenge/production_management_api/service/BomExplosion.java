@@ -0,0 +1,212 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-level BOM graph: each product has its own raw material lines plus other products as components.
+ * Flattened BOMs (raw materials only, quantities multiplied down every path) are computed children first
+ * and memoized; changing a product drops the memo of the product and of every product that contains it.
+ * Not thread-safe: {@link CatalogIndex} only touches it under its write lock.
+ */
+final class BomExplosion {
+
+    private static final Logger log = LoggerFactory.getLogger(BomExplosion.class);
+
+    static final FlatBom EMPTY = new FlatBom(new long[0], new long[0]);
+
+    private final Map<Long, FlatBom> direct = new HashMap<>();
+    private final Map<Long, List<Component>> components = new HashMap<>();
+    private final Map<Long, Set<Long>> parents = new HashMap<>();
+    private final Map<Long, FlatBom> memo = new HashMap<>();
+    // between begin() and commit(): each changed product's definition before its first change
+    private Map<Long, Saved> undo;
+
+    /** Starts recording changes, so that {@link #rollback()} can undo them. */
+    void begin() {
+        undo = new LinkedHashMap<>();
+    }
+
+    void commit() {
+        undo = null;
+    }
+
+    /** Restores every product changed since {@link #begin()}; memos built on the changes are dropped with them. */
+    void rollback() {
+        Map<Long, Saved> saved = undo;
+        undo = null;
+        if (saved == null)
+            return;
+        saved.forEach((productId, previous) -> {
+            if (previous.materials() == null)
+                remove(productId);
+            else
+                put(productId, previous.materials(), previous.components());
+        });
+    }
+
+    /** Replaces a product's own lines and components; returns it and every product containing it. */
+    Set<Long> put(long productId, FlatBom materials, List<Component> productComponents) {
+        save(productId);
+        unlink(productId);
+        direct.put(productId, materials);
+        components.put(productId, List.copyOf(productComponents));
+        for (Component component : productComponents)
+            parents.computeIfAbsent(component.productId(), id -> new HashSet<>()).add(productId);
+        return invalidate(productId);
+    }
+
+    /** Forgets a product; returns it and every product that still lists it as a component. */
+    Set<Long> remove(long productId) {
+        save(productId);
+        unlink(productId);
+        direct.remove(productId);
+        components.remove(productId);
+        return invalidate(productId);
+    }
+
+    List<Component> components(long productId) {
+        return components.getOrDefault(productId, List.of());
+    }
+
+    /** Raw material requirements of one unit, sorted by material id. */
+    FlatBom flatten(long productId) {
+        FlatBom cached = memo.get(productId);
+        if (cached != null)
+            return cached;
+
+        // iterative depth-first post-order: a product is combined only after all of its components,
+        // which is a topological order of the part of the DAG that is not memoized yet
+        Deque<Long> stack = new ArrayDeque<>();
+        Set<Long> onPath = new HashSet<>();
+        stack.push(productId);
+        while (!stack.isEmpty()) {
+            long id = stack.peek();
+            if (memo.containsKey(id)) {
+                stack.pop();
+            } else if (onPath.add(id)) {
+                for (Component component : components(id)) {
+                    long child = component.productId();
+                    if (onPath.contains(child))
+                        // writes reject cycles; one can only slip in through concurrent edits
+                        log.warn("BOM cycle between products {} and {}; the back edge is ignored", id, child);
+                    else if (!memo.containsKey(child))
+                        stack.push(child);
+                }
+            } else {
+                stack.pop();
+                onPath.remove(id);
+                memo.put(id, combine(id));
+            }
+        }
+        return memo.get(productId);
+    }
+
+    private FlatBom combine(long productId) {
+        Map<Long, Long> totals = new HashMap<>();
+        FlatBom own = direct.getOrDefault(productId, EMPTY);
+        for (int i = 0; i < own.materialIds().length; i++)
+            totals.merge(own.materialIds()[i], own.quantities()[i], FlatBom::saturatedAdd);
+        for (Component component : components(productId)) {
+            // a component on a cycle, or one the catalog does not know, contributes nothing
+            FlatBom child = memo.getOrDefault(component.productId(), EMPTY);
+            for (int i = 0; i < child.materialIds().length; i++)
+                totals.merge(child.materialIds()[i],
+                        FlatBom.saturatedMultiply(child.quantities()[i], component.quantity()), FlatBom::saturatedAdd);
+        }
+        return FlatBom.of(totals);
+    }
+
+    private void save(long productId) {
+        if (undo != null && !undo.containsKey(productId))
+            undo.put(productId, new Saved(direct.get(productId), components.get(productId)));
+    }
+
+    private void unlink(long productId) {
+        for (Component component : components(productId)) {
+            Set<Long> owners = parents.get(component.productId());
+            if (owners != null) {
+                owners.remove(productId);
+                if (owners.isEmpty())
+                    parents.remove(component.productId());
+            }
+        }
+    }
+
+    private Set<Long> invalidate(long productId) {
+        Set<Long> affected = new LinkedHashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.push(productId);
+        while (!pending.isEmpty()) {
+            long id = pending.pop();
+            if (affected.add(id)) {
+                memo.remove(id);
+                pending.addAll(parents.getOrDefault(id, Set.of()));
+            }
+        }
+        return affected;
+    }
+
+    /** A product's definition as it was before a change; {@code materials} is {@code null} if it did not exist. */
+    private record Saved(FlatBom materials, List<Component> components) {
+    }
+
+    /** One component line: {@code quantity} units of another product. */
+    record Component(long productId, int quantity) {
+    }
+
+    /** Raw material ids with the quantity needed per unit, sorted by id. */
+    record FlatBom(long[] materialIds, long[] quantities) {
+
+        static FlatBom of(Map<Long, Long> totals) {
+            long[] ids = totals.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            long[] quantities = new long[ids.length];
+            for (int i = 0; i < ids.length; i++)
+                quantities[i] = totals.get(ids[i]);
+            return new FlatBom(ids, quantities);
+        }
+
+        int size() {
+            return materialIds.length;
+        }
+
+        // deep BOMs multiply quickly; saturating keeps an absurd requirement absurd instead of wrapping
+        static long saturatedAdd(long a, long b) {
+            long sum = a + b;
+            return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+        }
+
+        static long saturatedMultiply(long a, long b) {
+            long high = Math.multiplyHigh(a, b);
+            long product = a * b;
+            return high == 0 && product >= 0 ? product : Long.MAX_VALUE;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FlatBom other && Arrays.equals(materialIds, other.materialIds)
+                    && Arrays.equals(quantities, other.quantities);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(materialIds) + Arrays.hashCode(quantities);
+        }
+
+        @Override
+        public String toString() {
+            return "FlatBom" + Arrays.toString(materialIds) + Arrays.toString(quantities);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.BomLineRow;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentRow;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads multi-level BOMs from the database, in the caller's transaction. Writes that must not act on a
+ * stale BOM use it instead of the {@link CatalogIndex}, which only learns of a change after its commit.
+ * The graph is walked one level per query, so the cost follows the depth of the BOM, not the catalog size.
+ */
+@Component
+public class BomReader {
+
+    private final ProductRepository productRepository;
+
+    public BomReader(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /** The given products and every product below them at any depth. */
+    public Set<Long> below(Collection<Long> productIds) {
+        return walk(productIds, new HashMap<>());
+    }
+
+    /** Raw material requirements of one unit, ordered by material id; empty when the product does not exist. */
+    public Optional<List<Line>> flatten(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            return Optional.empty();
+        }
+        Map<Long, List<BomExplosion.Component>> components = new HashMap<>();
+        Set<Long> products = walk(List.of(productId), components);
+
+        BomExplosion explosion = new BomExplosion();
+        Map<Long, String> names = new HashMap<>();
+        for (Long id : products) {
+            Map<Long, Long> own = new HashMap<>();
+            for (BomLineRow line : productRepository.findBomLines(id)) {
+                own.put(line.rawMaterialId(), (long) line.requiredQuantity());
+                names.put(line.rawMaterialId(), line.materialName());
+            }
+            explosion.put(id, BomExplosion.FlatBom.of(own), components.getOrDefault(id, List.of()));
+        }
+
+        // quantities that overflow a long saturate at Long.MAX_VALUE, which callers reject as too large
+        BomExplosion.FlatBom flat = explosion.flatten(productId);
+        List<Line> lines = new ArrayList<>(flat.size());
+        for (int i = 0; i < flat.size(); i++) {
+            long rawMaterialId = flat.materialIds()[i];
+            lines.add(new Line(rawMaterialId, names.get(rawMaterialId), flat.quantities()[i]));
+        }
+        return Optional.of(lines);
+    }
+
+    // breadth-first over the component edges, collecting each product's components on the way
+    private Set<Long> walk(Collection<Long> roots, Map<Long, List<BomExplosion.Component>> components) {
+        Set<Long> seen = new LinkedHashSet<>(roots);
+        List<Long> level = List.copyOf(seen);
+        while (!level.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (ComponentRow row : productRepository.findComponentRows(level)) {
+                components.computeIfAbsent(row.productId(), id -> new ArrayList<>())
+                        .add(new BomExplosion.Component(row.componentId(), row.requiredQuantity()));
+                if (seen.add(row.componentId())) {
+                    next.add(row.componentId());
+                }
+            }
+            level = next;
+        }
+        return seen;
+    }
+
+    /** One raw material of a flattened BOM: {@code quantity} units per unit of the product. */
+    public record Line(Long rawMaterialId, String materialName, long quantity) {
+    }
+}
@@ -0,0 +1,679 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.BomLineRow;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentRow;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Resident, primitive copy of the catalog used by the planners.
+ * <p>
+ * Products and raw materials are remapped to dense slots. Each product's BOM is a row of a
+ * compressed-sparse-row matrix ({@code bomStart/bomEnd} into {@code bomMaterial/bomQuantity}). Rows hold the
+ * flattened BOM, with sub-assemblies already exploded into raw materials, so planners never walk components.
+ * Readers work on an immutable {@link Snapshot} and never lock; writers are serialized, copy only
+ * the arrays and slot maps they change and append new BOM rows past the end visible to older snapshots.
+ * A write that fails part-way publishes nothing and leaves the index as it was.
+ * The index is loaded from the database on first use and then kept in sync by the services.
+ */
+@Component
+public class CatalogIndex {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int COMPACTION_THRESHOLD = 1024;
+    private static final int JOURNAL_CAPACITY = 256;
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    // a lock rather than a monitor: the first load runs JDBC while holding it, which would pin a virtual thread
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    // guarded by writeLock: the slots touched by each published write, for incremental re-planning
+    private final ArrayDeque<Change> journal = new ArrayDeque<>();
+    private long revisions;
+    private long journalFloor;
+    // guarded by writeLock: the multi-level BOM graph behind the flattened rows of the current snapshot
+    private BomExplosion explosion = new BomExplosion();
+
+    public CatalogIndex(ProductRepository productRepository, RawMaterialRepository rawMaterialRepository) {
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    /** The resident snapshot, or {@code null} before the first load; never touches the database. */
+    Snapshot peek() {
+        return snapshot;
+    }
+
+    private Snapshot load() {
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                Map<Long, List<BomExplosion.Component>> components = new HashMap<>();
+                for (ComponentRow row : productRepository.findAllComponentRows())
+                    components.computeIfAbsent(row.productId(), id -> new ArrayList<>())
+                            .add(new BomExplosion.Component(row.componentId(), row.requiredQuantity()));
+                BomExplosion loaded = new BomExplosion();
+                snapshot = build(rawMaterialRepository.findAll(), productRepository.findAllWithMaterials(),
+                        product -> components.getOrDefault(product.getId(), List.of()), loaded, ++revisions);
+                explosion = loaded;
+                resetJournal(snapshot);
+            }
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Builds a standalone snapshot from already loaded entities. */
+    public static Snapshot build(Collection<RawMaterial> rawMaterials, Collection<Product> products) {
+        return build(rawMaterials, products, CatalogIndex::components, new BomExplosion(), 0);
+    }
+
+    private static Snapshot build(Collection<RawMaterial> rawMaterials, Collection<Product> products,
+                                  Function<Product, List<BomExplosion.Component>> componentsOf, BomExplosion explosion,
+                                  long revision) {
+        Draft draft = new Draft(Snapshot.empty(), explosion, revision);
+        for (RawMaterial rawMaterial : rawMaterials)
+            draft.putMaterial(rawMaterial.getId(), rawMaterial.getStock());
+        draft.putProducts(products, componentsOf);
+        return draft.publish();
+    }
+
+    private static List<BomExplosion.Component> components(Product product) {
+        return product.getComponents().stream()
+                .map(line -> new BomExplosion.Component(line.getComponent().getId(), line.getRequiredQuantity()))
+                .toList();
+    }
+
+    public void upsertProduct(Product product) {
+        upsertProducts(List.of(product));
+    }
+
+    public void upsertProducts(Collection<Product> products) {
+        write(draft -> draft.putProducts(products, CatalogIndex::components));
+    }
+
+    /** A product's flattened BOM per unit, ordered by material id; empty when the product is not in the catalog. */
+    public Optional<List<BomLineRow>> flattenedBom(Long productId) {
+        Snapshot catalog = snapshot();
+        int slot = catalog.productSlot(productId);
+        if (slot < 0)
+            return Optional.empty();
+        List<Long> materialIds = new ArrayList<>();
+        for (int r = catalog.bomStart[slot]; r < catalog.bomEnd[slot]; r++)
+            materialIds.add(catalog.materialIds[catalog.bomMaterial[r]]);
+        Map<Long, String> names = new HashMap<>();
+        if (!materialIds.isEmpty())
+            rawMaterialRepository.findAllById(materialIds).forEach(m -> names.put(m.getId(), m.getName()));
+
+        List<BomLineRow> lines = new ArrayList<>();
+        for (int r = catalog.bomStart[slot]; r < catalog.bomEnd[slot]; r++) {
+            long materialId = catalog.materialIds[catalog.bomMaterial[r]];
+            lines.add(new BomLineRow(materialId, names.get(materialId), catalog.bomQuantity[r]));
+        }
+        return Optional.of(lines);
+    }
+
+    /** Direct components of a product, as (component product id, quantity per unit). */
+    List<BomExplosion.Component> components(Long productId) {
+        snapshot();
+        writeLock.lock();
+        try {
+            return explosion.components(productId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeProduct(Long productId) {
+        write(draft -> draft.removeProduct(productId));
+    }
+
+    /**
+     * Puts a material with its stock as given. Meant for materials just created: stock changes to existing ones
+     * go through {@link #adjustStock}, since an absolute value read in one transaction would overwrite the
+     * delta of another that committed later but reached the index first.
+     */
+    public void upsertMaterial(RawMaterial rawMaterial) {
+        write(draft -> draft.putMaterial(rawMaterial.getId(), rawMaterial.getStock()));
+    }
+
+    public void removeMaterial(Long materialId) {
+        write(draft -> draft.removeMaterial(materialId));
+    }
+
+    /** Applies committed stock deltas; deltas commute, so concurrent orders need no reread. */
+    public void adjustStock(Map<Long, Integer> deltas) {
+        write(draft -> deltas.forEach(draft::adjustStock));
+    }
+
+    /** Drops the resident copy; the next reader reloads it from the database. */
+    public void invalidate() {
+        writeLock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Consumer<Draft> change) {
+        writeLock.lock();
+        try {
+            // nothing to keep in sync before the first load, which reads the committed state anyway
+            if (snapshot == null)
+                return;
+            Draft draft = new Draft(snapshot, explosion, ++revisions);
+            explosion.begin();
+            try {
+                change.accept(draft);
+                snapshot = draft.publish();
+            } catch (RuntimeException | Error e) {
+                explosion.rollback();
+                throw e;
+            }
+            explosion.commit();
+            if (draft.compacted) {
+                // product slots were renumbered, so earlier changes can no longer be expressed in slots
+                resetJournal(snapshot);
+            } else {
+                if (journal.size() == JOURNAL_CAPACITY)
+                    journalFloor = journal.removeFirst().revision();
+                journal.addLast(new Change(snapshot.revision, draft.changedMaterialSlots(), draft.changedProductSlots()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void resetJournal(Snapshot base) {
+        journal.clear();
+        journalFloor = base.revision;
+    }
+
+    /**
+     * Material and product slots written after {@code from} up to and including {@code to}, or {@code null}
+     * when that can no longer be told (the index was reloaded or compacted, or the journal moved on).
+     */
+    Changes changesBetween(Snapshot from, Snapshot to) {
+        writeLock.lock();
+        try {
+            // revision 0 marks a standalone snapshot, which has no history in this index
+            if (from.revision == 0 || from.revision < journalFloor || from.revision > to.revision || to.revision > revisions)
+                return null;
+            Set<Integer> materials = new HashSet<>();
+            Set<Integer> products = new HashSet<>();
+            for (Iterator<Change> it = journal.descendingIterator(); it.hasNext(); ) {
+                Change change = it.next();
+                if (change.revision() <= from.revision)
+                    break;
+                if (change.revision() > to.revision)
+                    continue;
+                for (int slot : change.materialSlots())
+                    materials.add(slot);
+                for (int slot : change.productSlots())
+                    products.add(slot);
+            }
+            return new Changes(materials, products);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Slots touched by one published write. */
+    private record Change(long revision, int[] materialSlots, int[] productSlots) {
+    }
+
+    /** Slots touched between two snapshots; product slots include removed and newly added products. */
+    record Changes(Set<Integer> materialSlots, Set<Integer> productSlots) {
+    }
+
+    /**
+     * Immutable view of the catalog. Slots past {@code productSlotCount}/{@code materialSlotCount} and BOM
+     * entries past {@code bomSize} may be written by newer snapshots and must not be read.
+     */
+    public static final class Snapshot {
+
+        /** Increases with every snapshot published by the same index; 0 for standalone snapshots. */
+        final long revision;
+        final int productSlotCount;
+        final long[] productIds;
+        final double[] productValues;
+        final String[] productNames;
+        final int[] bomStart;
+        final int[] bomEnd;
+        final int[] bomMaterial;
+        final int[] bomQuantity;
+        final int bomSize;
+        final int liveBomRows;
+        /** Live product slots ordered by value (descending), then id. */
+        final int[] order;
+        final int materialSlotCount;
+        final int liveMaterials;
+        final long[] materialIds;
+        final int[] stock;
+        final Map<Long, Integer> productSlots;
+        final Map<Long, Integer> materialSlots;
+
+        Snapshot(long revision, int productSlotCount, long[] productIds, double[] productValues, String[] productNames,
+                 int[] bomStart, int[] bomEnd, int[] bomMaterial, int[] bomQuantity, int bomSize, int liveBomRows,
+                 int[] order, int materialSlotCount, int liveMaterials, long[] materialIds, int[] stock,
+                 Map<Long, Integer> productSlots, Map<Long, Integer> materialSlots) {
+            this.revision = revision;
+            this.productSlotCount = productSlotCount;
+            this.productIds = productIds;
+            this.productValues = productValues;
+            this.productNames = productNames;
+            this.bomStart = bomStart;
+            this.bomEnd = bomEnd;
+            this.bomMaterial = bomMaterial;
+            this.bomQuantity = bomQuantity;
+            this.bomSize = bomSize;
+            this.liveBomRows = liveBomRows;
+            this.order = order;
+            this.materialSlotCount = materialSlotCount;
+            this.liveMaterials = liveMaterials;
+            this.materialIds = materialIds;
+            this.stock = stock;
+            this.productSlots = productSlots;
+            this.materialSlots = materialSlots;
+        }
+
+        static Snapshot empty() {
+            return new Snapshot(0, 0, new long[0], new double[0], new String[0], new int[0], new int[0], new int[0],
+                    new int[0], 0, 0, new int[0], 0, 0, new long[0], new int[0], Map.of(), Map.of());
+        }
+
+        public int productCount() {
+            return order.length;
+        }
+
+        public int materialCount() {
+            return liveMaterials;
+        }
+
+        /** Working copy of the stock vector, indexed by material slot. */
+        public int[] copyStock() {
+            return Arrays.copyOf(stock, materialSlotCount);
+        }
+
+        /** Product slot for an id, or -1 when the product is not part of this snapshot. */
+        public int productSlot(Long productId) {
+            Integer slot = productSlots.get(productId);
+            return slot != null && slot < productSlotCount && productIds[slot] == productId ? slot : -1;
+        }
+
+        /** Material slot for an id, or -1 when the material is not part of this snapshot. */
+        public int materialSlot(Long materialId) {
+            Integer slot = materialSlots.get(materialId);
+            return slot != null && slot < materialSlotCount && materialIds[slot] == materialId ? slot : -1;
+        }
+    }
+
+    /**
+     * Mutable copy of a snapshot. Arrays and slot maps shared with the base snapshot are cloned before the
+     * first in-place change; array appends go past the base's visible size and need no copy.
+     */
+    private static final class Draft {
+        private final Snapshot base;
+        private final BomExplosion explosion;
+        private final long revision;
+
+        private int productSlotCount;
+        private long[] productIds;
+        private double[] productValues;
+        private String[] productNames;
+        private int[] bomStart;
+        private int[] bomEnd;
+        private boolean productsCopied;
+
+        private int[] bomMaterial;
+        private int[] bomQuantity;
+        private int bomSize;
+        private int liveBomRows;
+
+        private int materialSlotCount;
+        private int liveMaterials;
+        private long[] materialIds;
+        private int[] stock;
+        private boolean stockCopied;
+
+        private Map<Long, Integer> productSlots;
+        private Map<Long, Integer> materialSlots;
+        private boolean productSlotsCopied;
+        private boolean materialSlotsCopied;
+
+        private final List<Integer> changedProducts = new ArrayList<>();
+        private final List<Integer> changedMaterials = new ArrayList<>();
+        private boolean orderChanged;
+        private boolean compacted;
+
+        Draft(Snapshot base, BomExplosion explosion, long revision) {
+            this.base = base;
+            this.explosion = explosion;
+            this.revision = revision;
+            productSlotCount = base.productSlotCount;
+            productIds = base.productIds;
+            productValues = base.productValues;
+            productNames = base.productNames;
+            bomStart = base.bomStart;
+            bomEnd = base.bomEnd;
+            bomMaterial = base.bomMaterial;
+            bomQuantity = base.bomQuantity;
+            bomSize = base.bomSize;
+            liveBomRows = base.liveBomRows;
+            materialSlotCount = base.materialSlotCount;
+            liveMaterials = base.liveMaterials;
+            materialIds = base.materialIds;
+            stock = base.stock;
+            productSlots = base.productSlots;
+            materialSlots = base.materialSlots;
+        }
+
+        void putMaterial(Long materialId, int materialStock) {
+            Integer slot = materialSlots.get(materialId);
+            if (slot == null)
+                slot = appendMaterial(materialId);
+            else
+                copyStockOnce();
+            stock[slot] = materialStock;
+            changedMaterials.add(slot);
+        }
+
+        void adjustStock(Long materialId, int delta) {
+            Integer slot = materialSlots.get(materialId);
+            if (slot == null)
+                return;
+            copyStockOnce();
+            stock[slot] += delta;
+            changedMaterials.add(slot);
+        }
+
+        void removeMaterial(Long materialId) {
+            // the slot stays allocated for older snapshots; BOM rows can no longer reference it
+            Integer slot = materialSlots.get(materialId);
+            if (slot != null) {
+                mutableMaterialSlots().remove(materialId);
+                liveMaterials--;
+                changedMaterials.add(slot);
+            }
+        }
+
+        /** Registers the whole batch first, so each affected product is flattened once and in any input order. */
+        void putProducts(Collection<Product> products, Function<Product, List<BomExplosion.Component>> componentsOf) {
+            Set<Long> affected = new LinkedHashSet<>();
+            for (Product product : products) {
+                affected.addAll(explosion.put(product.getId(), ownMaterials(product), componentsOf.apply(product)));
+                putHeader(product);
+            }
+            rewriteBoms(affected);
+        }
+
+        void removeProduct(Long productId) {
+            Set<Long> affected = explosion.remove(productId);
+            Integer slot = productSlots.get(productId);
+            if (slot != null) {
+                mutableProductSlots().remove(productId);
+                liveBomRows -= bomEnd[slot] - bomStart[slot];
+                changedProducts.add(slot);
+                orderChanged = true;
+            }
+            rewriteBoms(affected);
+        }
+
+        private BomExplosion.FlatBom ownMaterials(Product product) {
+            Map<Long, Long> quantities = new HashMap<>();
+            for (ProductRawMaterial pm : product.getMaterials()) {
+                Long materialId = pm.getRawMaterial().getId();
+                if (!materialSlots.containsKey(materialId)) {
+                    int material = appendMaterial(materialId);
+                    stock[material] = pm.getRawMaterial().getStock();
+                }
+                quantities.merge(materialId, (long) pm.getRequiredQuantity(), Long::sum);
+            }
+            return BomExplosion.FlatBom.of(quantities);
+        }
+
+        private void putHeader(Product product) {
+            Integer slot = productSlots.get(product.getId());
+            if (slot == null) {
+                slot = productSlotCount;
+                growProducts(productSlotCount + 1);
+                productSlotCount++;
+                mutableProductSlots().put(product.getId(), slot);
+                bomStart[slot] = bomSize;
+                bomEnd[slot] = bomSize;
+            } else {
+                copyProductsOnce();
+            }
+
+            productIds[slot] = product.getId();
+            productValues[slot] = product.getValue();
+            productNames[slot] = product.getName();
+            changedProducts.add(slot);
+            orderChanged = true;
+        }
+
+        /** Replaces the rows of every live product in {@code productIds} with its flattened BOM. */
+        private void rewriteBoms(Set<Long> productIds) {
+            for (Long productId : productIds) {
+                Integer slot = productSlots.get(productId);
+                if (slot != null)
+                    rewriteBom(slot);
+            }
+        }
+
+        private void rewriteBom(int slot) {
+            copyProductsOnce();
+            BomExplosion.FlatBom bom = explosion.flatten(productIds[slot]);
+            liveBomRows -= bomEnd[slot] - bomStart[slot];
+
+            growBom(bomSize + bom.size());
+            bomStart[slot] = bomSize;
+            for (int i = 0; i < bom.size(); i++) {
+                Integer material = materialSlots.get(bom.materialIds()[i]);
+                // a material deleted from the catalog can no longer be planned for
+                if (material == null)
+                    continue;
+                bomMaterial[bomSize] = material;
+                bomQuantity[bomSize++] = (int) Math.min(bom.quantities()[i], Integer.MAX_VALUE);
+            }
+            bomEnd[slot] = bomSize;
+            liveBomRows += bomEnd[slot] - bomStart[slot];
+            changedProducts.add(slot);
+        }
+
+        int[] changedMaterialSlots() {
+            return changedMaterials.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+
+        int[] changedProductSlots() {
+            return changedProducts.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+
+        Snapshot publish() {
+            int[] order = orderChanged ? rebuildOrder() : base.order;
+            Snapshot published = new Snapshot(revision, productSlotCount, productIds, productValues, productNames, bomStart, bomEnd,
+                    bomMaterial, bomQuantity, bomSize, liveBomRows, order, materialSlotCount, liveMaterials, materialIds,
+                    stock, productSlots, materialSlots);
+            compacted = needsCompaction(published);
+            return compacted ? compact(published) : published;
+        }
+
+        private int[] rebuildOrder() {
+            boolean[] changed = new boolean[productSlotCount];
+            for (int slot : changedProducts)
+                changed[slot] = true;
+
+            int kept = 0;
+            int[] unchanged = new int[base.order.length];
+            for (int slot : base.order)
+                if (!changed[slot])
+                    unchanged[kept++] = slot;
+
+            // changed slots that are still live, sorted, then merged with the untouched order
+            Integer[] fresh = changedProducts.stream().distinct()
+                    .filter(slot -> isLive(slot))
+                    .sorted(this::compareSlots).toArray(Integer[]::new);
+
+            int[] order = new int[kept + fresh.length];
+            int i = 0, j = 0, k = 0;
+            while (i < kept || j < fresh.length) {
+                if (j == fresh.length || (i < kept && compareSlots(unchanged[i], fresh[j]) <= 0))
+                    order[k++] = unchanged[i++];
+                else
+                    order[k++] = fresh[j++];
+            }
+            return order;
+        }
+
+        private boolean isLive(int slot) {
+            Integer current = productSlots.get(productIds[slot]);
+            return current != null && current == slot;
+        }
+
+        private int compareSlots(int a, int b) {
+            int byValue = Double.compare(productValues[b], productValues[a]);
+            return byValue != 0 ? byValue : Long.compare(productIds[a], productIds[b]);
+        }
+
+        private static boolean needsCompaction(Snapshot s) {
+            int deadRows = s.bomSize - s.liveBomRows;
+            int deadProducts = s.productSlotCount - s.order.length;
+            return deadRows > Math.max(COMPACTION_THRESHOLD, s.liveBomRows)
+                    || deadProducts > Math.max(COMPACTION_THRESHOLD, s.order.length);
+        }
+
+        /** Rewrites live products into fresh dense arrays; material slots are kept as they are. */
+        private static Snapshot compact(Snapshot s) {
+            int n = s.order.length;
+            long[] ids = new long[n];
+            double[] values = new double[n];
+            String[] names = new String[n];
+            int[] start = new int[n];
+            int[] end = new int[n];
+            int[] material = new int[s.liveBomRows];
+            int[] quantity = new int[s.liveBomRows];
+            int[] order = new int[n];
+            Map<Long, Integer> slots = new HashMap<>();
+
+            int rows = 0;
+            for (int k = 0; k < n; k++) {
+                int old = s.order[k];
+                ids[k] = s.productIds[old];
+                values[k] = s.productValues[old];
+                names[k] = s.productNames[old];
+                start[k] = rows;
+                for (int r = s.bomStart[old]; r < s.bomEnd[old]; r++) {
+                    material[rows] = s.bomMaterial[r];
+                    quantity[rows++] = s.bomQuantity[r];
+                }
+                end[k] = rows;
+                order[k] = k;
+                slots.put(ids[k], k);
+            }
+            return new Snapshot(s.revision, n, ids, values, names, start, end, material, quantity, rows, rows, order,
+                    s.materialSlotCount, s.liveMaterials, s.materialIds, s.stock, slots, s.materialSlots);
+        }
+
+        private int appendMaterial(Long materialId) {
+            int slot = materialSlotCount;
+            if (slot == materialIds.length || slot == stock.length) {
+                int capacity = Math.max(MIN_CAPACITY, slot * 2);
+                materialIds = Arrays.copyOf(materialIds, capacity);
+                stock = Arrays.copyOf(stock, capacity);
+                stockCopied = true;
+            } else {
+                copyStockOnce();
+            }
+            materialIds[slot] = materialId;
+            changedMaterials.add(slot);
+            materialSlotCount++;
+            liveMaterials++;
+            mutableMaterialSlots().put(materialId, slot);
+            return slot;
+        }
+
+        private Map<Long, Integer> mutableProductSlots() {
+            if (!productSlotsCopied) {
+                productSlots = new HashMap<>(productSlots);
+                productSlotsCopied = true;
+            }
+            return productSlots;
+        }
+
+        private Map<Long, Integer> mutableMaterialSlots() {
+            if (!materialSlotsCopied) {
+                materialSlots = new HashMap<>(materialSlots);
+                materialSlotsCopied = true;
+            }
+            return materialSlots;
+        }
+
+        private void copyStockOnce() {
+            if (!stockCopied) {
+                stock = stock.clone();
+                stockCopied = true;
+            }
+        }
+
+        private void copyProductsOnce() {
+            if (!productsCopied) {
+                productIds = productIds.clone();
+                productValues = productValues.clone();
+                productNames = productNames.clone();
+                bomStart = bomStart.clone();
+                bomEnd = bomEnd.clone();
+                productsCopied = true;
+            }
+        }
+
+        private void growProducts(int size) {
+            if (size <= productIds.length)
+                return;
+            int capacity = Math.max(MIN_CAPACITY, Math.max(size, productIds.length * 2));
+            productIds = Arrays.copyOf(productIds, capacity);
+            productValues = Arrays.copyOf(productValues, capacity);
+            productNames = Arrays.copyOf(productNames, capacity);
+            bomStart = Arrays.copyOf(bomStart, capacity);
+            bomEnd = Arrays.copyOf(bomEnd, capacity);
+            productsCopied = true;
+        }
+
+        private void growBom(int size) {
+            if (size <= bomMaterial.length)
+                return;
+            int capacity = Math.max(MIN_CAPACITY, Math.max(size, bomMaterial.length * 2));
+            bomMaterial = Arrays.copyOf(bomMaterial, capacity);
+            bomQuantity = Arrays.copyOf(bomQuantity, capacity);
+        }
+    }
+}
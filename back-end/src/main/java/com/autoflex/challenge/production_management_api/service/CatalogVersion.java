@@ -0,0 +1,37 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Monotonic counter bumped after every committed catalog write (products or raw materials).
+ * Anything derived from the catalog can be cached under the version it was computed at.
+ * Seeded from the clock so validators handed out before a restart are not reused after it.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long bump() {
+        long bumped = version.incrementAndGet();
+        for (LongConsumer listener : listeners) {
+            listener.accept(bumped);
+        }
+        return bumped;
+    }
+
+    /** Called with the new version after every bump, on the writer's thread; listeners must not block. */
+    public void addListener(LongConsumer listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,342 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialChangeEvent;
+import com.autoflex.challenge.production_management_api.dto.response.PlanChangeEvent;
+import com.autoflex.challenge.production_management_api.dto.response.ProductChangeEvent;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed catalog changes to Server-Sent Events subscribers. Every catalog version bump schedules a
+ * publish, which reads the slots written since the last one from the {@link CatalogIndex} journal and turns
+ * them into compact material and product events, followed by the rows of the greedy plan that changed.
+ * Bumps arriving while a publish is queued are folded into it. Each subscriber has its own bounded queue
+ * drained by its own sender task, so a slow client holds up neither the writers nor the other clients;
+ * when its queue overflows, the backlog is replaced by a single {@code resync} event.
+ */
+@Component
+public class ChangeFeed {
+
+    static final String READY = "ready";
+    static final String MATERIAL = "material";
+    static final String PRODUCT = "product";
+    static final String PLAN = "plan";
+    static final String RESYNC = "resync";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final CatalogIndex catalogIndex;
+    private final IncrementalGreedyPlanner greedyPlanner;
+    private final CatalogVersion catalogVersion;
+    private final MeterRegistry registry;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final Executor publisher;
+    private final Executor senders;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean publishQueued = new AtomicBoolean();
+
+    // publisher thread only: what subscribers were last told about
+    private CatalogIndex.Snapshot published;
+    private Map<Long, ProductSuggestionDTO> publishedPlan;
+
+    @Autowired
+    public ChangeFeed(CatalogIndex catalogIndex, IncrementalGreedyPlanner greedyPlanner, CatalogVersion catalogVersion,
+                      MeterRegistry registry,
+                      @Value("${app.events.buffer-size:256}") int bufferSize,
+                      @Value("${app.events.timeout-ms:1800000}") long timeoutMs) {
+        this(catalogIndex, greedyPlanner, catalogVersion, registry, bufferSize, timeoutMs,
+                Executors.newSingleThreadExecutor(daemon("change-feed")),
+                Executors.newCachedThreadPool(daemon("change-feed-sender")));
+    }
+
+    ChangeFeed(CatalogIndex catalogIndex, IncrementalGreedyPlanner greedyPlanner, CatalogVersion catalogVersion,
+               MeterRegistry registry, int bufferSize, long timeoutMs, Executor publisher, Executor senders) {
+        this.catalogIndex = catalogIndex;
+        this.greedyPlanner = greedyPlanner;
+        this.catalogVersion = catalogVersion;
+        this.registry = registry;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.publisher = publisher;
+        this.senders = senders;
+        Gauge.builder("events.subscribers", subscriptions, Set::size)
+                .description("Clients connected to the change stream")
+                .register(registry);
+        catalogVersion.addListener(version -> schedulePublish());
+    }
+
+    /** Opens a stream; the first event, {@code ready}, carries the catalog version the stream starts after. */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = register(new EventSink() {
+            @Override
+            public void send(Event event) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.id()))
+                        .name(event.name())
+                        .data(event.data(), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    Subscription register(EventSink sink) {
+        Subscription subscription = new Subscription(sink);
+        subscriptions.add(subscription);
+        execute(publisher, () -> {
+            // everything committed after the baseline reaches the subscriber as an event
+            try {
+                if (published == null) {
+                    rebaseline();
+                }
+            } catch (RuntimeException e) {
+                // the next publish retries the baseline; until then the client only has its initial read
+                log.warn("Change feed baseline failed", e);
+                published = null;
+            }
+            long version = catalogVersion.current();
+            subscription.offer(new Event(READY, version, Map.of("version", version)));
+        });
+        return subscription;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.forEach(Subscription::close);
+        if (publisher instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+        if (senders instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private void schedulePublish() {
+        if (publishQueued.compareAndSet(false, true)) {
+            execute(publisher, this::publish);
+        }
+    }
+
+    private void publish() {
+        publishQueued.set(false);
+        if (subscriptions.isEmpty()) {
+            // nobody is listening: stop tracking, the next subscriber starts from a fresh baseline
+            published = null;
+            publishedPlan = null;
+            return;
+        }
+        try {
+            if (published == null) {
+                rebaseline();
+                return;
+            }
+            CatalogIndex.Snapshot current = catalogIndex.snapshot();
+            long version = catalogVersion.current();
+            CatalogIndex.Changes changes = catalogIndex.changesBetween(published, current);
+            if (changes == null) {
+                // reloaded or compacted, or more writes than the journal keeps: slots no longer tell what changed
+                broadcast(new Event(RESYNC, version, Map.of("reason", "catalog_reset")));
+                resyncCounter("catalog_reset").increment();
+                rebaseline();
+                return;
+            }
+            for (int slot : changes.materialSlots().stream().sorted().toList()) {
+                long id = current.materialIds[slot];
+                boolean removed = current.materialSlot(id) < 0;
+                broadcast(new Event(MATERIAL, version, new MaterialChangeEvent(id, removed ? null : current.stock[slot], removed)));
+            }
+            for (int slot : changes.productSlots().stream().sorted().toList()) {
+                long id = current.productIds[slot];
+                boolean removed = current.productSlot(id) < 0;
+                broadcast(new Event(PRODUCT, version, removed
+                        ? new ProductChangeEvent(id, null, null, true)
+                        : new ProductChangeEvent(id, current.productNames[slot], current.productValues[slot], false)));
+            }
+            if (!changes.materialSlots().isEmpty() || !changes.productSlots().isEmpty()) {
+                PlanChangeEvent diff = diffPlan(version, greedyPlanner.plan(current).response());
+                if (diff != null) {
+                    broadcast(new Event(PLAN, version, diff));
+                }
+            }
+            published = current;
+        } catch (RuntimeException e) {
+            log.warn("Change feed publish failed; subscribers are told to resync", e);
+            broadcast(new Event(RESYNC, catalogVersion.current(), Map.of("reason", "publish_failed")));
+            published = null;
+        }
+    }
+
+    private void rebaseline() {
+        published = catalogIndex.snapshot();
+        publishedPlan = rows(greedyPlanner.plan(published).response());
+    }
+
+    private PlanChangeEvent diffPlan(long version, ProductSuggestionResponse plan) {
+        Map<Long, ProductSuggestionDTO> rows = rows(plan);
+        List<ProductSuggestionDTO> changed = new ArrayList<>();
+        for (ProductSuggestionDTO row : rows.values()) {
+            if (!row.equals(publishedPlan.get(row.productId()))) {
+                changed.add(row);
+            }
+        }
+        List<Long> removed = new ArrayList<>();
+        for (Long productId : publishedPlan.keySet()) {
+            if (!rows.containsKey(productId)) {
+                removed.add(productId);
+            }
+        }
+        publishedPlan = rows;
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return null;
+        }
+        return new PlanChangeEvent(version, plan.totalValue(), plan.suggestions().size(), changed, removed);
+    }
+
+    private static Map<Long, ProductSuggestionDTO> rows(ProductSuggestionResponse plan) {
+        Map<Long, ProductSuggestionDTO> rows = new LinkedHashMap<>();
+        for (ProductSuggestionDTO row : plan.suggestions()) {
+            rows.put(row.productId(), row);
+        }
+        return rows;
+    }
+
+    private void broadcast(Event event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    private Counter resyncCounter(String reason) {
+        return Counter.builder("events.resyncs")
+                .description("Resync events sent instead of the changes themselves")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    // writers call in through CatalogVersion and must never see a failure from the feed
+    private static void execute(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Change feed is shut down, event dropped");
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** One server-sent event; {@code id} is the catalog version it was published at. */
+    record Event(String name, long id, Object data) {
+    }
+
+    interface EventSink {
+
+        void send(Event event) throws IOException;
+
+        void close();
+    }
+
+    final class Subscription {
+
+        private final EventSink sink;
+        private final ArrayBlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(EventSink sink) {
+            this.sink = sink;
+        }
+
+        // publisher thread only, so clearing an overflowing queue cannot race another producer
+        private void offer(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // a gap makes the backlog useless to the client: swap it for a single resync marker
+                queue.clear();
+                queue.offer(new Event(RESYNC, event.id(), Map.of("reason", "slow_consumer")));
+                resyncCounter("slow_consumer").increment();
+            }
+            if (draining.compareAndSet(false, true)) {
+                execute(senders, this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    for (Event event = queue.poll(); event != null; event = queue.poll()) {
+                        sink.send(event);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Change feed subscriber dropped: {}", e.toString());
+                    close();
+                    return;
+                } finally {
+                    draining.set(false);
+                }
+                // an event offered after the last poll but before the flag was cleared is sent here
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                queue.clear();
+                try {
+                    sink.close();
+                } catch (RuntimeException e) {
+                    log.debug("Closing a change feed subscriber failed: {}", e.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounds and cursor arithmetic shared by the keyset-paginated listings. Pages seek on the id, so a
+ * listing request costs the same regardless of how deep into the table it starts.
+ */
+final class CursorPage {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    private CursorPage() {
+    }
+
+    static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    static long after(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    /** Callers fetch {@code limit + 1} rows; the extra one only signals that another page exists. */
+    static <T> Long nextCursor(List<T> rows, int limit, Function<T, Long> id) {
+        return rows.size() > limit ? id.apply(rows.get(limit - 1)) : null;
+    }
+
+    static <T> List<T> page(List<T> rows, int limit) {
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+}
@@ -0,0 +1,53 @@
+package com.autoflex.challenge.production_management_api.service;
+
+/**
+ * Point in time by which a request must be answered. Planners check it between chunks of work and return
+ * what they have when it passes, so a request's timeout bounds the work done for it.
+ */
+public final class Deadline {
+
+    /** Longest timeout a caller may ask for. */
+    public static final long MAX_TIMEOUT_MS = 60_000;
+
+    private static final Deadline NONE = new Deadline(0);
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /** No time limit: work runs to completion. */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /** Expires {@code timeoutMs} from now, capped at {@link #MAX_TIMEOUT_MS}. */
+    public static Deadline in(long timeoutMs) {
+        if (timeoutMs < 0) {
+            throw new IllegalArgumentException("timeoutMs must not be negative");
+        }
+        return new Deadline(System.nanoTime() + Math.min(timeoutMs, MAX_TIMEOUT_MS) * 1_000_000);
+    }
+
+    /** {@link #none()} when the request gave no timeout. */
+    public static Deadline of(Long timeoutMs) {
+        return timeoutMs == null ? NONE : in(timeoutMs);
+    }
+
+    public boolean isBounded() {
+        return this != NONE;
+    }
+
+    public boolean expired() {
+        return this != NONE && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /** Milliseconds left, zero once expired; {@link Long#MAX_VALUE} when unbounded. */
+    public long remainingMillis() {
+        if (this == NONE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1_000_000);
+    }
+}
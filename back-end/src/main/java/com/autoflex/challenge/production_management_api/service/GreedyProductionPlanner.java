@@ -0,0 +1,65 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Greedy planner: builds as many units as possible of each product before moving to the next one.
+ * The buildable quantity is computed in closed form as min(stock / required) over the BOM, so the
+ * cost depends on the catalog size and not on the stock levels.
+ */
+@Component
+public class GreedyProductionPlanner implements ProductionPlanner {
+
+    // products planned between deadline checks; keeps the clock read off the per-product path
+    static final int CHECK_INTERVAL = 32;
+
+    /** At least one chunk of products is planned, however early the deadline passes. */
+    @Override
+    public ProductSuggestionResponse plan(CatalogIndex.Snapshot catalog, int[] stock, Deadline deadline) {
+        double totalValue = 0;
+        List<ProductSuggestionDTO> results = new ArrayList<>();
+
+        for (int j = 0; j < catalog.order.length; j++) {
+            if (j > 0 && j % CHECK_INTERVAL == 0 && deadline.expired()) {
+                return new ProductSuggestionResponse(results, totalValue, true);
+            }
+            int p = catalog.order[j];
+            int quantityProduced = maxBuildable(catalog, p, stock);
+
+            if (quantityProduced > 0) {
+                consumeStock(catalog, p, stock, quantityProduced);
+                double subtotal = quantityProduced * catalog.productValues[p];
+                results.add(new ProductSuggestionDTO(catalog.productIds[p], catalog.productNames[p], quantityProduced, subtotal));
+                totalValue += subtotal;
+            }
+        }
+        return ProductSuggestionResponse.fromData(results, totalValue);
+    }
+
+    static int maxBuildable(CatalogIndex.Snapshot catalog, int p, int[] stock) {
+        int max = Integer.MAX_VALUE;
+        for (int r = catalog.bomStart[p]; r < catalog.bomEnd[p]; r++) {
+            int required = catalog.bomQuantity[r];
+            if (required <= 0)
+                continue;
+
+            int amount = stock[catalog.bomMaterial[r]];
+            if (amount < required)
+                return 0;
+
+            max = Math.min(max, amount / required);
+        }
+        // no BOM (or no positive requirement) means nothing can be planned for the product
+        return max == Integer.MAX_VALUE ? 0 : max;
+    }
+
+    static void consumeStock(CatalogIndex.Snapshot catalog, int p, int[] stock, int quantity) {
+        for (int r = catalog.bomStart[p]; r < catalog.bomEnd[p]; r++)
+            stock[catalog.bomMaterial[r]] -= catalog.bomQuantity[r] * quantity;
+    }
+}
@@ -0,0 +1,27 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    public static ImportFormat fromContentType(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+                return CSV;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) {
+                return NDJSON;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // reported below with the other unsupported types
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
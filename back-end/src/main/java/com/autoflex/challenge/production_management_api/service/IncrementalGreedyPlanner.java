@@ -0,0 +1,231 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.autoflex.challenge.production_management_api.service.GreedyProductionPlanner.CHECK_INTERVAL;
+import static com.autoflex.challenge.production_management_api.service.GreedyProductionPlanner.consumeStock;
+import static com.autoflex.challenge.production_management_api.service.GreedyProductionPlanner.maxBuildable;
+
+/**
+ * Greedy plan kept up to date across catalog writes. The greedy pass is a prefix computation: the stock a
+ * product sees depends only on the products ranked before it. So after a write only the suffix starting at
+ * the first affected product (a written product, or a consumer of a written material, found through a
+ * material-to-product reverse index) is replayed; the stock entering it is rebuilt from the last plan's
+ * leftover stock plus what its old suffix consumed. Falls back to a full pass whenever the catalog journal
+ * cannot describe the writes in between.
+ * <p>
+ * The same prefix property makes the planner anytime: a pass cut short by a {@link Deadline} leaves an exact
+ * plan for the products ranked so far, returned flagged as partial, and the next call resumes from there.
+ */
+@Component
+public class IncrementalGreedyPlanner {
+
+    private final CatalogIndex catalogIndex;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Plan plan; // guarded by lock
+
+    public IncrementalGreedyPlanner(CatalogIndex catalogIndex) {
+        this.catalogIndex = catalogIndex;
+    }
+
+    /** Same result as {@link GreedyProductionPlanner} on the snapshot's own stock. */
+    public Result plan(CatalogIndex.Snapshot catalog) {
+        return plan(catalog, Deadline.none());
+    }
+
+    /**
+     * Plans until done or until the deadline passes, whichever comes first. A cut-short response holds the
+     * greedy plan of the products ranked before the cut and is flagged {@code partial}; at least one chunk
+     * of products is planned per call, so repeated calls always finish. Returns {@code null} when another
+     * pass holds the planner until the deadline passes.
+     */
+    public Result plan(CatalogIndex.Snapshot catalog, Deadline deadline) {
+        if (!acquire(deadline)) {
+            return null;
+        }
+        try {
+            CatalogIndex.Changes changes = plan == null ? null : catalogIndex.changesBetween(plan.catalog, catalog);
+            if (changes == null) {
+                plan = new Plan(catalog);
+                return replay(plan, catalog, positions(catalog), 0, catalog.copyStock(), false, deadline);
+            }
+            return replan(catalog, changes, deadline);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquire(Deadline deadline) {
+        if (!deadline.isBounded()) {
+            lock.lock();
+            return true;
+        }
+        try {
+            return lock.tryLock(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Result replan(CatalogIndex.Snapshot catalog, CatalogIndex.Changes changes, Deadline deadline) {
+        CatalogIndex.Snapshot base = plan.catalog;
+        int[] oldPosition = plan.position;
+        int[] newPosition = catalog.order == base.order ? oldPosition : positions(catalog);
+
+        // the prefix before k holds the same products, in the same order, with untouched BOMs and materials
+        int k = catalog.order.length;
+        for (int slot : changes.productSlots()) {
+            int before = at(oldPosition, slot);
+            int after = at(newPosition, slot);
+            if (before >= 0) {
+                k = Math.min(k, before);
+                plan.unindex(base, slot);
+            }
+            if (after >= 0) {
+                k = Math.min(k, after);
+                plan.index(catalog, slot);
+            }
+        }
+        for (int material : changes.materialSlots())
+            for (int slot : plan.consumers(material)) {
+                int after = at(newPosition, slot);
+                if (after >= 0)
+                    k = Math.min(k, after);
+            }
+
+        // an unfinished plan resumes where it stopped; its leftover stock is that of the planned prefix
+        k = Math.min(k, plan.done);
+        int[] stock = Arrays.copyOf(plan.remaining, catalog.materialSlotCount);
+        for (int j = k; j < plan.done; j++) {
+            int quantity = plan.quantity[j];
+            if (quantity > 0) {
+                int p = base.order[j];
+                for (int r = base.bomStart[p]; r < base.bomEnd[p]; r++)
+                    stock[base.bomMaterial[r]] += base.bomQuantity[r] * quantity;
+            }
+        }
+        // no product before k uses a written material, so its stock enters the suffix as written
+        for (int material : changes.materialSlots())
+            if (material < catalog.materialSlotCount)
+                stock[material] = catalog.stock[material];
+
+        return replay(plan, catalog, newPosition, k, stock, true, deadline);
+    }
+
+    /** Runs the greedy pass from position {@code k} and stores the result back into the plan. */
+    private static Result replay(Plan plan, CatalogIndex.Snapshot catalog, int[] position, int k, int[] stock,
+                                 boolean incremental, Deadline deadline) {
+        int n = catalog.order.length;
+        // same length: update in place; otherwise keep the prefix and resize
+        int[] quantity = plan.quantity.length == n ? plan.quantity : Arrays.copyOf(plan.quantity, n);
+        int[] suggestionsBefore = plan.suggestionsBefore.length == n + 1
+                ? plan.suggestionsBefore : Arrays.copyOf(plan.suggestionsBefore, n + 1);
+        double[] valueBefore = plan.valueBefore.length == n + 1 ? plan.valueBefore : Arrays.copyOf(plan.valueBefore, n + 1);
+        List<ProductSuggestionDTO> suggestions = new ArrayList<>(plan.suggestions.subList(0, suggestionsBefore[k]));
+
+        long bomRows = 0;
+        int end = n;
+        for (int j = k; j < n; j++) {
+            if (j > k && (j - k) % CHECK_INTERVAL == 0 && deadline.expired()) {
+                end = j;
+                break;
+            }
+            int p = catalog.order[j];
+            bomRows += catalog.bomEnd[p] - catalog.bomStart[p];
+            int quantityProduced = maxBuildable(catalog, p, stock);
+            quantity[j] = quantityProduced;
+
+            double subtotal = 0;
+            if (quantityProduced > 0) {
+                consumeStock(catalog, p, stock, quantityProduced);
+                subtotal = quantityProduced * catalog.productValues[p];
+                suggestions.add(new ProductSuggestionDTO(catalog.productIds[p], catalog.productNames[p], quantityProduced, subtotal));
+            }
+            suggestionsBefore[j + 1] = suggestions.size();
+            valueBefore[j + 1] = valueBefore[j] + subtotal;
+        }
+
+        plan.catalog = catalog;
+        plan.position = position;
+        plan.quantity = quantity;
+        plan.suggestionsBefore = suggestionsBefore;
+        plan.valueBefore = valueBefore;
+        plan.remaining = stock;
+        plan.suggestions = suggestions;
+        plan.done = end;
+        return new Result(new ProductSuggestionResponse(suggestions, valueBefore[end], end < n), end - k, bomRows,
+                incremental);
+    }
+
+    private static int[] positions(CatalogIndex.Snapshot catalog) {
+        int[] position = new int[catalog.productSlotCount];
+        Arrays.fill(position, -1);
+        for (int j = 0; j < catalog.order.length; j++)
+            position[catalog.order[j]] = j;
+        return position;
+    }
+
+    private static int at(int[] position, int slot) {
+        return slot < position.length ? position[slot] : -1;
+    }
+
+    /**
+     * One planner run. {@code productsEvaluated} and {@code bomRowsScanned} cover the replayed suffix only;
+     * {@code incremental} is false when the whole catalog was planned.
+     */
+    public record Result(ProductSuggestionResponse response, int productsEvaluated, long bomRowsScanned,
+                         boolean incremental) {
+    }
+
+    /** Last plan, indexed by position in {@code catalog.order}, plus the material-to-product reverse index. */
+    private static final class Plan {
+        CatalogIndex.Snapshot catalog;
+        int[] position = new int[0];
+        int[] quantity = new int[0];
+        int[] suggestionsBefore = new int[1];
+        double[] valueBefore = new double[1];
+        int[] remaining = new int[0];
+        List<ProductSuggestionDTO> suggestions = List.of();
+        /** Positions planned; short of {@code catalog.order.length} after a pass that hit its deadline. */
+        int done;
+
+        /** Live product slots whose BOM references each material slot. */
+        private final List<Set<Integer>> consumers = new ArrayList<>();
+
+        Plan(CatalogIndex.Snapshot catalog) {
+            this.catalog = catalog;
+            for (int p : catalog.order)
+                index(catalog, p);
+        }
+
+        Set<Integer> consumers(int material) {
+            return material < consumers.size() ? consumers.get(material) : Set.of();
+        }
+
+        void index(CatalogIndex.Snapshot catalog, int p) {
+            for (int r = catalog.bomStart[p]; r < catalog.bomEnd[p]; r++) {
+                int material = catalog.bomMaterial[r];
+                while (consumers.size() <= material)
+                    consumers.add(new HashSet<>());
+                consumers.get(material).add(p);
+            }
+        }
+
+        void unindex(CatalogIndex.Snapshot catalog, int p) {
+            for (int r = catalog.bomStart[p]; r < catalog.bomEnd[p]; r++)
+                consumers.get(catalog.bomMaterial[r]).remove(p);
+        }
+    }
+}
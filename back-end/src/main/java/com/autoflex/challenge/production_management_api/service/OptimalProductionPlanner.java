@@ -0,0 +1,435 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.OptimalSuggestionResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Solves "maximize total value subject to raw material stock" as an integer program using
+ * depth-first branch-and-bound with LP-relaxation bounds (dense simplex). The search starts from
+ * the greedy plan and stops at the time budget, returning the best plan found and the gap to the
+ * best known upper bound.
+ */
+@Component
+public class OptimalProductionPlanner {
+
+    public static final long DEFAULT_BUDGET_MS = 1_000;
+    public static final long MAX_BUDGET_MS = 10_000;
+
+    private static final double EPS = 1e-9;
+    private static final double INTEGRALITY_TOLERANCE = 1e-6;
+
+    public OptimalSuggestionResponse plan(CatalogIndex.Snapshot catalog, int[] stock, long budgetMs) {
+        long deadline = System.nanoTime() + Math.max(0, budgetMs) * 1_000_000L;
+        Model model = Model.build(catalog, stock);
+        Search search = new Search(model, deadline);
+        search.run();
+
+        List<ProductSuggestionDTO> results = new ArrayList<>();
+        double totalValue = 0;
+        for (int j = 0; j < model.n; j++) {
+            int quantityProduced = (int) search.best[j];
+            if (quantityProduced > 0) {
+                int p = model.slots[j];
+                double subtotal = quantityProduced * catalog.productValues[p];
+                results.add(new ProductSuggestionDTO(catalog.productIds[p], catalog.productNames[p], quantityProduced, subtotal));
+                totalValue += subtotal;
+            }
+        }
+        return OptimalSuggestionResponse.fromData(results, totalValue, search.upperBound(), search.exhausted);
+    }
+
+    /**
+     * Dense integer program: products that can be built at least once, the materials they use and
+     * their sparse BOM rows. Products keep the catalog's value order so the warm start matches greedy.
+     */
+    private static final class Model {
+        int n;
+        int m;
+        int[] slots;
+        double[] value;
+        long[] stock;
+        int[][] rows;
+        int[][] qty;
+        long[] natural;
+
+        static Model build(CatalogIndex.Snapshot catalog, int[] available) {
+            int[] materialRow = new int[available.length];
+            Arrays.fill(materialRow, -1);
+            List<Long> stock = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            List<int[]> rows = new ArrayList<>();
+            List<int[]> qty = new ArrayList<>();
+
+            for (int p : catalog.order) {
+                int size = catalog.bomEnd[p] - catalog.bomStart[p];
+                if (catalog.productValues[p] <= 0 || size == 0)
+                    continue;
+                int[] r = new int[size];
+                int[] q = new int[size];
+                int k = 0;
+                boolean buildable = true;
+                for (int b = catalog.bomStart[p]; b < catalog.bomEnd[p]; b++) {
+                    int required = catalog.bomQuantity[b];
+                    if (required <= 0)
+                        continue;
+                    int material = catalog.bomMaterial[b];
+                    if (available[material] < required) {
+                        buildable = false;
+                        break;
+                    }
+                    if (materialRow[material] < 0) {
+                        materialRow[material] = stock.size();
+                        stock.add((long) available[material]);
+                    }
+                    r[k] = materialRow[material];
+                    q[k++] = required;
+                }
+                if (!buildable || k == 0)
+                    continue;
+                slots.add(p);
+                rows.add(Arrays.copyOf(r, k));
+                qty.add(Arrays.copyOf(q, k));
+            }
+
+            Model model = new Model();
+            model.n = slots.size();
+            model.m = stock.size();
+            model.slots = slots.stream().mapToInt(Integer::intValue).toArray();
+            model.rows = rows.toArray(new int[0][]);
+            model.qty = qty.toArray(new int[0][]);
+            model.value = new double[model.n];
+            model.stock = new long[model.m];
+            model.natural = new long[model.n];
+            for (int i = 0; i < model.m; i++)
+                model.stock[i] = stock.get(i);
+            for (int j = 0; j < model.n; j++) {
+                model.value[j] = catalog.productValues[model.slots[j]];
+                model.natural[j] = model.maxUnits(j, model.stock);
+            }
+            return model;
+        }
+
+        long maxUnits(int j, long[] residual) {
+            long max = Long.MAX_VALUE;
+            for (int k = 0; k < rows[j].length; k++)
+                max = Math.min(max, residual[rows[j][k]] / qty[j][k]);
+            return Math.max(0, max);
+        }
+
+        double continuousUnits(int j, long[] residual) {
+            double max = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < rows[j].length; k++)
+                max = Math.min(max, (double) residual[rows[j][k]] / qty[j][k]);
+            return max;
+        }
+
+        void consume(int j, long units, long[] residual) {
+            for (int k = 0; k < rows[j].length; k++)
+                residual[rows[j][k]] -= units * qty[j][k];
+        }
+
+        double valueOf(long[] x) {
+            double total = 0;
+            for (int j = 0; j < n; j++)
+                total += x[j] * value[j];
+            return total;
+        }
+    }
+
+    private record Node(long[] lo, long[] hi, double parentBound) {}
+
+    private static final class Search {
+        private final Model model;
+        private final long deadline;
+        private final Simplex simplex = new Simplex();
+        private final Deque<Node> open = new ArrayDeque<>();
+
+        long[] best;
+        double bestValue;
+        double rootBound = Double.NaN;
+        double interruptedBound = Double.NEGATIVE_INFINITY;
+        boolean exhausted;
+
+        Search(Model model, long deadline) {
+            this.model = model;
+            this.deadline = deadline;
+        }
+
+        void run() {
+            best = greedyFill(new long[model.n]);
+            bestValue = model.valueOf(best);
+
+            // upper bounds only come from branching; stock already bounds every product in the relaxation
+            long[] hi = new long[model.n];
+            Arrays.fill(hi, Long.MAX_VALUE);
+            open.push(new Node(new long[model.n], hi, trivialBound()));
+
+            while (!open.isEmpty()) {
+                if (System.nanoTime() >= deadline)
+                    return;
+                Node node = open.pop();
+                if (node.parentBound() <= bestValue + tolerance())
+                    continue;
+                if (!expand(node)) {
+                    interruptedBound = node.parentBound();
+                    return;
+                }
+            }
+            exhausted = true;
+        }
+
+        double upperBound() {
+            if (exhausted)
+                return bestValue;
+            double bound = Math.max(bestValue, interruptedBound);
+            for (Node node : open)
+                bound = Math.max(bound, node.parentBound());
+            return Double.isNaN(rootBound) ? bound : Math.min(bound, rootBound);
+        }
+
+        /** Returns false when the node relaxation could not be solved within the time budget. */
+        private boolean expand(Node node) {
+            long[] lo = node.lo();
+            long[] hi = node.hi();
+
+            long[] residual = model.stock.clone();
+            for (int j = 0; j < model.n; j++)
+                if (lo[j] > 0)
+                    model.consume(j, lo[j], residual);
+            for (int i = 0; i < model.m; i++)
+                if (residual[i] < 0)
+                    return true;
+
+            // free columns are products whose bounds still leave room under the residual stock
+            int[] columns = new int[model.n];
+            long[] span = new long[model.n];
+            boolean[] boundedRow = new boolean[model.n];
+            int cols = 0;
+            int boundRows = 0;
+            for (int j = 0; j < model.n; j++) {
+                long room = model.maxUnits(j, residual);
+                long limit = hi[j] - lo[j];
+                if (Math.min(room, limit) <= 0)
+                    continue;
+                columns[cols] = j;
+                span[cols] = limit;
+                // the relaxation is continuous, so a branching bound matters as soon as it cuts into stock / required
+                if (limit < model.continuousUnits(j, residual)) {
+                    boundedRow[cols] = true;
+                    boundRows++;
+                }
+                cols++;
+            }
+
+            double fixedValue = model.valueOf(lo);
+            double relaxation = cols == 0 ? 0 : simplex.solve(model, residual, columns, span, boundedRow, cols, boundRows, deadline);
+            if (Double.isNaN(relaxation))
+                return false;
+
+            double bound = fixedValue + relaxation;
+            if (Double.isNaN(rootBound))
+                rootBound = bound;
+            if (bound <= bestValue + tolerance())
+                return true;
+
+            long[] candidate = lo.clone();
+            int branch = -1;
+            double branchValue = 0;
+            double mostFractional = 0;
+            for (int c = 0; c < cols; c++) {
+                int j = columns[c];
+                double y = simplex.solution[c];
+                long whole = (long) Math.floor(y + INTEGRALITY_TOLERANCE);
+                candidate[j] += whole;
+                double fraction = y - Math.floor(y);
+                double distance = Math.min(fraction, 1 - fraction);
+                if (distance > INTEGRALITY_TOLERANCE && distance > mostFractional) {
+                    mostFractional = distance;
+                    branch = j;
+                    branchValue = lo[j] + y;
+                }
+            }
+            offer(greedyFill(candidate));
+
+            if (branch < 0)
+                return true;
+
+            long down = (long) Math.floor(branchValue);
+            long[] downHi = hi.clone();
+            downHi[branch] = down;
+            open.push(new Node(lo, downHi, bound));
+
+            long[] upLo = lo.clone();
+            upLo[branch] = down + 1;
+            open.push(new Node(upLo, hi, bound));
+            return true;
+        }
+
+        private void offer(long[] x) {
+            double value = model.valueOf(x);
+            if (value > bestValue + tolerance()) {
+                best = x;
+                bestValue = value;
+            }
+        }
+
+        /** Completes a partial plan greedily in product order; falls back to the incumbent if it is infeasible. */
+        private long[] greedyFill(long[] x) {
+            long[] residual = model.stock.clone();
+            for (int j = 0; j < model.n; j++)
+                if (x[j] > 0)
+                    model.consume(j, x[j], residual);
+            for (int i = 0; i < model.m; i++)
+                if (residual[i] < 0)
+                    return best;
+            for (int j = 0; j < model.n; j++) {
+                long units = model.maxUnits(j, residual);
+                if (units > 0) {
+                    x[j] += units;
+                    model.consume(j, units, residual);
+                }
+            }
+            return x;
+        }
+
+        private double trivialBound() {
+            double bound = 0;
+            for (int j = 0; j < model.n; j++)
+                bound += model.natural[j] * model.value[j];
+            return bound;
+        }
+
+        private double tolerance() {
+            return EPS * Math.max(1, Math.abs(bestValue));
+        }
+    }
+
+    /**
+     * Dense tableau simplex for max c.y s.t. A y <= r, y_c <= span_c (bounded columns only), y >= 0.
+     * The right-hand side is non-negative, so the slack basis is a feasible start. The tableau buffer
+     * is reused across nodes of the same search.
+     */
+    private static final class Simplex {
+        double[] tableau = new double[0];
+        int[] basis = new int[0];
+        double[] solution = new double[0];
+        int[] nonZero = new int[0];
+
+        double solve(Model model, long[] residual, int[] columns, long[] span, boolean[] boundedRow,
+                     int cols, int boundRows, long deadline) {
+            int rows = model.m + boundRows;
+            int width = cols + rows + 1;
+            int size = (rows + 1) * width;
+            if (tableau.length < size)
+                tableau = new double[size];
+            Arrays.fill(tableau, 0, size, 0);
+            if (basis.length < rows)
+                basis = new int[rows];
+            if (solution.length < cols)
+                solution = new double[cols];
+
+            double[] t = tableau;
+            int rhs = width - 1;
+            int boundRow = model.m;
+            for (int c = 0; c < cols; c++) {
+                int j = columns[c];
+                for (int k = 0; k < model.rows[j].length; k++)
+                    t[model.rows[j][k] * width + c] = model.qty[j][k];
+                if (boundedRow[c]) {
+                    t[boundRow * width + c] = 1;
+                    t[boundRow * width + rhs] = span[c];
+                    boundRow++;
+                }
+                t[rows * width + c] = -model.value[j];
+            }
+            for (int i = 0; i < rows; i++) {
+                t[i * width + cols + i] = 1;
+                if (i < model.m)
+                    t[i * width + rhs] = residual[i];
+                basis[i] = cols + i;
+            }
+
+            int objective = rows * width;
+            int maxIterations = 50 * (rows + cols) + 100;
+            for (int iteration = 0; ; iteration++) {
+                if ((iteration & 15) == 0 && System.nanoTime() >= deadline)
+                    return Double.NaN;
+                boolean bland = iteration > maxIterations / 2;
+
+                int entering = -1;
+                double mostNegative = -EPS;
+                for (int c = 0; c < width - 1; c++) {
+                    double reduced = t[objective + c];
+                    if (reduced < mostNegative) {
+                        entering = c;
+                        if (bland)
+                            break;
+                        mostNegative = reduced;
+                    }
+                }
+                if (entering < 0)
+                    break;
+                // not converging: report it like a timeout so the search stops with an honest gap
+                if (iteration > maxIterations)
+                    return Double.NaN;
+
+                int leaving = -1;
+                double bestRatio = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < rows; i++) {
+                    double a = t[i * width + entering];
+                    if (a > EPS) {
+                        double ratio = t[i * width + rhs] / a;
+                        if (ratio < bestRatio - EPS || (ratio <= bestRatio + EPS && leaving >= 0 && basis[i] < basis[leaving])) {
+                            bestRatio = ratio;
+                            leaving = i;
+                        }
+                    }
+                }
+                if (leaving < 0)
+                    break;
+                pivot(t, width, rows, leaving, entering);
+                basis[leaving] = entering;
+            }
+
+            Arrays.fill(solution, 0, cols, 0);
+            for (int i = 0; i < rows; i++)
+                if (basis[i] < cols)
+                    solution[basis[i]] = Math.max(0, t[i * width + rhs]);
+            return t[objective + rhs];
+        }
+
+        private void pivot(double[] t, int width, int rows, int leaving, int entering) {
+            int pivotRow = leaving * width;
+            double p = t[pivotRow + entering];
+            // the tableau stays sparse for BOM-shaped problems: only touch the pivot row's non-zeros
+            if (nonZero.length < width)
+                nonZero = new int[width];
+            int count = 0;
+            for (int c = 0; c < width; c++) {
+                if (t[pivotRow + c] != 0) {
+                    t[pivotRow + c] /= p;
+                    nonZero[count++] = c;
+                }
+            }
+            for (int i = 0; i <= rows; i++) {
+                if (i == leaving)
+                    continue;
+                int row = i * width;
+                double factor = t[row + entering];
+                if (factor == 0)
+                    continue;
+                for (int k = 0; k < count; k++) {
+                    int c = nonZero[k];
+                    t[row + c] -= factor * t[pivotRow + c];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Planner and catalog meters. Work counters are derived from the snapshot a run planned against, so the
+ * planners' inner loops stay uninstrumented; a rising duration with flat work counters points at the
+ * machine, rising work counters at the catalog.
+ */
+@Component
+public class PlannerMetrics {
+
+    private final MeterRegistry registry;
+
+    public PlannerMetrics(MeterRegistry registry, CatalogIndex catalogIndex) {
+        this.registry = registry;
+        catalogGauge("catalog.products", "Products in the resident catalog", catalogIndex, CatalogIndex.Snapshot::productCount);
+        catalogGauge("catalog.materials", "Raw materials in the resident catalog", catalogIndex, CatalogIndex.Snapshot::materialCount);
+        catalogGauge("catalog.bom.rows", "Live bill-of-materials rows in the resident catalog", catalogIndex, s -> s.liveBomRows);
+    }
+
+    /** Records one planner run; {@code planner} becomes the {@code planner} tag. */
+    public void record(String planner, CatalogIndex.Snapshot catalog, List<ProductSuggestionDTO> suggestions, long elapsedNanos) {
+        // upper bound: the greedy scan stops a BOM early at the first short material
+        record(planner, catalog.productCount(), catalog.liveBomRows, suggestions, elapsedNanos);
+    }
+
+    /** Records a run that only visited part of the catalog, such as an incremental re-plan. */
+    public void record(String planner, int productsEvaluated, long bomRowsScanned, List<ProductSuggestionDTO> suggestions,
+                       long elapsedNanos) {
+        Timer.builder("planner.duration")
+                .description("Time spent computing a production plan")
+                .tag("planner", planner)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        counter("planner.products.evaluated", "Products visited by the planner", planner).increment(productsEvaluated);
+        counter("planner.bom.rows.scanned", "Bill-of-materials rows read by the planner", planner).increment(bomRowsScanned);
+        long units = 0;
+        for (ProductSuggestionDTO suggestion : suggestions) {
+            units += suggestion.quantityProduced();
+        }
+        counter("planner.units.produced", "Units suggested for production", planner).increment(units);
+    }
+
+    /** Counts greedy re-plans by {@code mode}: {@code incremental} or {@code full}. */
+    public void recordReplan(boolean incremental) {
+        Counter.builder("planner.replans")
+                .description("Greedy plans computed, by whether only the affected suffix was replayed")
+                .tag("mode", incremental ? "incremental" : "full")
+                .register(registry)
+                .increment();
+    }
+
+    /** Counts plans cut short by the request's deadline. */
+    public void recordPartial(String planner) {
+        counter("planner.partial", "Plans returned partial because the request's deadline passed", planner).increment();
+    }
+
+    private Counter counter(String name, String description, String planner) {
+        return Counter.builder(name).description(description).tag("planner", planner).register(registry);
+    }
+
+    private void catalogGauge(String name, String description, CatalogIndex catalogIndex,
+                              ToDoubleFunction<CatalogIndex.Snapshot> value) {
+        // NaN until the catalog is loaded, so a scrape never triggers the initial load
+        Gauge.builder(name, catalogIndex, index -> {
+                    CatalogIndex.Snapshot snapshot = index.peek();
+                    return snapshot == null ? Double.NaN : value.applyAsDouble(snapshot);
+                })
+                .description(description)
+                .register(registry);
+    }
+}
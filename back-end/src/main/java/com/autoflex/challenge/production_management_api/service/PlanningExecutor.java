@@ -0,0 +1,119 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.exceptions.PlanningOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for plan computations. Plans run on a fixed pool with a bounded queue; a request that
+ * finds the queue full is shed at once with a {@link PlanningOverloadedException} (503 + {@code Retry-After})
+ * instead of piling up behind the backlog, and one whose deadline passes while still queued is withdrawn.
+ * A caller never waits more than {@link #OVERRUN_MS} past its deadline, even on a task that ignores it.
+ */
+@Component
+public class PlanningExecutor {
+
+    // how long past the deadline a running plan may take to hand back what it has before it is abandoned
+    static final long OVERRUN_MS = 200;
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+
+    public PlanningExecutor(MeterRegistry registry,
+                            @Value("${app.planning.threads:0}") int threads,
+                            @Value("${app.planning.queue-capacity:16}") int queueCapacity,
+                            @Value("${app.planning.retry-after-seconds:1}") long retryAfterSeconds) {
+        // 0 means one thread per core
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), daemon("planner"));
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = Counter.builder("planning.rejected")
+                .description("Plan requests shed because the planning queue was full or the deadline passed in it")
+                .register(registry);
+        Gauge.builder("planning.queue.size", executor, e -> e.getQueue().size())
+                .description("Plan computations waiting for a planner thread")
+                .register(registry);
+    }
+
+    /** Runs {@code task} on a planner thread and waits for it; the task is expected to honour the deadline itself. */
+    public <T> T call(Supplier<T> task, Deadline deadline) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            throw overloaded("Planning queue is full, please retry shortly");
+        }
+        try {
+            if (deadline.isBounded()) {
+                try {
+                    return future.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // taking it off the queue succeeds only if no planner thread has picked it up yet
+                    if (future instanceof Runnable queued && executor.remove(queued)) {
+                        throw overloaded("Plan was still queued when the request's deadline passed");
+                    }
+                    // already running: it stops at the deadline too, so its answer is moments away
+                    try {
+                        return future.get(OVERRUN_MS, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException overrun) {
+                        future.cancel(true);
+                        throw overloaded("Plan did not stop at the request's deadline");
+                    }
+                }
+            }
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a plan", e);
+        } catch (CancellationException e) {
+            throw overloaded("Plan computation was cancelled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** A 503 for a request that could not be planned in time; also counted as rejected. */
+    PlanningOverloadedException overloaded(String message) {
+        rejected.increment();
+        return new PlanningOverloadedException(message, retryAfterSeconds);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import java.util.Locale;
+
+public enum PlanningMode {
+    GREEDY,
+    OPTIMAL;
+
+    public static PlanningMode fromParam(String mode) {
+        try {
+            return PlanningMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown planning mode: " + mode);
+        }
+    }
+}
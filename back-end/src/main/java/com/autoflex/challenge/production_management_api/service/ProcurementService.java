@@ -0,0 +1,163 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.MaterialRequirementDTO;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Reverse of the planner: from target quantities per product to the raw material each target needs and
+ * what is missing from stock. Order lines are read straight off the request stream into a per-product
+ * accumulator, then every requested product's BOM row is visited once; nothing is materialized per line.
+ */
+@Service
+public class ProcurementService {
+
+    public static final int MAX_BOTTLENECKS = 10;
+
+    private final CatalogIndex catalogIndex;
+    private final JsonMapper jsonMapper;
+
+    public ProcurementService(CatalogIndex catalogIndex, JsonMapper jsonMapper) {
+        this.catalogIndex = catalogIndex;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /** Reads a JSON array of {@code {"productId", "quantity"}} lines; repeated products are summed. */
+    public Requirements calculate(InputStream body) {
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        long[] target = new long[catalog.productSlotCount];
+        int[] products = new int[16];
+        int productCount = 0;
+        int lines = 0;
+
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of production targets");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                lines++;
+                Long productId = null;
+                long quantity = 0;
+                while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                    String name = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("productId".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                        productId = parser.getLongValue();
+                    } else if ("quantity".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                        quantity = parser.getIntValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (productId == null) {
+                    throw new IllegalArgumentException("Line " + lines + ": productId is required");
+                }
+                if (quantity < 1) {
+                    throw new IllegalArgumentException("Line " + lines + ": quantity must be at least 1");
+                }
+                int slot = catalog.productSlot(productId);
+                if (slot < 0) {
+                    throw new EntityNotFoundException("Product not found with ID: " + productId);
+                }
+                if (target[slot] == 0) {
+                    if (productCount == products.length) {
+                        products = Arrays.copyOf(products, productCount * 2);
+                    }
+                    products[productCount++] = slot;
+                }
+                target[slot] += quantity;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Line " + (lines + 1) + ": expected a production target object");
+            }
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+
+        long[] required = new long[catalog.materialSlotCount];
+        boolean[] used = new boolean[catalog.materialSlotCount];
+        int materialCount = 0;
+        try {
+            for (int i = 0; i < productCount; i++) {
+                int p = products[i];
+                for (int r = catalog.bomStart[p]; r < catalog.bomEnd[p]; r++) {
+                    int m = catalog.bomMaterial[r];
+                    required[m] = Math.addExact(required[m], Math.multiplyExact(target[p], catalog.bomQuantity[r]));
+                    if (!used[m]) {
+                        used[m] = true;
+                        materialCount++;
+                    }
+                }
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Requested quantities are too large");
+        }
+
+        int[] materials = new int[materialCount];
+        int next = 0;
+        long totalShortfall = 0;
+        for (int m = 0; m < used.length; m++) {
+            if (used[m]) {
+                materials[next++] = m;
+                totalShortfall += shortfall(catalog, required, m);
+            }
+        }
+        // the lowest share of the requirement already in stock first
+        int[] bottlenecks = Arrays.stream(materials)
+                .filter(m -> shortfall(catalog, required, m) > 0)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer m) -> Math.max(catalog.stock[m], 0) / (double) required[m])
+                        .thenComparing(m -> catalog.materialIds[m]))
+                .limit(MAX_BOTTLENECKS)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        return new Requirements(catalog, lines, productCount, materials, required, bottlenecks, totalShortfall);
+    }
+
+    /** Streams the result as JSON; the per-material list is written row by row. */
+    public void write(Requirements requirements, OutputStream out) {
+        try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberProperty("lines", requirements.lines());
+            generator.writeNumberProperty("products", requirements.products());
+            generator.writeNumberProperty("materials", requirements.materials().length);
+            generator.writeNumberProperty("totalShortfall", requirements.totalShortfall());
+            generator.writeArrayPropertyStart("bottlenecks");
+            for (int m : requirements.bottlenecks()) {
+                generator.writePOJO(requirements.row(m));
+            }
+            generator.writeEndArray();
+            generator.writeArrayPropertyStart("requirements");
+            for (int m : requirements.materials()) {
+                generator.writePOJO(requirements.row(m));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static long shortfall(CatalogIndex.Snapshot catalog, long[] required, int m) {
+        return Math.max(required[m] - catalog.stock[m], 0);
+    }
+
+    /** Aggregated requirements; {@code required} is indexed by material slot, the other arrays hold slots. */
+    public record Requirements(CatalogIndex.Snapshot catalog, int lines, int products, int[] materials, long[] required,
+                               int[] bottlenecks, long totalShortfall) {
+
+        MaterialRequirementDTO row(int m) {
+            return new MaterialRequirementDTO(catalog.materialIds[m], required[m], catalog.stock[m],
+                    shortfall(catalog, required, m));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ComponentItemRequest;
+import com.autoflex.challenge.production_management_api.dto.request.MaterialItemRequest;
+import com.autoflex.challenge.production_management_api.dto.request.ProductRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.BulkProductResponse;
+import com.autoflex.challenge.production_management_api.dto.response.RejectedRowDTO;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many products in one transaction. Materials and existing SKUs are resolved with one
+ * set-based query each, and inserts go through Hibernate JDBC batching. Invalid rows are reported
+ * individually and never block the valid ones.
+ */
+@Service
+public class ProductBulkService {
+
+    public static final int MAX_BULK_SIZE = 5_000;
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final Validator validator;
+    private final CatalogIndex catalogIndex;
+    private final CatalogVersion catalogVersion;
+    private final ProductSummaryStore productSummaryStore;
+
+    public ProductBulkService(ProductRepository productRepository, RawMaterialRepository rawMaterialRepository,
+                              Validator validator, CatalogIndex catalogIndex, CatalogVersion catalogVersion,
+                              ProductSummaryStore productSummaryStore) {
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.validator = validator;
+        this.catalogIndex = catalogIndex;
+        this.catalogVersion = catalogVersion;
+        this.productSummaryStore = productSummaryStore;
+    }
+
+    @Transactional
+    public BulkProductResponse createProducts(List<ProductRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one product is required");
+        }
+        if (requests.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("A bulk request accepts at most " + MAX_BULK_SIZE + " products");
+        }
+
+        List<List<String>> errors = new ArrayList<>(requests.size());
+        for (ProductRequestDTO request : requests) {
+            errors.add(validate(request));
+        }
+
+        Map<Long, RawMaterial> materials = resolveMaterials(requests, errors);
+        Map<Long, Product> components = resolveComponents(requests, errors);
+        Set<String> existingSkus = new HashSet<>(productRepository.findExistingSkuCodes(skuCodes(requests, errors)));
+
+        Set<String> seenSkus = new HashSet<>();
+        List<Product> products = new ArrayList<>();
+        List<RejectedRowDTO> rejected = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ProductRequestDTO request = requests.get(i);
+            List<String> rowErrors = errors.get(i);
+            if (rowErrors.isEmpty()) {
+                checkReferences(request, materials, components, existingSkus, seenSkus, rowErrors);
+            }
+            if (!rowErrors.isEmpty()) {
+                rejected.add(new RejectedRowDTO(i, request == null ? null : request.skuCode(), rowErrors));
+                continue;
+            }
+            Product product = new Product();
+            ProductService.dtoToEntity(request, product, materials::get, components::get);
+            products.add(product);
+        }
+
+        List<Product> saved = products.isEmpty() ? List.of() : productRepository.saveAll(products);
+        if (!saved.isEmpty()) {
+            productSummaryStore.insert(saved);
+            AfterCommit.run(() -> {
+                catalogIndex.upsertProducts(saved);
+                catalogVersion.bump();
+            });
+        }
+        return BulkProductResponse.fromData(saved.stream().map(Product::getId).toList(), rejected);
+    }
+
+    private List<String> validate(ProductRequestDTO request) {
+        if (request == null) {
+            return new ArrayList<>(List.of("Product is required"));
+        }
+        List<String> rowErrors = new ArrayList<>();
+        for (ConstraintViolation<ProductRequestDTO> violation : validator.validate(request)) {
+            rowErrors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return rowErrors;
+    }
+
+    private Map<Long, RawMaterial> resolveMaterials(List<ProductRequestDTO> requests, List<List<String>> errors) {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors.get(i).isEmpty()) {
+                for (MaterialItemRequest item : requests.get(i).materialsRequired()) {
+                    if (item != null) {
+                        ids.add(item.rawMaterialId());
+                    }
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return rawMaterialRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(RawMaterial::getId, Function.identity()));
+    }
+
+    // components can only be existing products: rows of the same request are not saved yet, so no cycle can form
+    private Map<Long, Product> resolveComponents(List<ProductRequestDTO> requests, List<List<String>> errors) {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors.get(i).isEmpty() && requests.get(i).components() != null) {
+                for (ComponentItemRequest item : requests.get(i).components()) {
+                    if (item != null) {
+                        ids.add(item.componentProductId());
+                    }
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private static Set<String> skuCodes(List<ProductRequestDTO> requests, List<List<String>> errors) {
+        Set<String> skus = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors.get(i).isEmpty()) {
+                skus.add(requests.get(i).skuCode());
+            }
+        }
+        return skus;
+    }
+
+    private static void checkReferences(ProductRequestDTO request, Map<Long, RawMaterial> materials,
+                                        Map<Long, Product> components, Set<String> existingSkus, Set<String> seenSkus,
+                                        List<String> rowErrors) {
+        Set<Long> listed = new HashSet<>();
+        for (MaterialItemRequest item : request.materialsRequired()) {
+            if (item == null) {
+                rowErrors.add("materialsRequired: Material item is required");
+            } else if (!materials.containsKey(item.rawMaterialId())) {
+                rowErrors.add("materialsRequired: Material not found with ID: " + item.rawMaterialId());
+            } else if (!listed.add(item.rawMaterialId())) {
+                rowErrors.add("materialsRequired: Material listed more than once: " + item.rawMaterialId());
+            }
+        }
+        if (request.components() != null) {
+            Set<Long> listedComponents = new HashSet<>();
+            for (ComponentItemRequest item : request.components()) {
+                if (item == null) {
+                    rowErrors.add("components: Component item is required");
+                } else if (!components.containsKey(item.componentProductId())) {
+                    rowErrors.add("components: Component product not found with ID: " + item.componentProductId());
+                } else if (!listedComponents.add(item.componentProductId())) {
+                    rowErrors.add("components: Component listed more than once: " + item.componentProductId());
+                }
+            }
+        }
+
+        if (existingSkus.contains(request.skuCode())) {
+            rowErrors.add("skuCode: Product already exists with SKU: " + request.skuCode());
+        } else if (seenSkus.contains(request.skuCode())) {
+            rowErrors.add("skuCode: Duplicate SKU in request: " + request.skuCode());
+        } else if (rowErrors.isEmpty()) {
+            // only accepted rows claim their SKU, so a later valid row with the same SKU still goes in
+            seenSkus.add(request.skuCode());
+        }
+    }
+}
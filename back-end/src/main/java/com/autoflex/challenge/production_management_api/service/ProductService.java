@@ -1,35 +1,82 @@
 package com.autoflex.challenge.production_management_api.service;
 
 
+import com.autoflex.challenge.production_management_api.dto.request.ComponentItemRequest;
 import com.autoflex.challenge.production_management_api.dto.request.MaterialItemRequest;
 import com.autoflex.challenge.production_management_api.dto.request.ProductRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.BomLineRow;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentSummaryDTO;
+import com.autoflex.challenge.production_management_api.dto.response.CursorPageResponse;
+import com.autoflex.challenge.production_management_api.dto.response.OptimalSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ProductBomResponse;
 import com.autoflex.challenge.production_management_api.dto.response.ProductResponseDTO;
-import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
 import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
 import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductComponent;
 import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
 import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.NaturalIdLookup;
 import com.autoflex.challenge.production_management_api.repository.ProductRepository;
 import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
 
 @Service
 public class ProductService {
+    private static final LineType<ProductRawMaterial, RawMaterial> MATERIAL_LINES = new LineType<>(
+            "Material", "Material not found with ID: ", line -> line.getRawMaterial().getId(),
+            ProductRawMaterial::getRequiredQuantity, ProductRawMaterial::setRequiredQuantity, RawMaterial::getId);
+    private static final LineType<ProductComponent, Product> COMPONENT_LINES = new LineType<>(
+            "Component", "Component product not found with ID: ", line -> line.getComponent().getId(),
+            ProductComponent::getRequiredQuantity, ProductComponent::setRequiredQuantity, Product::getId);
+
     private final ProductRepository productRepository;
     private final RawMaterialRepository rawMaterialRepository;
+    private final IncrementalGreedyPlanner greedyPlanner;
+    private final OptimalProductionPlanner optimalProductionPlanner;
+    private final CatalogIndex catalogIndex;
+    private final CatalogVersion catalogVersion;
+    private final PlannerMetrics plannerMetrics;
+    private final NaturalIdLookup naturalIdLookup;
+    private final PlanningExecutor planningExecutor;
+    private final ProductSummaryStore productSummaryStore;
+    private final BomReader bomReader;
 
+    private final SingleFlight<Long, ProductSuggestionResponse> suggestionFlight = new SingleFlight<>();
+    private volatile CachedSuggestion cachedSuggestion;
 
-    public ProductService(ProductRepository productRepository, RawMaterialRepository rawMaterialRepository) {
+    public ProductService(ProductRepository productRepository, RawMaterialRepository rawMaterialRepository,
+                          IncrementalGreedyPlanner greedyPlanner, OptimalProductionPlanner optimalProductionPlanner,
+                          CatalogIndex catalogIndex, CatalogVersion catalogVersion, PlannerMetrics plannerMetrics,
+                          NaturalIdLookup naturalIdLookup, PlanningExecutor planningExecutor,
+                          ProductSummaryStore productSummaryStore, BomReader bomReader) {
         this.productRepository = productRepository;
         this.rawMaterialRepository = rawMaterialRepository;
+        this.greedyPlanner = greedyPlanner;
+        this.optimalProductionPlanner = optimalProductionPlanner;
+        this.catalogIndex = catalogIndex;
+        this.catalogVersion = catalogVersion;
+        this.plannerMetrics = plannerMetrics;
+        this.naturalIdLookup = naturalIdLookup;
+        this.planningExecutor = planningExecutor;
+        this.productSummaryStore = productSummaryStore;
+        this.bomReader = bomReader;
     }
 
 
@@ -38,98 +85,296 @@ public class ProductService {
         Product product = new Product();
         dtoToEntity(dto, product);
 
-        return ProductResponseDTO.fromEntity(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        productSummaryStore.insert(List.of(saved));
+        AfterCommit.run(() -> {
+            catalogIndex.upsertProduct(saved);
+            catalogVersion.bump();
+        });
+        return ProductResponseDTO.fromEntity(saved);
     }
 
     @Transactional
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO dto)  {
         Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        product.getMaterials().clear();
-        productRepository.saveAndFlush(product);
-        dtoToEntity(dto, product);
+        checkNoCycle(id, dto.components() == null ? List.of() : dto.components());
+        product.setName(dto.productName());
+        product.setSkuCode(dto.skuCode());
+        product.setValue(dto.productValue());
+        mergeMaterials(product, dto.materialsRequired());
+        mergeComponents(product, dto.components() == null ? List.of() : dto.components());
 
-        return ProductResponseDTO.fromEntity(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        productSummaryStore.update(List.of(saved));
+        AfterCommit.run(() -> {
+            catalogIndex.upsertProduct(saved);
+            catalogVersion.bump();
+        });
+        return ProductResponseDTO.fromEntity(saved);
+    }
+
+    /** Sets the quantity of one raw material in the product's BOM, adding the line when it is not there yet. */
+    @Transactional
+    public ProductResponseDTO updateMaterialLine(Long id, Long rawMaterialId, int requiredQuantity) {
+        Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Product not found"));
+        ProductRawMaterial line = product.getMaterials().stream()
+                .filter(existing -> existing.getRawMaterial().getId().equals(rawMaterialId))
+                .findFirst()
+                .orElse(null);
+        if (line == null) {
+            RawMaterial rawMaterial = rawMaterialRepository.findById(rawMaterialId)
+                    .orElseThrow(() -> new EntityNotFoundException("Material not found with ID: " + rawMaterialId));
+            product.getMaterials().add(new ProductRawMaterial(null, product, rawMaterial, requiredQuantity));
+        } else if (line.getRequiredQuantity() != requiredQuantity) {
+            line.setRequiredQuantity(requiredQuantity);
+        }
+
+        Product saved = productRepository.save(product);
+        productSummaryStore.update(List.of(saved));
+        AfterCommit.run(() -> {
+            catalogIndex.upsertProduct(saved);
+            catalogVersion.bump();
+        });
+        return ProductResponseDTO.fromEntity(saved);
     }
 
     @Transactional
     public void deleteProduct(Long id){
         Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Product not found"));
+        if (productRepository.isUsedAsComponent(id)) {
+            throw new IllegalArgumentException("Product " + id + " is a component of other products and cannot be deleted");
+        }
         productRepository.delete(product);
+        productSummaryStore.delete(id);
+        AfterCommit.run(() -> {
+            catalogIndex.removeProduct(id);
+            catalogVersion.bump();
+        });
     }
 
     public ProductResponseDTO getProduct(Long id){
-        Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+        return productSummaryStore.find(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+    }
+
+    @Transactional
+    public ProductResponseDTO getProductBySku(String skuCode) {
+        Product product = naturalIdLookup.find(Product.class, skuCode)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with SKU: " + skuCode));
         return ProductResponseDTO.fromEntity(product);
     }
 
+    public ProductBomResponse getProductBom(Long id) {
+        List<BomLineRow> rawMaterials = catalogIndex.flattenedBom(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        List<ComponentSummaryDTO> components = new ArrayList<>();
+        for (BomExplosion.Component component : catalogIndex.components(id)) {
+            int slot = catalog.productSlot(component.productId());
+            components.add(new ComponentSummaryDTO(component.productId(),
+                    slot < 0 ? null : catalog.productNames[slot], component.quantity()));
+        }
+        int slot = catalog.productSlot(id);
+        return new ProductBomResponse(id, slot < 0 ? null : catalog.productNames[slot], components, rawMaterials);
+    }
+
     public List<ProductResponseDTO> getAllProducts(){
-        List<Product> products = productRepository.findAll();
-        return products.stream().map(ProductResponseDTO::fromEntity).collect(Collectors.toList());
+        return productSummaryStore.findAll();
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion.current();
     }
 
-    public ProductSuggestionResponse getProductSuggestion(){
-        double totalValue = 0;
+    public CursorPageResponse<ProductResponseDTO> getProductPage(Long after, Integer limit) {
+        int size = CursorPage.limit(limit);
+        List<ProductResponseDTO> products = productSummaryStore.findAfter(CursorPage.after(after), Limit.of(size + 1));
+        return CursorPageResponse.fromData(CursorPage.page(products, size),
+                CursorPage.nextCursor(products, size, ProductResponseDTO::productId));
+    }
 
-        List<Product> products = productRepository.findAllWithMaterials().stream().sorted(Comparator.comparing(Product::getValue)
-                .reversed()).collect(Collectors.toList());
-        if (products.isEmpty()) {
-            throw new EntityNotFoundException("No products found");
+    /**
+     * Greedy plan of the current catalog. When {@code deadline} passes first, the plan of the top-ranked
+     * products is returned flagged as partial, and the next request resumes planning where this one stopped.
+     */
+    public ProductSuggestionResponse getProductSuggestion(Deadline deadline) {
+        // read the version before the snapshot: a racing write can only make the cached plan newer than its key
+        long version = catalogVersion.current();
+        CachedSuggestion cached = cachedSuggestion;
+        if (cached != null && cached.version() == version) {
+            return cached.response();
+        }
+        ProductSuggestionResponse response = planSuggestion(version, deadline);
+        // a leader with a tighter deadline hands back a prefix; with time left, carry on from where it stopped
+        while (response.partial() && !deadline.expired()) {
+            response = planSuggestion(version, deadline);
         }
+        return response;
+    }
 
-        Map<Long, Integer> inventory = rawMaterialRepository.findAll().stream().collect(Collectors.toMap(RawMaterial::getId, RawMaterial::getStock));
-        if (inventory == null) {
-            throw new EntityNotFoundException("No raw materials found");
+    private ProductSuggestionResponse planSuggestion(long version, Deadline deadline) {
+        ProductSuggestionResponse response = suggestionFlight.execute(version, () -> {
+            // a leader for this version may have finished between the cache check and joining the flight
+            CachedSuggestion latest = cachedSuggestion;
+            if (latest != null && latest.version() == version) {
+                return latest.response();
+            }
+            // loaded on the request thread, so planner threads never wait on the database
+            CatalogIndex.Snapshot catalog = findCatalog();
+            return planningExecutor.call(() -> {
+                long start = System.nanoTime();
+                IncrementalGreedyPlanner.Result result = greedyPlanner.plan(catalog, deadline);
+                if (result == null) {
+                    return null;
+                }
+                ProductSuggestionResponse plan = result.response();
+                plannerMetrics.record("greedy", result.productsEvaluated(), result.bomRowsScanned(), plan.suggestions(),
+                        System.nanoTime() - start);
+                plannerMetrics.recordReplan(result.incremental());
+                if (plan.partial()) {
+                    plannerMetrics.recordPartial("greedy");
+                } else {
+                    cachedSuggestion = new CachedSuggestion(version, plan);
+                }
+                return plan;
+            }, deadline);
+        }, deadline);
+        if (response == null) {
+            throw planningExecutor.overloaded("Plan was not ready within the request's deadline");
         }
+        return response;
+    }
 
-        List<ProductSuggestionDTO> results = new ArrayList<>();
+    /** Suggestion requests that waited on a computation already in flight instead of running their own. */
+    public long getCoalescedSuggestionCalls() {
+        return suggestionFlight.coalescedCount();
+    }
 
-        for (Product p : products) {
-            int quantityProduced = 0;
-            while (hasStock(p, inventory)){
-                consumeStock(p, inventory);
-                quantityProduced++;
-            }
+    /** The search budget is cut to what is left of {@code deadline} once the request reaches a planner thread. */
+    public OptimalSuggestionResponse getOptimalProductSuggestion(Long budgetMs, Deadline deadline){
+        long requested = budgetMs == null ? OptimalProductionPlanner.DEFAULT_BUDGET_MS
+                : Math.min(Math.max(budgetMs, 0), OptimalProductionPlanner.MAX_BUDGET_MS);
+        CatalogIndex.Snapshot catalog = findCatalog();
+        return planningExecutor.call(() -> {
+            long budget = Math.min(requested, deadline.remainingMillis());
+            long start = System.nanoTime();
+            OptimalSuggestionResponse response = optimalProductionPlanner.plan(catalog, catalog.copyStock(), budget);
+            plannerMetrics.record("optimal", catalog, response.suggestions(), System.nanoTime() - start);
+            return response;
+        }, deadline);
+    }
 
-            if(quantityProduced > 0){
-                double subtotal = quantityProduced * p.getValue();
-                results.add(new ProductSuggestionDTO(p.getName(), quantityProduced, subtotal));
-                totalValue += subtotal;
-            }
+    private CatalogIndex.Snapshot findCatalog() {
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        if (catalog.productCount() == 0) {
+            throw new EntityNotFoundException("No products found");
         }
-        return ProductSuggestionResponse.fromData(results, totalValue);
+        return catalog;
     }
 
-    private void consumeStock(Product p, Map<Long, Integer> inventory){
+    private void dtoToEntity(ProductRequestDTO dto, Product product) {
+        dtoToEntity(dto, product,
+                id -> rawMaterialRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException("Material not found with ID: " + id)),
+                id -> productRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException("Component product not found with ID: " + id)));
+    }
 
-        for(ProductRawMaterial pm : p.getMaterials()){
-            int required = pm.getRequiredQuantity();
-            int remaining = inventory.get(pm.getRawMaterial().getId());
-            inventory.put(pm.getRawMaterial().getId(), remaining - required);
-        }
+    private void mergeMaterials(Product product, List<MaterialItemRequest> items) {
+        mergeLines(MATERIAL_LINES, product.getMaterials(),
+                requested(MATERIAL_LINES, items, MaterialItemRequest::rawMaterialId, MaterialItemRequest::requiredQuantity),
+                rawMaterialRepository::findAllById,
+                (rawMaterial, quantity) -> new ProductRawMaterial(null, product, rawMaterial, quantity));
     }
 
-    private boolean hasStock(Product p, Map<Long, Integer> inventory) {
-        if(p.getMaterials().isEmpty())
-            return false;
-        for(ProductRawMaterial pm : p.getMaterials()) {
-            int required = pm.getRequiredQuantity();
+    private void mergeComponents(Product product, List<ComponentItemRequest> items) {
+        mergeLines(COMPONENT_LINES, product.getComponents(),
+                requested(COMPONENT_LINES, items, ComponentItemRequest::componentProductId, ComponentItemRequest::requiredQuantity),
+                productRepository::findAllById,
+                (component, quantity) -> new ProductComponent(null, product, component, quantity));
+    }
 
-            Long materialId = pm.getRawMaterial().getId();
-            int amount = inventory.get(materialId);
+    private static <I> Map<Long, Integer> requested(LineType<?, ?> type, List<I> items, Function<I, Long> targetId,
+                                                    ToIntFunction<I> quantity) {
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (I item : items) {
+            if (requested.put(targetId.apply(item), quantity.applyAsInt(item)) != null) {
+                throw new IllegalArgumentException(type.label() + " listed more than once: " + targetId.apply(item));
+            }
+        }
+        return requested;
+    }
 
-            if(amount < required)
-                return false;
+    // diff against the stored lines: unchanged lines cost no statement, changed ones one batched UPDATE each,
+    // and only the targets of new lines are fetched, in a single query
+    private static <L, T> void mergeLines(LineType<L, T> type, List<L> lines, Map<Long, Integer> requested,
+                                          Function<Set<Long>, Iterable<T>> fetch, BiFunction<T, Integer, L> create) {
+        Iterator<L> stored = lines.iterator();
+        while (stored.hasNext()) {
+            L line = stored.next();
+            Integer quantity = requested.remove(type.targetId().apply(line));
+            if (quantity == null) {
+                stored.remove();
+            } else if (quantity != type.quantity().applyAsInt(line)) {
+                type.setQuantity().accept(line, quantity);
+            }
+        }
+        if (requested.isEmpty()) {
+            return;
         }
-        return true;
+        Map<Long, T> found = new HashMap<>();
+        fetch.apply(requested.keySet()).forEach(target -> found.put(type.id().apply(target), target));
+        requested.forEach((targetId, quantity) -> {
+            T target = found.get(targetId);
+            if (target == null) {
+                throw new EntityNotFoundException(type.missing() + targetId);
+            }
+            lines.add(create.apply(target, quantity));
+        });
     }
-    private void dtoToEntity(ProductRequestDTO dto, Product product) {
+
+    // A product may not contain itself at any depth; new products cannot be anyone's component yet. The graph
+    // is read from the database, not the catalog, which only sees other writes once they commit. Each update
+    // first locks its product and everything below its components: two updates that would close a cycle
+    // between them always lock a common row, so the later one re-reads the graph with the other's edge in it.
+    private void checkNoCycle(Long productId, List<ComponentItemRequest> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Long> componentIds = items.stream().map(ComponentItemRequest::componentProductId).toList();
+        Set<Long> locked = new HashSet<>();
+        Set<Long> below = bomReader.below(componentIds);
+        while (true) {
+            Set<Long> unlocked = new TreeSet<>(below);
+            unlocked.add(productId);
+            unlocked.removeAll(locked);
+            if (unlocked.isEmpty()) {
+                break;
+            }
+            productRepository.lockAllById(unlocked);
+            locked.addAll(unlocked);
+            // edges committed while waiting for the locks can reach products not locked yet
+            below = bomReader.below(componentIds);
+        }
+        if (!below.contains(productId)) {
+            return;
+        }
+        for (Long componentId : componentIds) {
+            if (bomReader.below(List.of(componentId)).contains(productId)) {
+                throw new IllegalArgumentException("Product " + componentId + " already contains product "
+                        + productId + " and cannot be one of its components");
+            }
+        }
+    }
+
+    static void dtoToEntity(ProductRequestDTO dto, Product product, Function<Long, RawMaterial> materials,
+                            Function<Long, Product> components) {
         product.setName(dto.productName());
         product.setSkuCode(dto.skuCode());
         product.setValue(dto.productValue());
 
         for (MaterialItemRequest materialDTO : dto.materialsRequired()) {
-            RawMaterial rawMaterial = rawMaterialRepository.findById(materialDTO.rawMaterialId())
-                    .orElseThrow(() -> new EntityNotFoundException("Material not found with ID: " + materialDTO.rawMaterialId()));
+            RawMaterial rawMaterial = materials.apply(materialDTO.rawMaterialId());
 
             ProductRawMaterial relational = new ProductRawMaterial();
             relational.setRawMaterial(rawMaterial);
@@ -138,5 +383,24 @@ public class ProductService {
 
             product.getMaterials().add(relational);
         }
+
+        if (dto.components() != null) {
+            for (ComponentItemRequest componentDTO : dto.components()) {
+                ProductComponent relational = new ProductComponent();
+                relational.setProduct(product);
+                relational.setComponent(components.apply(componentDTO.componentProductId()));
+                relational.setRequiredQuantity(componentDTO.requiredQuantity());
+
+                product.getComponents().add(relational);
+            }
+        }
+    }
+
+    private record CachedSuggestion(long version, ProductSuggestionResponse response) {
+    }
+
+    /** How {@link #mergeLines} reads and writes one kind of BOM line, and what it reports for bad requests. */
+    private record LineType<L, T>(String label, String missing, Function<L, Long> targetId, ToIntFunction<L> quantity,
+                                  ObjIntConsumer<L> setQuantity, Function<T, Long> id) {
     }
 }
@@ -0,0 +1,153 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.MaterialSummaryDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductResponseDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSummaryRow;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.ProductSummary;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.ProductSummaryRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link ProductSummary} read model behind the product listings. Writers call it inside their own
+ * transaction, so a summary commits or rolls back with the change it reflects; readers get a product with
+ * its BOM from a single primary-key read instead of joining the product, BOM and material tables.
+ */
+@Component
+public class ProductSummaryStore {
+
+    private static final Comparator<ProductRawMaterial> LINE_ORDER =
+            Comparator.comparing(ProductRawMaterial::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ProductSummaryRepository productSummaryRepository;
+    private final ProductRepository productRepository;
+    private final ObjectWriter materialsWriter;
+    private final ObjectReader materialsReader;
+
+    public ProductSummaryStore(ProductSummaryRepository productSummaryRepository, ProductRepository productRepository,
+                               JsonMapper jsonMapper) {
+        this.productSummaryRepository = productSummaryRepository;
+        this.productRepository = productRepository;
+        this.materialsWriter = jsonMapper.writerFor(new TypeReference<List<MaterialSummaryDTO>>() {
+        });
+        this.materialsReader = jsonMapper.readerForListOf(MaterialSummaryDTO.class);
+    }
+
+    public List<ProductResponseDTO> findAll() {
+        return productSummaryRepository.findAllRows().stream().map(this::toResponse).toList();
+    }
+
+    public Optional<ProductResponseDTO> find(Long productId) {
+        return productSummaryRepository.findRowById(productId).map(this::toResponse);
+    }
+
+    public List<ProductResponseDTO> findAfter(long after, Limit limit) {
+        return productSummaryRepository.findRowsAfter(after, limit).stream().map(this::toResponse).toList();
+    }
+
+    /** Adds the summaries of products created in the current transaction. */
+    public void insert(Collection<Product> products) {
+        List<ProductSummary> summaries = new ArrayList<>(products.size());
+        for (Product product : products) {
+            ProductSummary summary = ProductSummary.forProduct(product.getId());
+            fill(summary, product, Map.of());
+            summaries.add(summary);
+        }
+        productSummaryRepository.saveAll(summaries);
+    }
+
+    /**
+     * Rewrites the summaries of changed products; a summary that is unchanged costs no statement. The summaries
+     * are locked like {@link #refreshMaterials} locks them and the material names are read again under the lock,
+     * so a rename that commits while the product is being edited is not overwritten with the name it replaced.
+     */
+    public void update(Collection<Product> products) {
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        Map<Long, ProductSummary> stored = new HashMap<>();
+        productSummaryRepository.lockAllById(productIds)
+                .forEach(summary -> stored.put(summary.getProductId(), summary));
+        Map<Long, String> names = new HashMap<>();
+        productRepository.findMaterialNames(productIds)
+                .forEach(row -> names.put(row.rawMaterialId(), row.materialName()));
+        write(products, stored, names);
+    }
+
+    public void delete(Long productId) {
+        productSummaryRepository.deleteByProductId(productId);
+    }
+
+    /**
+     * Rewrites the summary of every product whose BOM uses one of these raw materials, after a rename.
+     * The summaries are locked before the products are read, so two renames touching the same product
+     * cannot each write back the other's old name.
+     */
+    public void refreshMaterials(Collection<Long> rawMaterialIds) {
+        if (rawMaterialIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ProductSummary> stored = new HashMap<>();
+        productSummaryRepository.lockAllUsing(rawMaterialIds)
+                .forEach(summary -> stored.put(summary.getProductId(), summary));
+        write(productRepository.findAllWithMaterialsUsing(rawMaterialIds), stored, Map.of());
+    }
+
+    /** Creates the summaries missing at startup, e.g. for products written before the read model existed. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        List<Product> missing = productRepository.findAllWithMaterialsWithoutSummary();
+        if (!missing.isEmpty()) {
+            insert(missing);
+        }
+    }
+
+    private void write(Collection<Product> products, Map<Long, ProductSummary> stored, Map<Long, String> names) {
+        List<ProductSummary> created = new ArrayList<>();
+        for (Product product : products) {
+            ProductSummary summary = stored.get(product.getId());
+            if (summary == null) {
+                summary = ProductSummary.forProduct(product.getId());
+                created.add(summary);
+            }
+            fill(summary, product, names);
+        }
+        productSummaryRepository.saveAll(created);
+    }
+
+    // names holds material names read past the persistence context; others come from the loaded entities
+    private void fill(ProductSummary summary, Product product, Map<Long, String> names) {
+        List<MaterialSummaryDTO> materials = product.getMaterials().stream()
+                .sorted(LINE_ORDER)
+                .map(line -> new MaterialSummaryDTO(
+                        names.getOrDefault(line.getRawMaterial().getId(), line.getRawMaterial().getName()),
+                        line.getRequiredQuantity()))
+                .toList();
+        summary.setSkuCode(product.getSkuCode());
+        summary.setName(product.getName());
+        summary.setValue(product.getValue());
+        summary.setMaterialsJson(materialsWriter.writeValueAsString(materials));
+    }
+
+    private ProductResponseDTO toResponse(ProductSummaryRow row) {
+        List<MaterialSummaryDTO> materials = materialsReader.readValue(row.materialsJson());
+        return new ProductResponseDTO(row.productId(), row.productName(), row.skuCode(), row.productValue(), materials);
+    }
+}
@@ -0,0 +1,72 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductionOrderRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialConsumptionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductionOrderResponseDTO;
+import com.autoflex.challenge.production_management_api.exceptions.InsufficientStockException;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records production by decrementing every material of the flattened BOM with a conditional UPDATE. Stock is never
+ * read and written back, so concurrent orders cannot lose each other's decrements; if any material
+ * is short the whole order rolls back. The BOM is read from the database in the order's transaction,
+ * never from the resident catalog, which may not have caught up with a BOM change that just committed.
+ */
+@Service
+public class ProductionOrderService {
+    private final RawMaterialRepository rawMaterialRepository;
+    private final BomReader bomReader;
+    private final CatalogIndex catalogIndex;
+    private final CatalogVersion catalogVersion;
+
+    public ProductionOrderService(RawMaterialRepository rawMaterialRepository, BomReader bomReader,
+                                  CatalogIndex catalogIndex, CatalogVersion catalogVersion) {
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.bomReader = bomReader;
+        this.catalogIndex = catalogIndex;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Transactional
+    public ProductionOrderResponseDTO createProductionOrder(ProductionOrderRequestDTO dto) {
+        // sub-assemblies are built on the way, so the order consumes the flattened BOM
+        List<BomReader.Line> bom = bomReader.flatten(dto.productId())
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + dto.productId()));
+
+        List<MaterialConsumptionDTO> consumed = new ArrayList<>();
+        Map<Long, Integer> deltas = new HashMap<>();
+        // lines come ordered by material id, so concurrent orders lock rows in the same order and cannot deadlock
+        for (BomReader.Line line : bom) {
+            int amount = consumption(line, dto.quantity());
+            if (rawMaterialRepository.consumeStock(line.rawMaterialId(), amount) == 0) {
+                throw new InsufficientStockException("Insufficient stock of " + line.materialName()
+                        + " (ID: " + line.rawMaterialId() + "): " + amount + " required");
+            }
+            consumed.add(new MaterialConsumptionDTO(line.rawMaterialId(), line.materialName(), amount));
+            deltas.merge(line.rawMaterialId(), -amount, Integer::sum);
+        }
+
+        AfterCommit.run(() -> {
+            catalogIndex.adjustStock(deltas);
+            catalogVersion.bump();
+        });
+        return new ProductionOrderResponseDTO(dto.productId(), dto.quantity(), consumed);
+    }
+
+    // rejected rather than clamped: consuming less than the BOM asks for would record production that never happened
+    private static int consumption(BomReader.Line line, int quantity) {
+        try {
+            return Math.toIntExact(Math.multiplyExact(line.quantity(), quantity));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Quantity too large for material ID: " + line.rawMaterialId());
+        }
+    }
+}
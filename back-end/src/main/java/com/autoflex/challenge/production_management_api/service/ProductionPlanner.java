@@ -0,0 +1,25 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+
+/**
+ * Strategy that decides how many units of each product can be built from the available stock.
+ */
+public interface ProductionPlanner {
+
+    /**
+     * Plans production for the catalog's products, visited in value order.
+     *
+     * @param catalog resident catalog snapshot
+     * @param stock   available stock by material slot; consumed in place
+     */
+    default ProductSuggestionResponse plan(CatalogIndex.Snapshot catalog, int[] stock) {
+        return plan(catalog, stock, Deadline.none());
+    }
+
+    /**
+     * Like {@link #plan(CatalogIndex.Snapshot, int[])}, but stops once the deadline passes and returns the plan
+     * of the products visited so far, flagged {@code partial}.
+     */
+    ProductSuggestionResponse plan(CatalogIndex.Snapshot catalog, int[] stock, Deadline deadline);
+}
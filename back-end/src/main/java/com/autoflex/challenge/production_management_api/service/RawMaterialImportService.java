@@ -0,0 +1,268 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.RawMaterialRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.RawMaterialImportResponse;
+import com.autoflex.challenge.production_management_api.dto.response.RejectedRowDTO;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams raw materials from a CSV or NDJSON body and upserts them by SKU. The body is read line by
+ * line and written in batches, each in its own transaction with the persistence context cleared
+ * afterwards, so memory stays bounded by the batch size whatever the file size. A failure aborts the
+ * import but keeps the batches already committed.
+ */
+@Service
+public class RawMaterialImportService {
+
+    static final int MAX_REPORTED_REJECTIONS = 1_000;
+    private static final List<String> CSV_COLUMNS = List.of("materialName", "skuCode", "stock");
+
+    private final RawMaterialRepository rawMaterialRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final CatalogIndex catalogIndex;
+    private final CatalogVersion catalogVersion;
+    private final ProductSummaryStore productSummaryStore;
+    private final int batchSize;
+
+    public RawMaterialImportService(RawMaterialRepository rawMaterialRepository, EntityManager entityManager,
+                                    TransactionTemplate transactionTemplate, Validator validator, JsonMapper jsonMapper,
+                                    CatalogIndex catalogIndex, CatalogVersion catalogVersion,
+                                    ProductSummaryStore productSummaryStore,
+                                    @Value("${app.import.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("app.import.batch-size must be at least 1");
+        }
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.catalogIndex = catalogIndex;
+        this.catalogVersion = catalogVersion;
+        this.productSummaryStore = productSummaryStore;
+        this.batchSize = batchSize;
+    }
+
+    public RawMaterialImportResponse importRawMaterials(InputStream body, ImportFormat format) {
+        Progress progress = new Progress();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            int[] columns = null;
+            if (format == ImportFormat.CSV) {
+                columns = csvColumns(reader.readLine());
+                lineNumber++;
+            }
+
+            List<ParsedRow> batch = new ArrayList<>(batchSize);
+            // line of each SKU already in the batch: a second row for it would be both created and updated
+            Map<String, Integer> batchLines = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ParsedRow row = format == ImportFormat.CSV ? parseCsv(lineNumber, line, columns) : parseJson(lineNumber, line);
+                if (!row.errors().isEmpty()) {
+                    progress.reject(row);
+                    continue;
+                }
+                String skuCode = row.request().skuCode();
+                Integer firstLine = batchLines.putIfAbsent(skuCode, lineNumber);
+                if (firstLine != null) {
+                    progress.reject(ParsedRow.rejected(lineNumber, skuCode, "skuCode: Duplicate of line " + firstLine));
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, progress);
+                    batch.clear();
+                    batchLines.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import body", e);
+        } finally {
+            // one reload after the import instead of a copy-on-write per batch
+            if (progress.created + progress.updated > 0) {
+                catalogIndex.invalidate();
+                catalogVersion.bump();
+            }
+        }
+        return progress.toResponse();
+    }
+
+    private void writeBatch(List<ParsedRow> batch, Progress progress) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+            List<String> skus = batch.stream().map(row -> row.request().skuCode()).toList();
+            Map<String, RawMaterial> bySku = new HashMap<>();
+            for (RawMaterial existing : rawMaterialRepository.findBySkuCodeIn(skus)) {
+                bySku.put(existing.getSkuCode(), existing);
+            }
+
+            List<RawMaterial> created = new ArrayList<>();
+            List<Long> renamed = new ArrayList<>();
+            long updated = 0;
+            for (ParsedRow row : batch) {
+                RawMaterialRequestDTO request = row.request();
+                RawMaterial rawMaterial = bySku.get(request.skuCode());
+                if (rawMaterial == null) {
+                    rawMaterial = new RawMaterial();
+                    rawMaterial.setSkuCode(request.skuCode());
+                    bySku.put(request.skuCode(), rawMaterial);
+                    created.add(rawMaterial);
+                } else {
+                    // SKUs are unique within a batch, so this row existed before it
+                    updated++;
+                    if (!rawMaterial.getName().equals(request.materialName())) {
+                        renamed.add(rawMaterial.getId());
+                    }
+                }
+                rawMaterial.setName(request.materialName());
+                rawMaterial.setStock(request.stock());
+            }
+
+            rawMaterialRepository.saveAll(created);
+            productSummaryStore.refreshMaterials(renamed);
+            entityManager.flush();
+            entityManager.clear();
+            progress.created += created.size();
+            progress.updated += updated;
+        });
+        progress.processed += batch.size();
+    }
+
+    private static int[] csvColumns(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import requires a header line");
+        }
+        List<String> names = splitCsv(header).stream().map(String::trim).toList();
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("CSV header must contain the columns " + String.join(", ", CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    private ParsedRow parseCsv(int lineNumber, String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        for (int column : columns) {
+            if (column >= fields.size()) {
+                return ParsedRow.rejected(lineNumber, null, "Expected at least " + (column + 1) + " columns");
+            }
+        }
+        String skuCode = fields.get(columns[1]).trim();
+        int stock;
+        try {
+            stock = Integer.parseInt(fields.get(columns[2]).trim());
+        } catch (NumberFormatException e) {
+            return ParsedRow.rejected(lineNumber, skuCode, "stock: Must be an integer");
+        }
+        return validate(lineNumber, new RawMaterialRequestDTO(fields.get(columns[0]).trim(), skuCode, stock));
+    }
+
+    private ParsedRow parseJson(int lineNumber, String line) {
+        RawMaterialRequestDTO request;
+        try {
+            request = jsonMapper.readValue(line, RawMaterialRequestDTO.class);
+        } catch (JacksonException e) {
+            return ParsedRow.rejected(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        return validate(lineNumber, request);
+    }
+
+    private ParsedRow validate(int lineNumber, RawMaterialRequestDTO request) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<RawMaterialRequestDTO> violation : validator.validate(request)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return new ParsedRow(lineNumber, request, errors);
+    }
+
+    /** Splits one CSV record; supports double-quoted fields with {@code ""} escapes, not embedded newlines. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ParsedRow(int line, RawMaterialRequestDTO request, List<String> errors) {
+        static ParsedRow rejected(int line, String skuCode, String error) {
+            return new ParsedRow(line, new RawMaterialRequestDTO(null, skuCode, 0), List.of(error));
+        }
+    }
+
+    private static final class Progress {
+        private long processed;
+        private long created;
+        private long updated;
+        private long rejectedCount;
+        private final List<RejectedRowDTO> rejected = new ArrayList<>();
+
+        void reject(ParsedRow row) {
+            processed++;
+            rejectedCount++;
+            if (rejected.size() < MAX_REPORTED_REJECTIONS) {
+                rejected.add(new RejectedRowDTO(row.line(), row.request().skuCode(), row.errors()));
+            }
+        }
+
+        RawMaterialImportResponse toResponse() {
+            return new RawMaterialImportResponse(processed, created, updated, rejectedCount, List.copyOf(rejected));
+        }
+    }
+}
@@ -1,22 +1,39 @@
 package com.autoflex.challenge.production_management_api.service;
 
 import com.autoflex.challenge.production_management_api.dto.request.RawMaterialRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.CursorPageResponse;
 import com.autoflex.challenge.production_management_api.dto.response.RawMaterialResponseDTO;
+import com.autoflex.challenge.production_management_api.dto.response.StockDeltaResponseDTO;
 import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.NaturalIdLookup;
 import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class RawMaterialService {
     private final RawMaterialRepository rawMaterialRepository;
+    private final CatalogIndex catalogIndex;
+    private final CatalogVersion catalogVersion;
+    private final StockDeltaBuffer stockDeltaBuffer;
+    private final NaturalIdLookup naturalIdLookup;
+    private final ProductSummaryStore productSummaryStore;
 
-    public RawMaterialService(RawMaterialRepository rawMaterialRepository) {
+    public RawMaterialService(RawMaterialRepository rawMaterialRepository, CatalogIndex catalogIndex,
+                              CatalogVersion catalogVersion, StockDeltaBuffer stockDeltaBuffer,
+                              NaturalIdLookup naturalIdLookup, ProductSummaryStore productSummaryStore) {
         this.rawMaterialRepository = rawMaterialRepository;
+        this.catalogIndex = catalogIndex;
+        this.catalogVersion = catalogVersion;
+        this.stockDeltaBuffer = stockDeltaBuffer;
+        this.naturalIdLookup = naturalIdLookup;
+        this.productSummaryStore = productSummaryStore;
     }
 
     public List<RawMaterialResponseDTO> getAllRawMaterials() {
@@ -24,30 +41,87 @@ public class RawMaterialService {
         return rawMaterials.stream().map(RawMaterialResponseDTO::fromEntity).collect(Collectors.toList());
     }
 
+    public CursorPageResponse<RawMaterialResponseDTO> getRawMaterialPage(Long after, Integer limit) {
+        int size = CursorPage.limit(limit);
+        List<RawMaterial> rawMaterials = rawMaterialRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.after(after), Limit.of(size + 1));
+        return CursorPageResponse.fromData(
+                CursorPage.page(rawMaterials, size).stream().map(RawMaterialResponseDTO::fromEntity).toList(),
+                CursorPage.nextCursor(rawMaterials, size, RawMaterial::getId));
+    }
+
     public RawMaterialResponseDTO getRawMaterialById(Long id) {
         RawMaterial rawMaterial  = rawMaterialRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Raw material not found with ID: "+id));
-        return RawMaterialResponseDTO.fromEntity(rawMaterial);
+        return withPendingDelta(rawMaterial);
+    }
+
+    public RawMaterialResponseDTO getRawMaterialBySku(String skuCode) {
+        RawMaterial rawMaterial = naturalIdLookup.find(RawMaterial.class, skuCode)
+                .orElseThrow(() -> new EntityNotFoundException("Raw material not found with SKU: " + skuCode));
+        return withPendingDelta(rawMaterial);
+    }
+
+    private RawMaterialResponseDTO withPendingDelta(RawMaterial rawMaterial) {
+        // overlay adjustments still waiting in the write-behind buffer so scanners read their own writes
+        RawMaterialResponseDTO dto = RawMaterialResponseDTO.fromEntity(rawMaterial);
+        long pendingDelta = stockDeltaBuffer.pendingDelta(rawMaterial.getId());
+        return pendingDelta == 0 ? dto
+                : new RawMaterialResponseDTO(dto.id(), dto.materialName(), dto.skuCode(), (int) (dto.stock() + pendingDelta));
+    }
+
+    public StockDeltaResponseDTO recordStockDelta(Long id, int delta) {
+        if (delta == 0) {
+            throw new IllegalArgumentException("delta must not be zero");
+        }
+        // existence is checked against the resident catalog so ingestion never touches the database
+        if (catalogIndex.snapshot().materialSlot(id) < 0) {
+            throw new EntityNotFoundException("Raw material not found with ID: " + id);
+        }
+        long pendingDelta = stockDeltaBuffer.add(id, delta);
+        return new StockDeltaResponseDTO(id, pendingDelta, stockDeltaBuffer.rejectedDeltaCount(id));
     }
 
     @Transactional
     public RawMaterialResponseDTO createRawMaterial(RawMaterialRequestDTO rawMaterialDTO) {
         RawMaterial rawMaterial = new RawMaterial();
         dtoToEntity(rawMaterialDTO, rawMaterial);
-        return RawMaterialResponseDTO.fromEntity(rawMaterialRepository.save(rawMaterial));
+        RawMaterial saved = rawMaterialRepository.save(rawMaterial);
+        AfterCommit.run(() -> {
+            catalogIndex.upsertMaterial(saved);
+            catalogVersion.bump();
+        });
+        return RawMaterialResponseDTO.fromEntity(saved);
 
     }
 
     @Transactional
     public RawMaterialResponseDTO updateRawMaterial(RawMaterialRequestDTO rawMaterialDTO, Long id) {
-        RawMaterial rawMaterial = rawMaterialRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
+        RawMaterial rawMaterial = rawMaterialRepository.lockById(id).orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
+        boolean renamed = !rawMaterial.getName().equals(rawMaterialDTO.materialName());
+        int stockDelta = rawMaterialDTO.stock() - rawMaterial.getStock();
         dtoToEntity(rawMaterialDTO, rawMaterial);
-        return RawMaterialResponseDTO.fromEntity(rawMaterialRepository.save(rawMaterial));
+        RawMaterial saved = rawMaterialRepository.save(rawMaterial);
+        if (renamed) {
+            // product listings show material names; stock changes leave the summaries alone
+            productSummaryStore.refreshMaterials(List.of(id));
+        }
+        // applied as a delta, like orders and delta flushes: their callbacks may run out of commit order
+        AfterCommit.run(() -> {
+            if (stockDelta != 0) {
+                catalogIndex.adjustStock(Map.of(id, stockDelta));
+            }
+            catalogVersion.bump();
+        });
+        return RawMaterialResponseDTO.fromEntity(saved);
     }
 
     @Transactional
     public void deleteRawMaterial(Long id) {
         RawMaterial rawMaterial = rawMaterialRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
         rawMaterialRepository.delete(rawMaterial);
+        AfterCommit.run(() -> {
+            catalogIndex.removeMaterial(id);
+            catalogVersion.bump();
+        });
     }
 
     private void dtoToEntity(RawMaterialRequestDTO rawMaterialDTO, RawMaterial rawMaterial) {
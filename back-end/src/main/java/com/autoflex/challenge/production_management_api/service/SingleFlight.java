@@ -0,0 +1,74 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time. Callers arriving while a computation for their key
+ * is in flight wait for it and share its result (or its exception) instead of starting their own.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    V execute(K key, Supplier<V> computation) {
+        return execute(key, computation, Deadline.none());
+    }
+
+    /**
+     * Like {@link #execute(Object, Supplier)}, but a caller that joins another's computation waits no longer
+     * than its own deadline and then gets {@code null}.
+     */
+    V execute(K key, Supplier<V> computation, Deadline deadline) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader, deadline);
+        }
+        try {
+            V value = computation.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Number of calls that were served by another caller's computation. */
+    long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> future, Deadline deadline) {
+        try {
+            return deadline.isBounded()
+                    ? future.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+                    : future.join();
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared computation", e);
+        } catch (CompletionException | ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
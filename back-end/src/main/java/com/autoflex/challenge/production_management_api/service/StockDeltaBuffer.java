@@ -0,0 +1,161 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind accumulator for high-frequency stock adjustments. Deltas for the same material are
+ * merged in memory (ConcurrentHashMap locks per bin, so unrelated materials never contend) and
+ * written as one conditional UPDATE per material every {@code max-delay-ms}, or as soon as
+ * {@code max-pending} adjustments are waiting; either way the write runs on the scheduler, never on
+ * the caller's thread. Those two settings bound what a crash can lose. A delta stays in the pending
+ * overlay until the batch holding it commits, so a read never misses it in between.
+ * A flush updates the rows in id order, the same order production orders lock them in, so the two
+ * never deadlock. A delta the database refuses is dropped and counted against its material, since
+ * the caller was already answered with a 202.
+ */
+@Component
+public class StockDeltaBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(StockDeltaBuffer.class);
+
+    private final RawMaterialRepository rawMaterialRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final CatalogIndex catalogIndex;
+    private final CatalogVersion catalogVersion;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingAdjustments = new AtomicInteger();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final LongAdder rejectedDeltas = new LongAdder();
+    private final ConcurrentHashMap<Long, LongAdder> rejectedByMaterial = new ConcurrentHashMap<>();
+
+    public StockDeltaBuffer(RawMaterialRepository rawMaterialRepository, TransactionTemplate transactionTemplate,
+                            TaskScheduler taskScheduler, CatalogIndex catalogIndex, CatalogVersion catalogVersion,
+                            @Value("${app.stock-deltas.max-pending:1000}") int maxPending) {
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.catalogIndex = catalogIndex;
+        this.catalogVersion = catalogVersion;
+        this.maxPending = maxPending;
+    }
+
+    /** Buffers a delta and returns the material's merged pending delta. */
+    public long add(Long rawMaterialId, int delta) {
+        long merged = pending.merge(rawMaterialId, (long) delta, Long::sum);
+        // a full buffer brings the next flush forward; the caller never waits on the database
+        if (pendingAdjustments.incrementAndGet() >= maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            try {
+                taskScheduler.schedule(this::flush, Instant.now());
+            } catch (TaskRejectedException e) {
+                // shutting down: flushOnShutdown writes what is left
+                earlyFlushScheduled.set(false);
+            }
+        }
+        return merged;
+    }
+
+    public long pendingDelta(Long rawMaterialId) {
+        return pending.getOrDefault(rawMaterialId, 0L);
+    }
+
+    /** Adjustments accepted since the last flush. */
+    public int pendingAdjustmentCount() {
+        return pendingAdjustments.get();
+    }
+
+    /** Deltas dropped at flush time because the material was gone or the stock would leave the int range or turn negative. */
+    public long rejectedDeltaCount() {
+        return rejectedDeltas.sum();
+    }
+
+    /** Flushed deltas of this material that were dropped, since startup. */
+    public long rejectedDeltaCount(Long rawMaterialId) {
+        LongAdder rejected = rejectedByMaterial.get(rawMaterialId);
+        return rejected == null ? 0 : rejected.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-deltas.max-delay-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void drainAndWrite() {
+        earlyFlushScheduled.set(false);
+        pendingAdjustments.set(0);
+        // the batch is copied, not removed: its deltas stay visible to pendingDelta until they are committed
+        Map<Long, Long> batch = new TreeMap<>();
+        pending.forEach((id, delta) -> {
+            if (delta != 0) {
+                batch.put(id, delta);
+            }
+        });
+        pending.values().removeIf(delta -> delta == 0);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> applied;
+        try {
+            applied = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            // still in pending for the next attempt, so no acknowledged adjustment is lost
+            log.warn("Stock delta flush failed, {} materials kept for retry", batch.size(), e);
+            return;
+        }
+        // committed or dropped: take the batch out, keeping whatever was added since it was copied
+        batch.forEach((id, delta) -> pending.computeIfPresent(id,
+                (key, current) -> current - delta == 0 ? null : current - delta));
+        if (applied != null && !applied.isEmpty()) {
+            catalogIndex.adjustStock(applied);
+            catalogVersion.bump();
+        }
+    }
+
+    private Map<Long, Integer> write(Map<Long, Long> batch) {
+        Map<Long, Integer> applied = new HashMap<>();
+        batch.forEach((id, total) -> {
+            boolean fits = total >= Integer.MIN_VALUE && total <= Integer.MAX_VALUE;
+            if (fits && rawMaterialRepository.applyStockDelta(id, total.intValue()) == 1) {
+                applied.put(id, total.intValue());
+            } else {
+                rejectedDeltas.increment();
+                rejectedByMaterial.computeIfAbsent(id, key -> new LongAdder()).increment();
+                log.warn("Dropped stock delta {} for raw material {}: material missing or stock out of range", total, id);
+            }
+        });
+        return applied;
+    }
+}
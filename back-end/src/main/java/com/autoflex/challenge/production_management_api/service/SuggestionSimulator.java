@@ -0,0 +1,115 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.StockScenarioDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ScenarioSuggestionDTO;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs the suggestion planner against hypothetical stock. Each scenario plans over a private copy of the
+ * resident snapshot's stock, so nothing is written and concurrent production orders are neither seen
+ * mid-way nor disturbed. Batches, and the per-site plans of {@link WarehouseService}, fan out on a dedicated
+ * ForkJoin pool.
+ */
+@Service
+public class SuggestionSimulator {
+
+    private final CatalogIndex catalogIndex;
+    private final ProductionPlanner productionPlanner;
+    private final ForkJoinPool pool;
+
+    public SuggestionSimulator(CatalogIndex catalogIndex, ProductionPlanner productionPlanner,
+                               @Value("${app.simulation.parallelism:0}") int parallelism) {
+        this.catalogIndex = catalogIndex;
+        this.productionPlanner = productionPlanner;
+        // 0 means one worker per core
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public ProductSuggestionResponse simulate(StockScenarioDTO scenario) {
+        CatalogIndex.Snapshot catalog = findCatalog();
+        return productionPlanner.plan(catalog, scenarioStock(catalog, scenario));
+    }
+
+    public List<ScenarioSuggestionDTO> simulateAll(List<StockScenarioDTO> scenarios) {
+        // one snapshot for the whole batch, so every scenario is compared against the same inventory
+        CatalogIndex.Snapshot catalog = findCatalog();
+        // build every stock vector first: an invalid scenario rejects the batch before any work is queued
+        List<int[]> stocks = scenarios.stream().map(scenario -> scenarioStock(catalog, scenario)).toList();
+
+        List<ProductSuggestionResponse> plans = planAll(catalog, stocks, Deadline.none());
+        List<ScenarioSuggestionDTO> results = new ArrayList<>(plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            String name = scenarios.get(i).name() != null ? scenarios.get(i).name() : "scenario-" + (i + 1);
+            results.add(new ScenarioSuggestionDTO(name, plans.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Plans every stock vector against the same read-only snapshot, in parallel; results keep the input order.
+     * Each plan stops at the deadline on its own, so a plan that starts late comes back partial instead of
+     * holding up the others.
+     */
+    List<ProductSuggestionResponse> planAll(CatalogIndex.Snapshot catalog, List<int[]> stocks, Deadline deadline) {
+        List<ForkJoinTask<ProductSuggestionResponse>> tasks = new ArrayList<>(stocks.size());
+        for (int[] stock : stocks) {
+            tasks.add(pool.submit(() -> productionPlanner.plan(catalog, stock, deadline)));
+        }
+        List<ProductSuggestionResponse> plans = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<ProductSuggestionResponse> task : tasks) {
+            plans.add(task.join());
+        }
+        return plans;
+    }
+
+    static int[] scenarioStock(CatalogIndex.Snapshot catalog, StockScenarioDTO scenario) {
+        int[] stock = catalog.copyStock();
+        if (scenario.stockOverrides() != null) {
+            for (Map.Entry<Long, Integer> override : scenario.stockOverrides().entrySet()) {
+                stock[slot(catalog, override.getKey())] = override.getValue();
+            }
+        }
+        if (scenario.stockDeltas() != null) {
+            for (Map.Entry<Long, Integer> delta : scenario.stockDeltas().entrySet()) {
+                int slot = slot(catalog, delta.getKey());
+                long simulated = (long) stock[slot] + delta.getValue();
+                if (simulated < 0 || simulated > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Simulated stock of raw material " + delta.getKey() + " is out of range: " + simulated);
+                }
+                stock[slot] = (int) simulated;
+            }
+        }
+        return stock;
+    }
+
+    private static int slot(CatalogIndex.Snapshot catalog, Long materialId) {
+        int slot = catalog.materialSlot(materialId);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Unknown raw material ID: " + materialId);
+        }
+        return slot;
+    }
+
+    private CatalogIndex.Snapshot findCatalog() {
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        if (catalog.productCount() == 0) {
+            throw new EntityNotFoundException("No products found");
+        }
+        return catalog;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.request.WarehouseRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.SiteStockRow;
+import com.autoflex.challenge.production_management_api.dto.response.SiteSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.SiteSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.WarehouseResponseDTO;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.entity.Warehouse;
+import com.autoflex.challenge.production_management_api.entity.WarehouseStock;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import com.autoflex.challenge.production_management_api.repository.WarehouseRepository;
+import com.autoflex.challenge.production_management_api.repository.WarehouseStockRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sites and their stock. Each site keeps its own stock row per raw material, independent of the global
+ * {@code RawMaterial.stock}. Per-site plans share one resident catalog snapshot, so the BOMs are read once
+ * whatever the number of sites; only the site stock is loaded, in a single query, per request.
+ */
+@Service
+public class WarehouseService {
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final CatalogIndex catalogIndex;
+    private final SuggestionSimulator suggestionSimulator;
+    private final PlanningExecutor planningExecutor;
+
+    public WarehouseService(WarehouseRepository warehouseRepository, WarehouseStockRepository warehouseStockRepository,
+                            RawMaterialRepository rawMaterialRepository, CatalogIndex catalogIndex,
+                            SuggestionSimulator suggestionSimulator, PlanningExecutor planningExecutor) {
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.catalogIndex = catalogIndex;
+        this.suggestionSimulator = suggestionSimulator;
+        this.planningExecutor = planningExecutor;
+    }
+
+    public List<WarehouseResponseDTO> getAllWarehouses() {
+        return warehouseRepository.findAllByOrderByIdAsc().stream().map(WarehouseResponseDTO::fromEntity).toList();
+    }
+
+    @Transactional
+    public WarehouseResponseDTO createWarehouse(WarehouseRequestDTO dto) {
+        if (warehouseRepository.existsByCode(dto.code())) {
+            throw new IllegalArgumentException("Warehouse already exists with code: " + dto.code());
+        }
+        Warehouse warehouse = new Warehouse();
+        warehouse.setCode(dto.code());
+        warehouse.setName(dto.name());
+        return WarehouseResponseDTO.fromEntity(warehouseRepository.save(warehouse));
+    }
+
+    public List<SiteStockRow> getSiteStock(Long warehouseId) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new EntityNotFoundException("Warehouse not found with ID: " + warehouseId);
+        }
+        return warehouseStockRepository.findStockRowsByWarehouseId(warehouseId);
+    }
+
+    /** Sets the stock of one raw material at one site, creating the row on first use. */
+    @Transactional
+    public SiteStockRow setSiteStock(Long warehouseId, Long rawMaterialId, int stock) {
+        WarehouseStock row = warehouseStockRepository.findByWarehouseIdAndRawMaterialId(warehouseId, rawMaterialId)
+                .orElse(null);
+        if (row == null) {
+            Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                    .orElseThrow(() -> new EntityNotFoundException("Warehouse not found with ID: " + warehouseId));
+            RawMaterial rawMaterial = rawMaterialRepository.findById(rawMaterialId)
+                    .orElseThrow(() -> new EntityNotFoundException("Material not found with ID: " + rawMaterialId));
+            row = warehouseStockRepository.save(new WarehouseStock(null, warehouse, rawMaterial, stock));
+        } else {
+            row.setStock(stock);
+        }
+        return new SiteStockRow(warehouseId, rawMaterialId, stock);
+    }
+
+    /** Plans every site independently and in parallel, each against its own stock, and adds the plans up. */
+    public SiteSuggestionResponse getSiteSuggestions(Deadline deadline) {
+        List<Warehouse> sites = warehouseRepository.findAllByOrderByIdAsc();
+        if (sites.isEmpty()) {
+            throw new EntityNotFoundException("No warehouses found");
+        }
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        if (catalog.productCount() == 0) {
+            throw new EntityNotFoundException("No products found");
+        }
+        List<int[]> stocks = siteStocks(catalog, sites);
+        List<ProductSuggestionResponse> plans = planningExecutor.call(
+                () -> suggestionSimulator.planAll(catalog, stocks, deadline), deadline);
+
+        List<SiteSuggestionDTO> results = new ArrayList<>(sites.size());
+        double totalValue = 0;
+        boolean partial = false;
+        for (int i = 0; i < sites.size(); i++) {
+            results.add(new SiteSuggestionDTO(sites.get(i).getId(), sites.get(i).getCode(), plans.get(i)));
+            totalValue += plans.get(i).totalValue();
+            partial |= plans.get(i).partial();
+        }
+        return new SiteSuggestionResponse(results, totals(catalog, plans), totalValue, partial);
+    }
+
+    // one stock vector per site over the snapshot's material slots; materials without a row stay at zero
+    private List<int[]> siteStocks(CatalogIndex.Snapshot catalog, List<Warehouse> sites) {
+        Map<Long, int[]> bySite = new HashMap<>();
+        List<int[]> stocks = new ArrayList<>(sites.size());
+        for (Warehouse site : sites) {
+            int[] stock = new int[catalog.materialSlotCount];
+            bySite.put(site.getId(), stock);
+            stocks.add(stock);
+        }
+        for (SiteStockRow row : warehouseStockRepository.findAllStockRows()) {
+            int[] stock = bySite.get(row.warehouseId());
+            int slot = catalog.materialSlot(row.rawMaterialId());
+            // a site or material created after the reads above is left for the next request
+            if (stock != null && slot >= 0) {
+                stock[slot] = row.stock();
+            }
+        }
+        return stocks;
+    }
+
+    // units and value per product over all sites, in the catalog's planning order; keyed by id, as names may repeat
+    private static List<ProductSuggestionDTO> totals(CatalogIndex.Snapshot catalog, List<ProductSuggestionResponse> plans) {
+        Map<Long, int[]> units = new HashMap<>();
+        Map<Long, Double> values = new HashMap<>();
+        for (ProductSuggestionResponse plan : plans) {
+            for (ProductSuggestionDTO row : plan.suggestions()) {
+                units.computeIfAbsent(row.productId(), id -> new int[1])[0] += row.quantityProduced();
+                values.merge(row.productId(), row.subtotal(), Double::sum);
+            }
+        }
+        List<ProductSuggestionDTO> totals = new ArrayList<>(units.size());
+        for (int p : catalog.order) {
+            long productId = catalog.productIds[p];
+            int[] produced = units.get(productId);
+            if (produced != null) {
+                totals.add(new ProductSuggestionDTO(productId, catalog.productNames[p], produced[0], values.get(productId)));
+            }
+        }
+        return totals;
+    }
+}
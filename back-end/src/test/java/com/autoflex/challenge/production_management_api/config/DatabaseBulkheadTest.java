@@ -0,0 +1,142 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import com.autoflex.challenge.production_management_api.exceptions.BulkheadFullException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DatabaseBulkheadTest {
+
+    // ── DatabaseBulkhead ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("forPoolSize - should split the connection pool between reads and writes")
+    void forPoolSize_split() {
+        DatabaseBulkhead bulkhead = DatabaseBulkhead.forPoolSize(10, 0);
+
+        assertThat(bulkhead.availableReadPermits()).isEqualTo(7);
+        assertThat(bulkhead.availableWritePermits()).isEqualTo(3);
+        assertThat(DatabaseBulkhead.forPoolSize(1, 0).availableWritePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("acquire - should keep write permits available while reads are exhausted")
+    void acquire_separatePools() {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 1, 0);
+
+        Semaphore read = bulkhead.acquire(true);
+
+        assertThatThrownBy(() -> bulkhead.acquire(true)).isInstanceOf(BulkheadFullException.class);
+        Semaphore write = bulkhead.acquire(false);
+        bulkhead.release(read);
+        bulkhead.release(write);
+        assertThat(bulkhead.availableReadPermits()).isEqualTo(1);
+        assertThat(bulkhead.availableWritePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("acquire - should wait for a permit released by another request")
+    void acquire_waits() throws Exception {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 1, 5_000);
+        Semaphore held = bulkhead.acquire(false);
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            bulkhead.release(held);
+        });
+        releaser.start();
+
+        assertThatCode(() -> bulkhead.release(bulkhead.acquire(false))).doesNotThrowAnyException();
+        releaser.join();
+    }
+
+    // ── BulkheadInterceptor ──────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("interceptor - should hold a read permit for GET until the request completes")
+    void interceptor_readPermit() {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(2, 1, 0);
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        assertThat(bulkhead.availableReadPermits()).isEqualTo(1);
+        assertThat(bulkhead.availableWritePermits()).isEqualTo(1);
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertThat(bulkhead.availableReadPermits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("interceptor - should reject writes once the write pool is exhausted")
+    void interceptor_writeRejected() {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 1, 0);
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/products"), response, new Object());
+
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest("DELETE", "/api/products/1"), response, new Object()))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(bulkhead.availableReadPermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("interceptor - should not take a permit for handlers that never use the database")
+    void interceptor_exempt() throws Exception {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 1, 0);
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        bulkhead.acquire(true);
+        bulkhead.acquire(false);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products/suggestions/simulate");
+        HandlerMethod simulate = handler("simulate");
+
+        assertThatCode(() -> interceptor.preHandle(request, response, simulate)).doesNotThrowAnyException();
+        interceptor.afterCompletion(request, response, simulate, null);
+        assertThat(bulkhead.availableReadPermits()).isZero();
+        assertThat(bulkhead.availableWritePermits()).isZero();
+    }
+
+    @Test
+    @DisplayName("interceptor - should draw from the pool the handler declares rather than the HTTP method's")
+    void interceptor_declaredPool() throws Exception {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, 1, 0);
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products/search");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler("search"));
+
+        assertThat(bulkhead.availableReadPermits()).isZero();
+        assertThat(bulkhead.availableWritePermits()).isEqualTo(1);
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getDeclaredMethod(name));
+    }
+
+    static class Handlers {
+
+        @DatabaseAccess(DatabaseAccess.Mode.NONE)
+        void simulate() {
+        }
+
+        @DatabaseAccess(DatabaseAccess.Mode.READ)
+        void search() {
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.autoflex.challenge.production_management_api.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class QueryBudgetFilterTest {
+
+    private final QueryLoggingListener listener = new QueryLoggingListener(1_000);
+
+    @AfterEach
+    void tearDown() {
+        QueryCounter.stop();
+    }
+
+    @Test
+    @DisplayName("QueryCounter - should only count statements inside an open scope")
+    void counter_scoped() {
+        execute(5);
+        QueryCounter.Stats stats = QueryCounter.start();
+        execute(5);
+        execute(7);
+        QueryCounter.stop();
+        execute(5);
+
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(stats.elapsedMillis()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("QueryBudgetFilter - should count the request's statements and close the scope afterwards")
+    void filter_scopesRequest() throws Exception {
+        QueryCounter.Stats[] seen = new QueryCounter.Stats[1];
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                seen[0] = QueryCounter.current();
+                execute(1);
+                execute(1);
+            }
+        });
+
+        new QueryBudgetFilter(1).doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(), chain);
+
+        assertThat(seen[0].statements()).isEqualTo(2);
+        assertThat(QueryCounter.current()).isNull();
+    }
+
+    private void execute(long elapsedMillis) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMillis);
+        listener.afterQuery(info, List.of());
+    }
+}
@@ -0,0 +1,60 @@
+package com.autoflex.challenge.production_management_api.controller;
+
+import com.autoflex.challenge.production_management_api.exceptions.GlobalExceptionHandler;
+import com.autoflex.challenge.production_management_api.service.ChangeFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @InjectMocks
+    private EventController eventController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(eventController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    // ── GET /api/events ──────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET /api/events - should open an event stream")
+    void subscribe_stream() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(changeFeed.subscribe()).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().id("7").name("ready").data("{\"version\":7}", MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:ready")));
+    }
+}
@@ -3,11 +3,28 @@ package com.autoflex.challenge.production_management_api.controller;
 import com.autoflex.challenge.production_management_api.dto.request.MaterialItemRequest;
 import com.autoflex.challenge.production_management_api.dto.request.ProductRequestDTO;
 import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.request.StockScenarioDTO;
+import com.autoflex.challenge.production_management_api.dto.response.BomLineRow;
+import com.autoflex.challenge.production_management_api.dto.response.BulkProductResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentSummaryDTO;
+import com.autoflex.challenge.production_management_api.dto.response.CursorPageResponse;
 import com.autoflex.challenge.production_management_api.dto.response.MaterialSummaryDTO;
+import com.autoflex.challenge.production_management_api.dto.response.OptimalSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ProductBomResponse;
 import com.autoflex.challenge.production_management_api.dto.response.ProductResponseDTO;
 import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.RejectedRowDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ScenarioSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.SiteSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.SiteSuggestionResponse;
 import com.autoflex.challenge.production_management_api.exceptions.GlobalExceptionHandler;
+import com.autoflex.challenge.production_management_api.exceptions.PlanningOverloadedException;
+import com.autoflex.challenge.production_management_api.service.Deadline;
+import com.autoflex.challenge.production_management_api.service.ProcurementService;
+import com.autoflex.challenge.production_management_api.service.ProductBulkService;
 import com.autoflex.challenge.production_management_api.service.ProductService;
+import com.autoflex.challenge.production_management_api.service.SuggestionSimulator;
+import com.autoflex.challenge.production_management_api.service.WarehouseService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,11 +36,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +61,18 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductBulkService productBulkService;
+
+    @Mock
+    private SuggestionSimulator suggestionSimulator;
+
+    @Mock
+    private ProcurementService procurementService;
+
+    @Mock
+    private WarehouseService warehouseService;
+
     @InjectMocks
     private ProductController productController;
 
@@ -75,6 +110,27 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].productValue").value(150.0));
     }
 
+    @Test
+    @DisplayName("GET /api/products?limit= - should return 200 with a page and no cursor on the last page")
+    void getAllProducts_page() throws Exception {
+        when(productService.getProductPage(null, 20))
+                .thenReturn(CursorPageResponse.fromData(List.of(productResponseDTO), null));
+
+        mockMvc.perform(get("/api/products").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].productName").value("Widget A"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/products?limit=0 - should return 400")
+    void getAllProducts_invalidLimit() throws Exception {
+        when(productService.getProductPage(null, 0)).thenThrow(new IllegalArgumentException("limit must be at least 1"));
+
+        mockMvc.perform(get("/api/products").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     // ── GET /api/products/{id} ───────────────────────────────────────────────
 
     @Test
@@ -97,23 +153,287 @@ class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/products/sku/{skuCode} - should return 200 with product")
+    void getProductBySku_success() throws Exception {
+        when(productService.getProductBySku("WGT-001")).thenReturn(productResponseDTO);
+
+        mockMvc.perform(get("/api/products/sku/WGT-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productName").value("Widget A"));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/{id}/bom - should return components and flattened raw materials")
+    void getProductBom_success() throws Exception {
+        when(productService.getProductBom(2L)).thenReturn(new ProductBomResponse(2L, "Frame",
+                List.of(new ComponentSummaryDTO(1L, "Widget A", 2)), List.of(new BomLineRow(1L, "Steel", 25))));
+
+        mockMvc.perform(get("/api/products/2/bom"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.components[0].componentProductId").value(1))
+                .andExpect(jsonPath("$.components[0].requiredQuantity").value(2))
+                .andExpect(jsonPath("$.rawMaterials[0].requiredQuantity").value(25));
+    }
+
     // ── GET /api/products/suggestions ───────────────────────────────────────
 
     @Test
     @DisplayName("GET /api/products/suggestions - should return 200 with suggestions")
     void getProductSuggestions_success() throws Exception {
         ProductSuggestionResponse response = ProductSuggestionResponse.fromData(
-                List.of(new ProductSuggestionDTO("Widget A", 10, 1500.0)), 1500.0
+                List.of(new ProductSuggestionDTO(1L, "Widget A", 10, 1500.0)), 1500.0
         );
-        when(productService.getProductSuggestion()).thenReturn(response);
+        when(productService.getProductSuggestion(any())).thenReturn(response);
 
         mockMvc.perform(get("/api/products/suggestions"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalValue").value(1500.0))
+                .andExpect(jsonPath("$.suggestions[0].productId").value(1))
                 .andExpect(jsonPath("$.suggestions[0].productName").value("Widget A"))
                 .andExpect(jsonPath("$.suggestions[0].quantityProduced").value(10));
     }
 
+    @Test
+    @DisplayName("GET /api/products/suggestions - should tag the plan with the catalog version")
+    void getProductSuggestions_eTag() throws Exception {
+        ProductSuggestionResponse response = ProductSuggestionResponse.fromData(
+                List.of(new ProductSuggestionDTO(1L, "Widget A", 10, 1500.0)), 1500.0
+        );
+        when(productService.getCatalogVersion()).thenReturn(7L);
+        when(productService.getProductSuggestion(any())).thenReturn(response);
+
+        mockMvc.perform(get("/api/products/suggestions"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"catalog-7\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions - should return 304 when If-None-Match matches the catalog version")
+    void getProductSuggestions_notModified() throws Exception {
+        when(productService.getCatalogVersion()).thenReturn(7L);
+
+        mockMvc.perform(get("/api/products/suggestions").header("If-None-Match", "\"catalog-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(productService, never()).getProductSuggestion(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions?timeoutMs - should return a partial plan untagged and uncacheable")
+    void getProductSuggestions_partial() throws Exception {
+        ProductSuggestionResponse response = new ProductSuggestionResponse(
+                List.of(new ProductSuggestionDTO(1L, "Widget A", 10, 1500.0)), 1500.0, true
+        );
+        when(productService.getCatalogVersion()).thenReturn(7L);
+        when(productService.getProductSuggestion(argThat(Deadline::isBounded))).thenReturn(response);
+
+        mockMvc.perform(get("/api/products/suggestions").param("timeoutMs", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partial").value(true))
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions - should take the deadline from the timeout header")
+    void getProductSuggestions_timeoutHeader() throws Exception {
+        ProductSuggestionResponse response = ProductSuggestionResponse.fromData(List.of(), 0.0);
+        when(productService.getCatalogVersion()).thenReturn(7L);
+        when(productService.getProductSuggestion(argThat(Deadline::isBounded))).thenReturn(response);
+
+        mockMvc.perform(get("/api/products/suggestions").header("X-Timeout-Ms", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partial").value(false))
+                .andExpect(header().string("ETag", "\"catalog-7\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions - should return 503 with Retry-After when planning is overloaded")
+    void getProductSuggestions_overloaded() throws Exception {
+        when(productService.getCatalogVersion()).thenReturn(7L);
+        when(productService.getProductSuggestion(any()))
+                .thenThrow(new PlanningOverloadedException("Planning queue is full, please retry shortly", 2));
+
+        mockMvc.perform(get("/api/products/suggestions"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions - should return 400 for a negative timeout")
+    void getProductSuggestions_negativeTimeout() throws Exception {
+        mockMvc.perform(get("/api/products/suggestions").param("timeoutMs", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions?bySite=true - should return 200 with one plan per site and the totals")
+    void getProductSuggestions_bySite() throws Exception {
+        ProductSuggestionResponse north = ProductSuggestionResponse.fromData(
+                List.of(new ProductSuggestionDTO(1L, "Widget A", 10, 1500.0)), 1500.0);
+        when(warehouseService.getSiteSuggestions(any())).thenReturn(new SiteSuggestionResponse(
+                List.of(new SiteSuggestionDTO(10L, "NORTH", north)), north.suggestions(), 1500.0, false));
+
+        mockMvc.perform(get("/api/products/suggestions").param("bySite", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sites[0].warehouseCode").value("NORTH"))
+                .andExpect(jsonPath("$.sites[0].suggestion.totalValue").value(1500.0))
+                .andExpect(jsonPath("$.totals[0].quantityProduced").value(10))
+                .andExpect(jsonPath("$.totalValue").value(1500.0))
+                .andExpect(handler().methodName("getSiteSuggestions"));
+        verify(productService, never()).getProductSuggestion(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions?bySite=true&mode=optimal - should return 400")
+    void getProductSuggestions_bySiteOptimal() throws Exception {
+        mockMvc.perform(get("/api/products/suggestions").param("bySite", "true").param("mode", "optimal"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(warehouseService);
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions?mode=optimal - should return 200 with optimal plan and gap")
+    void getProductSuggestions_optimal() throws Exception {
+        OptimalSuggestionResponse response = OptimalSuggestionResponse.fromData(
+                List.of(new ProductSuggestionDTO(1L, "Widget A", 10, 1500.0)), 1500.0, 1600.0, false
+        );
+        when(productService.getOptimalProductSuggestion(eq(500L), any())).thenReturn(response);
+
+        mockMvc.perform(get("/api/products/suggestions").param("mode", "optimal").param("budgetMs", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalValue").value(1500.0))
+                .andExpect(jsonPath("$.upperBound").value(1600.0))
+                .andExpect(jsonPath("$.optimalityGap").value(0.0625))
+                .andExpect(jsonPath("$.optimal").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /api/products/suggestions - should return 400 for an unknown mode")
+    void getProductSuggestions_unknownMode() throws Exception {
+        mockMvc.perform(get("/api/products/suggestions").param("mode", "fastest"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ── POST /api/products/bulk ──────────────────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/products/bulk - should return 201 with created ids and rejected rows")
+    void createProducts_bulk() throws Exception {
+        when(productBulkService.createProducts(anyList())).thenReturn(BulkProductResponse.fromData(
+                List.of(1L), List.of(new RejectedRowDTO(1, "WGT-001", List.of("skuCode: Duplicate SKU in request: WGT-001")))));
+
+        mockMvc.perform(post("/api/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(productRequestDTO, productRequestDTO))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount").value(1))
+                .andExpect(jsonPath("$.rejected[0].index").value(1))
+                .andExpect(jsonPath("$.rejected[0].errors[0]").value("skuCode: Duplicate SKU in request: WGT-001"));
+    }
+
+    @Test
+    @DisplayName("POST /api/products/bulk - should return 400 when no row was created")
+    void createProducts_bulkAllRejected() throws Exception {
+        when(productBulkService.createProducts(anyList())).thenReturn(BulkProductResponse.fromData(
+                List.of(), List.of(new RejectedRowDTO(0, "WGT-001", List.of("materialsRequired: Material not found with ID: 1")))));
+
+        mockMvc.perform(post("/api/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(productRequestDTO))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.createdCount").value(0));
+    }
+
+    // ── POST /api/products/suggestions/simulate ─────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/products/suggestions/simulate - should return 200 with the simulated plan")
+    void simulateSuggestion_success() throws Exception {
+        ProductSuggestionResponse response = ProductSuggestionResponse.fromData(
+                List.of(new ProductSuggestionDTO(1L, "Widget A", 20, 3000.0)), 3000.0);
+        when(suggestionSimulator.simulate(new StockScenarioDTO(null, Map.of(1L, 200), null))).thenReturn(response);
+
+        mockMvc.perform(post("/api/products/suggestions/simulate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockOverrides\":{\"1\":200}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[0].quantityProduced").value(20))
+                .andExpect(jsonPath("$.totalValue").value(3000.0));
+    }
+
+    @Test
+    @DisplayName("POST /api/products/suggestions/simulate - should return 400 for a negative override")
+    void simulateSuggestion_negativeOverride() throws Exception {
+        mockMvc.perform(post("/api/products/suggestions/simulate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockOverrides\":{\"1\":-5}}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(suggestionSimulator);
+    }
+
+    @Test
+    @DisplayName("POST /api/products/suggestions/simulate/batch - should return 200 with one plan per scenario")
+    void simulateSuggestions_batch() throws Exception {
+        when(suggestionSimulator.simulateAll(anyList())).thenReturn(List.of(
+                new ScenarioSuggestionDTO("buy steel", ProductSuggestionResponse.fromData(List.of(), 0.0))));
+
+        mockMvc.perform(post("/api/products/suggestions/simulate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"scenarios\":[{\"name\":\"buy steel\",\"stockDeltas\":{\"1\":50}}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("buy steel"))
+                .andExpect(jsonPath("$[0].suggestion.totalValue").value(0.0));
+    }
+
+    @Test
+    @DisplayName("POST /api/products/suggestions/simulate/batch - should return 400 without scenarios")
+    void simulateSuggestions_empty() throws Exception {
+        mockMvc.perform(post("/api/products/suggestions/simulate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"scenarios\":[]}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(suggestionSimulator);
+    }
+
+    // ── POST /api/products/requirements ─────────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/products/requirements - should stream the aggregated requirements")
+    void calculateRequirements_success() throws Exception {
+        ProcurementService.Requirements requirements =
+                new ProcurementService.Requirements(null, 1, 1, new int[0], new long[0], new int[0], 0);
+        when(procurementService.calculate(any())).thenReturn(requirements);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("{\"lines\":1}".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(procurementService).write(eq(requirements), any());
+
+        MvcResult result = mockMvc.perform(post("/api/products/requirements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":1,\"quantity\":5}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.lines").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/products/requirements - should return 404 for an unknown product")
+    void calculateRequirements_unknownProduct() throws Exception {
+        when(procurementService.calculate(any())).thenThrow(new EntityNotFoundException("Product not found with ID: 99"));
+
+        mockMvc.perform(post("/api/products/requirements")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":99,\"quantity\":5}]"))
+                .andExpect(status().isNotFound());
+        verify(procurementService, never()).write(any(), any());
+    }
+
     // ── POST /api/products ───────────────────────────────────────────────────
 
     @Test
@@ -165,6 +485,31 @@ class ProductControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    // ── PATCH /api/products/{id}/materials/{rawMaterialId} ────────────────────
+
+    @Test
+    @DisplayName("PATCH /api/products/{id}/materials/{rawMaterialId} - should return 200 with the updated product")
+    void updateMaterialLine_success() throws Exception {
+        when(productService.updateMaterialLine(1L, 2L, 5)).thenReturn(productResponseDTO);
+
+        mockMvc.perform(patch("/api/products/1/materials/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requiredQuantity\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productName").value("Widget A"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/products/{id}/materials/{rawMaterialId} - should return 400 for a non-positive quantity")
+    void updateMaterialLine_invalidQuantity() throws Exception {
+        mockMvc.perform(patch("/api/products/1/materials/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requiredQuantity\":0}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+
     // ── DELETE /api/products/{id} ────────────────────────────────────────────
 
     @Test
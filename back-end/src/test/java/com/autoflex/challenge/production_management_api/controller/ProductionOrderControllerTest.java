@@ -0,0 +1,98 @@
+package com.autoflex.challenge.production_management_api.controller;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductionOrderRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialConsumptionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductionOrderResponseDTO;
+import com.autoflex.challenge.production_management_api.exceptions.GlobalExceptionHandler;
+import com.autoflex.challenge.production_management_api.exceptions.InsufficientStockException;
+import com.autoflex.challenge.production_management_api.service.ProductionOrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductionOrderControllerTest {
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private ProductionOrderService productionOrderService;
+
+    @InjectMocks
+    private ProductionOrderController productionOrderController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(productionOrderController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        objectMapper = new ObjectMapper();
+    }
+
+    // ── POST /api/production-orders ──────────────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/production-orders - should return 201 with consumed materials")
+    void createProductionOrder_success() throws Exception {
+        when(productionOrderService.createProductionOrder(any(ProductionOrderRequestDTO.class))).thenReturn(
+                new ProductionOrderResponseDTO(1L, 3, List.of(new MaterialConsumptionDTO(1L, "Steel", 12))));
+
+        mockMvc.perform(post("/api/production-orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ProductionOrderRequestDTO(1L, 3))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.materialsConsumed[0].materialName").value("Steel"))
+                .andExpect(jsonPath("$.materialsConsumed[0].quantityConsumed").value(12));
+    }
+
+    @Test
+    @DisplayName("POST /api/production-orders - should return 409 when stock is short")
+    void createProductionOrder_conflict() throws Exception {
+        when(productionOrderService.createProductionOrder(any(ProductionOrderRequestDTO.class)))
+                .thenThrow(new InsufficientStockException("Insufficient stock of Steel (ID: 1): 12 required"));
+
+        mockMvc.perform(post("/api/production-orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ProductionOrderRequestDTO(1L, 3))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /api/production-orders - should return 404 when product does not exist")
+    void createProductionOrder_notFound() throws Exception {
+        when(productionOrderService.createProductionOrder(any(ProductionOrderRequestDTO.class)))
+                .thenThrow(new EntityNotFoundException("Product not found with ID: 99"));
+
+        mockMvc.perform(post("/api/production-orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ProductionOrderRequestDTO(99L, 1))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/production-orders - should return 400 when quantity is not positive")
+    void createProductionOrder_invalid() throws Exception {
+        mockMvc.perform(post("/api/production-orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ProductionOrderRequestDTO(1L, 0))))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productionOrderService);
+    }
+}
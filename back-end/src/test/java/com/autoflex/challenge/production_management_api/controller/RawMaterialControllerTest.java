@@ -1,8 +1,13 @@
 package com.autoflex.challenge.production_management_api.controller;
 
 import com.autoflex.challenge.production_management_api.dto.request.RawMaterialRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.CursorPageResponse;
+import com.autoflex.challenge.production_management_api.dto.response.RawMaterialImportResponse;
 import com.autoflex.challenge.production_management_api.dto.response.RawMaterialResponseDTO;
+import com.autoflex.challenge.production_management_api.dto.response.StockDeltaResponseDTO;
 import com.autoflex.challenge.production_management_api.exceptions.GlobalExceptionHandler;
+import com.autoflex.challenge.production_management_api.service.ImportFormat;
+import com.autoflex.challenge.production_management_api.service.RawMaterialImportService;
 import com.autoflex.challenge.production_management_api.service.RawMaterialService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
@@ -17,6 +22,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +40,9 @@ class RawMaterialControllerTest {
     @Mock
     private RawMaterialService rawMaterialService;
 
+    @Mock
+    private RawMaterialImportService rawMaterialImportService;
+
     @InjectMocks
     private RawMaterialController rawMaterialController;
 
@@ -64,6 +73,19 @@ class RawMaterialControllerTest {
                 .andExpect(jsonPath("$[0].stock").value(50));
     }
 
+    @Test
+    @DisplayName("GET /api/raw-materials?after=&limit= - should return 200 with a page and next cursor")
+    void getAllRawMaterials_page() throws Exception {
+        when(rawMaterialService.getRawMaterialPage(10L, 1))
+                .thenReturn(CursorPageResponse.fromData(List.of(responseDTO), 1L));
+
+        mockMvc.perform(get("/api/raw-materials").param("after", "10").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].materialName").value("Steel"))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+        verify(rawMaterialService, never()).getAllRawMaterials();
+    }
+
     // ── GET /api/raw-materials/{id} ──────────────────────────────────────────
 
     @Test
@@ -87,6 +109,16 @@ class RawMaterialControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/raw-materials/sku/{skuCode} - should return 200 with raw material")
+    void getRawMaterialBySku_success() throws Exception {
+        when(rawMaterialService.getRawMaterialBySku("STL-001")).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/api/raw-materials/sku/STL-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
     // ── POST /api/raw-materials ──────────────────────────────────────────────
 
     @Test
@@ -112,6 +144,58 @@ class RawMaterialControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // ── POST /api/raw-materials/import ───────────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/raw-materials/import - should stream a CSV body and return the import summary")
+    void importRawMaterials_csv() throws Exception {
+        when(rawMaterialImportService.importRawMaterials(any(InputStream.class), eq(ImportFormat.CSV)))
+                .thenReturn(new RawMaterialImportResponse(2, 1, 1, 0, List.of()));
+
+        mockMvc.perform(post("/api/raw-materials/import")
+                        .contentType("text/csv")
+                        .content("materialName,skuCode,stock\nSteel,STL-001,50\nCopper,CPR-001,5\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/raw-materials/import - should return 415 for unsupported content types")
+    void importRawMaterials_unsupportedType() throws Exception {
+        mockMvc.perform(post("/api/raw-materials/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<materials/>"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(rawMaterialImportService);
+    }
+
+    // ── POST /api/raw-materials/{id}/stock-deltas ────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/raw-materials/{id}/stock-deltas - should return 202 with the pending delta")
+    void recordStockDelta_accepted() throws Exception {
+        when(rawMaterialService.recordStockDelta(1L, -4)).thenReturn(new StockDeltaResponseDTO(1L, -6L, 2L));
+
+        mockMvc.perform(post("/api/raw-materials/1/stock-deltas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\":-4}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.rawMaterialId").value(1))
+                .andExpect(jsonPath("$.pendingDelta").value(-6))
+                .andExpect(jsonPath("$.rejectedDeltas").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/raw-materials/{id}/stock-deltas - should return 400 without a delta")
+    void recordStockDelta_missingDelta() throws Exception {
+        mockMvc.perform(post("/api/raw-materials/1/stock-deltas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(rawMaterialService);
+    }
+
     // ── PUT /api/raw-materials/{id} ──────────────────────────────────────────
 
     @Test
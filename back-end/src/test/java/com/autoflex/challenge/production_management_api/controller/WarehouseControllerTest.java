@@ -0,0 +1,116 @@
+package com.autoflex.challenge.production_management_api.controller;
+
+import com.autoflex.challenge.production_management_api.dto.request.WarehouseRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.SiteStockRow;
+import com.autoflex.challenge.production_management_api.dto.response.WarehouseResponseDTO;
+import com.autoflex.challenge.production_management_api.exceptions.GlobalExceptionHandler;
+import com.autoflex.challenge.production_management_api.service.WarehouseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarehouseControllerTest {
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private WarehouseService warehouseService;
+
+    @InjectMocks
+    private WarehouseController warehouseController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(warehouseController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        objectMapper = new ObjectMapper();
+    }
+
+    // ── /api/warehouses ──────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/warehouses - should return 201 with the created warehouse")
+    void createWarehouse_success() throws Exception {
+        when(warehouseService.createWarehouse(any(WarehouseRequestDTO.class)))
+                .thenReturn(new WarehouseResponseDTO(10L, "NORTH", "North plant"));
+
+        mockMvc.perform(post("/api/warehouses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new WarehouseRequestDTO("NORTH", "North plant"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(10))
+                .andExpect(jsonPath("$.code").value("NORTH"));
+    }
+
+    @Test
+    @DisplayName("POST /api/warehouses - should return 400 when the code is blank")
+    void createWarehouse_blankCode() throws Exception {
+        mockMvc.perform(post("/api/warehouses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new WarehouseRequestDTO("", "North plant"))))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(warehouseService);
+    }
+
+    // ── /api/warehouses/{id}/stock ───────────────────────────────────────────
+
+    @Test
+    @DisplayName("PUT /api/warehouses/{id}/stock/{rawMaterialId} - should return 200 with the site stock row")
+    void setSiteStock_success() throws Exception {
+        when(warehouseService.setSiteStock(10L, 1L, 30)).thenReturn(new SiteStockRow(10L, 1L, 30));
+
+        mockMvc.perform(put("/api/warehouses/10/stock/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stock\": 30}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(30));
+    }
+
+    @Test
+    @DisplayName("PUT /api/warehouses/{id}/stock/{rawMaterialId} - should return 400 for negative stock")
+    void setSiteStock_negative() throws Exception {
+        mockMvc.perform(put("/api/warehouses/10/stock/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stock\": -1}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(warehouseService);
+    }
+
+    @Test
+    @DisplayName("GET /api/warehouses/{id}/stock - should return 404 for an unknown warehouse")
+    void getSiteStock_notFound() throws Exception {
+        when(warehouseService.getSiteStock(99L)).thenThrow(new EntityNotFoundException("Warehouse not found with ID: 99"));
+
+        mockMvc.perform(get("/api/warehouses/99/stock"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/warehouses - should return 200 with the list")
+    void getAllWarehouses_success() throws Exception {
+        when(warehouseService.getAllWarehouses()).thenReturn(List.of(new WarehouseResponseDTO(10L, "NORTH", "North plant")));
+
+        mockMvc.perform(get("/api/warehouses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("North plant"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import com.autoflex.challenge.production_management_api.config.QueryCounter;
+import com.autoflex.challenge.production_management_api.config.QueryLoggingConfig;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks the second-level cache across transactions, which is why the test itself runs without one:
+ * Hibernate never caches rows inserted by the still-open transaction of a regular {@code @DataJpaTest}.
+ */
+@Import({QueryLoggingConfig.class, NaturalIdLookup.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false"
+})
+class EntityCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private NaturalIdLookup naturalIdLookup;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long steelId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        steelId = transactionTemplate.execute(status -> {
+            RawMaterial steel = rawMaterialRepository.save(new RawMaterial(null, "STL-001", "Steel", 100));
+            Product chair = new Product();
+            chair.setName("Chair");
+            chair.setSkuCode("CHR-001");
+            chair.setValue(200.0);
+            ProductRawMaterial line = new ProductRawMaterial();
+            line.setProduct(chair);
+            line.setRawMaterial(steel);
+            line.setRequiredQuantity(4);
+            chair.getMaterials().add(line);
+            productRepository.save(chair);
+            return steel.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.deleteAll();
+            rawMaterialRepository.deleteAll();
+        });
+    }
+
+    @Test
+    @DisplayName("findById - should read a raw material from the database only once")
+    void findById_cached() {
+        transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId));
+
+        int statements = countStatements(() -> transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId)));
+
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    @DisplayName("find by SKU - should resolve a product and its BOM from the caches once warm")
+    void findBySku_cached() {
+        transactionTemplate.execute(status -> naturalIdLookup.find(Product.class, "CHR-001").orElseThrow().getMaterials().size());
+
+        int[] size = new int[1];
+        int statements = countStatements(() -> transactionTemplate.execute(status ->
+                size[0] = naturalIdLookup.find(Product.class, "CHR-001").orElseThrow().getMaterials().size()));
+
+        assertThat(size[0]).isEqualTo(1);
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    @DisplayName("update through the session - should replace the cached entry, SKU included")
+    void update_invalidates() {
+        transactionTemplate.execute(status -> naturalIdLookup.find(RawMaterial.class, "STL-001"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            RawMaterial steel = rawMaterialRepository.findById(steelId).orElseThrow();
+            steel.setName("Carbon steel");
+            steel.setSkuCode("STL-002");
+        });
+
+        RawMaterial renamed = transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId).orElseThrow());
+        assertThat(renamed.getName()).isEqualTo("Carbon steel");
+        Optional<RawMaterial> oldSku = transactionTemplate.execute(status -> naturalIdLookup.find(RawMaterial.class, "STL-001"));
+        Optional<RawMaterial> newSku = transactionTemplate.execute(status -> naturalIdLookup.find(RawMaterial.class, "STL-002"));
+        assertThat(oldSku).isEmpty();
+        assertThat(newSku).isPresent();
+    }
+
+    @Test
+    @DisplayName("bulk stock update - should not leave a stale stock in the cache")
+    void bulkUpdate_invalidates() {
+        transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId));
+
+        transactionTemplate.execute(status -> rawMaterialRepository.consumeStock(steelId, 30));
+
+        RawMaterial steel = transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId).orElseThrow());
+        assertThat(steel.getStock()).isEqualTo(70);
+    }
+
+    @Test
+    @DisplayName("bulk stock update - should keep the other raw materials cached")
+    void bulkUpdate_keepsOthers() {
+        Long woodId = transactionTemplate.execute(status ->
+                rawMaterialRepository.save(new RawMaterial(null, "WOD-001", "Wood", 50)).getId());
+        transactionTemplate.execute(status -> rawMaterialRepository.findById(woodId));
+        transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId));
+
+        transactionTemplate.execute(status -> rawMaterialRepository.applyStockDelta(steelId, 5));
+
+        int statements = countStatements(() -> transactionTemplate.execute(status -> rawMaterialRepository.findById(woodId)));
+        RawMaterial steel = transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId).orElseThrow());
+        assertThat(statements).isZero();
+        assertThat(steel.getStock()).isEqualTo(105);
+    }
+
+    @Test
+    @DisplayName("bulk stock update - should leave the cached entry as it was when the transaction rolls back")
+    void bulkUpdate_rollback() {
+        transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            rawMaterialRepository.consumeStock(steelId, 30);
+            status.setRollbackOnly();
+        });
+
+        RawMaterial steel = transactionTemplate.execute(status -> rawMaterialRepository.findById(steelId).orElseThrow());
+        assertThat(steel.getStock()).isEqualTo(100);
+    }
+
+    private int countStatements(Supplier<?> work) {
+        QueryCounter.Stats stats = QueryCounter.start();
+        try {
+            work.get();
+        } finally {
+            QueryCounter.stop();
+        }
+        return stats.statements();
+    }
+}
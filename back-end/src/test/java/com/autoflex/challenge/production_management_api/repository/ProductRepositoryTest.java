@@ -0,0 +1,355 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import com.autoflex.challenge.production_management_api.config.QueryCounter;
+import com.autoflex.challenge.production_management_api.config.QueryLoggingConfig;
+import com.autoflex.challenge.production_management_api.dto.request.ComponentItemRequest;
+import com.autoflex.challenge.production_management_api.dto.request.MaterialItemRequest;
+import com.autoflex.challenge.production_management_api.dto.request.ProductRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.BomLineRow;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentRow;
+import com.autoflex.challenge.production_management_api.dto.response.ProductResponseDTO;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductComponent;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.service.BomReader;
+import com.autoflex.challenge.production_management_api.service.CatalogIndex;
+import com.autoflex.challenge.production_management_api.service.CatalogVersion;
+import com.autoflex.challenge.production_management_api.service.Deadline;
+import com.autoflex.challenge.production_management_api.service.IncrementalGreedyPlanner;
+import com.autoflex.challenge.production_management_api.service.OptimalProductionPlanner;
+import com.autoflex.challenge.production_management_api.service.PlannerMetrics;
+import com.autoflex.challenge.production_management_api.service.PlanningExecutor;
+import com.autoflex.challenge.production_management_api.service.ProductService;
+import com.autoflex.challenge.production_management_api.service.ProductSummaryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the listing queries against an in-memory H2 database and counts the SQL statements Hibernate
+ * prepares, so a regression back to lazy per-product loading shows up as a failing count.
+ */
+@Import(QueryLoggingConfig.class)
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false",
+        // the JVM-wide JCache manager is closed by any context that fails to start; EntityCacheTest covers the cache
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductRepositoryTest {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int MATERIALS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductSummaryRepository productSummaryRepository;
+
+    private ProductService productService;
+    private ProductSummaryStore productSummaryStore;
+    private Statistics statistics;
+    private Long firstProductId;
+
+    @BeforeEach
+    void setUp() {
+        CatalogIndex catalogIndex = new CatalogIndex(productRepository, rawMaterialRepository);
+        productSummaryStore = new ProductSummaryStore(productSummaryRepository, productRepository,
+                JsonMapper.builder().build());
+        productService = new ProductService(productRepository, rawMaterialRepository, new IncrementalGreedyPlanner(catalogIndex),
+                new OptimalProductionPlanner(), catalogIndex, new CatalogVersion(),
+                new PlannerMetrics(new SimpleMeterRegistry(), catalogIndex),
+                new NaturalIdLookup(entityManager.getEntityManager()),
+                new PlanningExecutor(new SimpleMeterRegistry(), 1, 4, 1), productSummaryStore,
+                new BomReader(productRepository));
+
+        List<RawMaterial> rawMaterials = new ArrayList<>();
+        for (int i = 0; i < MATERIALS; i++) {
+            RawMaterial rawMaterial = new RawMaterial();
+            rawMaterial.setName("Material " + i);
+            rawMaterial.setSkuCode("MAT-" + i);
+            rawMaterial.setStock(1_000);
+            rawMaterials.add(entityManager.persist(rawMaterial));
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSkuCode("PRD-" + i);
+            product.setValue(10.0 + i);
+            for (int k = 0; k < 2; k++) {
+                ProductRawMaterial line = new ProductRawMaterial();
+                line.setProduct(product);
+                line.setRawMaterial(rawMaterials.get((i + k) % MATERIALS));
+                line.setRequiredQuantity(k + 1);
+                product.getMaterials().add(line);
+            }
+            entityManager.persist(product);
+            if (firstProductId == null) {
+                firstProductId = product.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // the fixtures bypass the services, like rows written before the summaries existed
+        productSummaryStore.backfill();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // ── getAllProducts ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getAllProducts - should list 1,000 products with their materials from the summaries in a single statement")
+    void getAllProducts_singleStatement() {
+        List<ProductResponseDTO> products = productService.getAllProducts();
+
+        assertThat(products).hasSize(PRODUCTS);
+        assertThat(products).allSatisfy(p -> assertThat(p.materialsRequired()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    // ── getProductSuggestion ─────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getProductSuggestion - should load the catalog in three statements and plan from memory afterwards")
+    void getProductSuggestion_queryBudget() {
+        QueryCounter.Stats first = QueryCounter.start();
+        try {
+            productService.getProductSuggestion(Deadline.none());
+        } finally {
+            QueryCounter.stop();
+        }
+        QueryCounter.Stats second = QueryCounter.start();
+        try {
+            productService.getProductSuggestion(Deadline.none());
+        } finally {
+            QueryCounter.stop();
+        }
+
+        // materials, products with their BOM rows, sub-assembly component rows
+        assertThat(first.statements()).isEqualTo(3);
+        assertThat(second.statements()).isZero();
+    }
+
+    // ── getProduct ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getProduct - should read one product with its materials from its summary in a single statement")
+    void getProduct_singleStatement() {
+        ProductResponseDTO product = productService.getProduct(firstProductId);
+
+        assertThat(product.productName()).isEqualTo("Product 0");
+        assertThat(product.materialsRequired()).extracting(m -> m.materialName())
+                .containsExactly("Material 0", "Material 1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // ── getProductPage ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getProductPage - should seek the page's summaries in a single statement")
+    void getProductPage_singleStatement() {
+        var page = productService.getProductPage(null, 100);
+
+        assertThat(page.items()).hasSize(100);
+        assertThat(page.items().get(0).materialsRequired()).hasSize(2);
+        assertThat(page.nextCursor()).isEqualTo(page.items().get(99).productId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // ── updateProduct ────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("updateProduct - should write only what changed instead of rewriting the whole BOM")
+    void updateProduct_bomDiff() {
+        List<BomLineRow> bom = productRepository.findBomLines(firstProductId);
+        Long newMaterialId = productRepository.findBomLines(firstProductId + 5).get(0).rawMaterialId();
+        statistics.clear();
+
+        productService.updateProduct(firstProductId, new ProductRequestDTO("Product 0", "PRD-0", 99.0, List.of(
+                new MaterialItemRequest(bom.get(0).rawMaterialId(), 1),
+                new MaterialItemRequest(bom.get(1).rawMaterialId(), 2))));
+        entityManager.flush();
+
+        // the product row and its summary
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+
+        statistics.clear();
+        productService.updateProduct(firstProductId, new ProductRequestDTO("Product 0", "PRD-0", 99.0, List.of(
+                new MaterialItemRequest(bom.get(0).rawMaterialId(), 7),
+                new MaterialItemRequest(newMaterialId, 3))));
+        entityManager.flush();
+
+        // the changed BOM line and the summary
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        entityManager.clear();
+        assertThat(productRepository.findBomLines(firstProductId)).extracting(BomLineRow::requiredQuantity)
+                .containsExactly(7, 3);
+        assertThat(productService.getProduct(firstProductId).materialsRequired()).extracting(m -> m.requiredQuantity())
+                .containsExactly(7, 3);
+    }
+
+    // ── summaries ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("refreshMaterials - should rewrite the summary of every product using a renamed material")
+    void refreshMaterials_renameFansOut() {
+        RawMaterial material = rawMaterialRepository.findById(productRepository.findBomLines(firstProductId)
+                .get(0).rawMaterialId()).orElseThrow();
+        material.setName("Renamed");
+        statistics.clear();
+
+        productSummaryStore.refreshMaterials(List.of(material.getId()));
+        entityManager.flush();
+
+        // every product uses two consecutive materials out of 20, so 1 in 10 uses this one
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1 + PRODUCTS / 10);
+        entityManager.clear();
+        assertThat(productService.getProduct(firstProductId).materialsRequired()).extracting(m -> m.materialName())
+                .containsExactly("Renamed", "Material 1");
+        assertThat(productService.getAllProducts()).filteredOn(p -> p.materialsRequired().stream()
+                .anyMatch(m -> m.materialName().equals("Renamed"))).hasSize(PRODUCTS / 10);
+    }
+
+    @Test
+    @DisplayName("updateProduct - should write the material names the database has, not the ones loaded before a rename")
+    void updateProduct_namesReadUnderLock() {
+        List<BomLineRow> bom = productRepository.findBomLines(firstProductId);
+        RawMaterial material = rawMaterialRepository.findById(bom.get(0).rawMaterialId()).orElseThrow();
+        // a rename committed by another transaction after this one had loaded the material
+        entityManager.getEntityManager().createQuery("UPDATE RawMaterial m SET m.name = 'Renamed' WHERE m.id = :id")
+                .setParameter("id", material.getId())
+                .executeUpdate();
+        assertThat(material.getName()).isEqualTo("Material 0");
+
+        productService.updateProduct(firstProductId, new ProductRequestDTO("Product 0", "PRD-0", 99.0, List.of(
+                new MaterialItemRequest(bom.get(0).rawMaterialId(), 1),
+                new MaterialItemRequest(bom.get(1).rawMaterialId(), 2))));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(productService.getProduct(firstProductId).materialsRequired()).extracting(m -> m.materialName())
+                .containsExactly("Renamed", "Material 1");
+    }
+
+    @Test
+    @DisplayName("deleteProduct - should remove the product's summary with it")
+    void deleteProduct_removesSummary() {
+        productService.deleteProduct(firstProductId);
+        entityManager.flush();
+
+        assertThat(productSummaryRepository.findRowById(firstProductId)).isEmpty();
+        assertThat(productService.getAllProducts()).hasSize(PRODUCTS - 1);
+    }
+
+    // ── findBomLines / consumeStock ──────────────────────────────────────────
+
+    @Test
+    @DisplayName("findBomLines - should project a product's BOM ordered by material id")
+    void findBomLines_ordered() {
+        List<BomLineRow> bom = productRepository.findBomLines(firstProductId);
+
+        assertThat(bom).extracting(BomLineRow::materialName).containsExactly("Material 0", "Material 1");
+        assertThat(bom).extracting(BomLineRow::requiredQuantity).containsExactly(1, 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // ── components ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("findAllComponentRows - should project sub-assembly lines and flag products used as components")
+    void findAllComponentRows_subAssembly() {
+        Product assembly = entityManager.find(Product.class, firstProductId);
+        Product part = entityManager.find(Product.class, firstProductId + 1);
+        assembly.getComponents().add(new ProductComponent(null, assembly, part, 3));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(productRepository.findAllComponentRows())
+                .containsExactly(new ComponentRow(firstProductId, firstProductId + 1, 3));
+        assertThat(productRepository.isUsedAsComponent(firstProductId + 1)).isTrue();
+        assertThat(productRepository.isUsedAsComponent(firstProductId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("BomReader.flatten - should multiply sub-assembly lines down from the database")
+    void bomReader_flatten() {
+        Product assembly = entityManager.find(Product.class, firstProductId);
+        Product part = entityManager.find(Product.class, firstProductId + 1);
+        assembly.getComponents().add(new ProductComponent(null, assembly, part, 3));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BomReader.Line> bom = new BomReader(productRepository).flatten(firstProductId).orElseThrow();
+
+        // own lines 1 x Material 0 and 2 x Material 1, plus 3 parts of 1 x Material 1 and 2 x Material 2
+        assertThat(bom).extracting(BomReader.Line::materialName).containsExactly("Material 0", "Material 1", "Material 2");
+        assertThat(bom).extracting(BomReader.Line::quantity).containsExactly(1L, 5L, 6L);
+        assertThat(new BomReader(productRepository).flatten(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("updateProduct - should reject a cycle through a component the catalog has not seen yet")
+    void updateProduct_cycleFromDatabase() {
+        // load the catalog first, so the edge below exists only in the database
+        productService.getProductBom(firstProductId);
+        Product assembly = entityManager.find(Product.class, firstProductId);
+        Product part = entityManager.find(Product.class, firstProductId + 1);
+        assembly.getComponents().add(new ProductComponent(null, assembly, part, 3));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThatThrownBy(() -> productService.updateProduct(firstProductId + 1, new ProductRequestDTO(
+                "Product 1", "PRD-1", 11.0, List.of(new MaterialItemRequest(productRepository.findBomLines(firstProductId + 1)
+                .get(0).rawMaterialId(), 1)), List.of(new ComponentItemRequest(firstProductId, 1)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Product " + firstProductId + " already contains product " + (firstProductId + 1)
+                        + " and cannot be one of its components");
+    }
+
+    @Test
+    @DisplayName("consumeStock - should decrement only when enough stock remains")
+    void consumeStock_conditional() {
+        Long materialId = productRepository.findBomLines(firstProductId).get(0).rawMaterialId();
+
+        assertThat(rawMaterialRepository.consumeStock(materialId, 600)).isEqualTo(1);
+        assertThat(rawMaterialRepository.consumeStock(materialId, 600)).isZero();
+        assertThat(rawMaterialRepository.consumeStock(materialId, 400)).isEqualTo(1);
+
+        assertThat(rawMaterialRepository.findById(materialId)).get()
+                .extracting(RawMaterial::getStock).isEqualTo(0);
+    }
+}
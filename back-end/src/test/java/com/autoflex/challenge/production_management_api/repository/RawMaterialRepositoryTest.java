@@ -0,0 +1,73 @@
+package com.autoflex.challenge.production_management_api.repository;
+
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false",
+        // the JVM-wide JCache manager is closed by any context that fails to start; EntityCacheTest covers the cache
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+class RawMaterialRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    // ── applyStockDelta ──────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("applyStockDelta - should add the delta to the stock")
+    void applyStockDelta_success() {
+        Long id = persist(100);
+
+        int updated = rawMaterialRepository.applyStockDelta(id, -40);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(stockOf(id)).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("applyStockDelta - should refuse a delta that would make the stock negative")
+    void applyStockDelta_negative() {
+        Long id = persist(10);
+
+        int updated = rawMaterialRepository.applyStockDelta(id, -11);
+
+        assertThat(updated).isZero();
+        assertThat(stockOf(id)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("applyStockDelta - should refuse a delta that would overflow the stock")
+    void applyStockDelta_overflow() {
+        Long id = persist(Integer.MAX_VALUE - 5);
+
+        int refused = rawMaterialRepository.applyStockDelta(id, 6);
+        int applied = rawMaterialRepository.applyStockDelta(id, 5);
+
+        assertThat(refused).isZero();
+        assertThat(applied).isEqualTo(1);
+        assertThat(stockOf(id)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    private Long persist(int stock) {
+        return entityManager.persistAndFlush(new RawMaterial(null, "STL-001", "Steel", stock)).getId();
+    }
+
+    private int stockOf(Long id) {
+        entityManager.clear();
+        return entityManager.find(RawMaterial.class, id).getStock();
+    }
+}
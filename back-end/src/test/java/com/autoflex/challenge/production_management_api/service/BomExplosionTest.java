@@ -0,0 +1,76 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BomExplosionTest {
+
+    private BomExplosion explosion;
+
+    @BeforeEach
+    void setUp() {
+        explosion = new BomExplosion();
+        // chair = 2 legs + 1 seat + 4 screws; leg = 3 steel + 2 screws; seat = 1 leg + 5 plastic
+        explosion.put(10L, BomExplosion.FlatBom.of(Map.of(1L, 3L, 3L, 2L)), List.of());
+        explosion.put(11L, BomExplosion.FlatBom.of(Map.of(2L, 5L)), List.of(new BomExplosion.Component(10L, 1)));
+        explosion.put(12L, BomExplosion.FlatBom.of(Map.of(3L, 4L)),
+                List.of(new BomExplosion.Component(10L, 2), new BomExplosion.Component(11L, 1)));
+    }
+
+    // ── flatten ──────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("flatten - should multiply quantities down every path of a shared sub-assembly")
+    void flatten_diamond() {
+        // leg reaches the chair twice: directly (x2) and through the seat (x1)
+        assertThat(explosion.flatten(12L))
+                .isEqualTo(BomExplosion.FlatBom.of(Map.of(1L, 9L, 2L, 5L, 3L, 4L + 6L)));
+        assertThat(explosion.flatten(10L)).isEqualTo(BomExplosion.FlatBom.of(Map.of(1L, 3L, 3L, 2L)));
+    }
+
+    @Test
+    @DisplayName("put - should invalidate the product and every ancestor, and nothing else")
+    void put_invalidatesAncestors() {
+        explosion.put(20L, BomExplosion.FlatBom.of(Map.of(4L, 1L)), List.of());
+        explosion.flatten(12L);
+
+        assertThat(explosion.put(10L, BomExplosion.FlatBom.of(Map.of(1L, 1L)), List.of()))
+                .containsExactlyInAnyOrder(10L, 11L, 12L);
+        assertThat(explosion.flatten(12L)).isEqualTo(BomExplosion.FlatBom.of(Map.of(1L, 3L, 2L, 5L, 3L, 4L)));
+        assertThat(explosion.put(20L, BomExplosion.FlatBom.of(Map.of(4L, 2L)), List.of())).containsExactly(20L);
+    }
+
+    @Test
+    @DisplayName("remove - should leave parents without the removed component's materials")
+    void remove_component() {
+        assertThat(explosion.remove(11L)).containsExactlyInAnyOrder(11L, 12L);
+
+        assertThat(explosion.flatten(12L)).isEqualTo(BomExplosion.FlatBom.of(Map.of(1L, 6L, 3L, 8L)));
+        assertThat(explosion.components(12L)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("flatten - should handle a deep chain without recursion and saturate huge quantities")
+    void flatten_deepChain() {
+        explosion.put(1_000L, BomExplosion.FlatBom.of(Map.of(1L, 1L)), List.of());
+        for (long id = 1_001; id <= 21_000; id++)
+            explosion.put(id, BomExplosion.EMPTY, List.of(new BomExplosion.Component(id - 1, 1_000)));
+
+        assertThat(explosion.flatten(1_002L).quantities()).containsExactly(1_000_000L);
+        assertThat(explosion.flatten(21_000L).quantities()).containsExactly(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("flatten - should ignore the back edge of a cycle instead of looping")
+    void flatten_cycleIgnored() {
+        explosion.put(10L, BomExplosion.FlatBom.of(Map.of(1L, 3L)), List.of(new BomExplosion.Component(12L, 1)));
+
+        assertThat(explosion.flatten(12L).materialIds()).containsExactly(1L, 2L, 3L);
+    }
+}
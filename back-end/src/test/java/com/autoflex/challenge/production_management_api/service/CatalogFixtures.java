@@ -0,0 +1,39 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+
+import java.util.ArrayList;
+
+/** Detached products with their BOM lines, for tests that build a catalog without a database. */
+final class CatalogFixtures {
+
+    private CatalogFixtures() {
+    }
+
+    static Product product(Long id, String name, double value) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setSkuCode(name.toUpperCase());
+        product.setValue(value);
+        product.setMaterials(new ArrayList<>());
+        return product;
+    }
+
+    /** A product named after its id, for tests that generate many of them. */
+    static Product product(Long id, double value) {
+        Product product = product(id, "Product " + id, value);
+        product.setSkuCode("PRD-" + id);
+        return product;
+    }
+
+    static void addMaterial(Product product, RawMaterial rawMaterial, int requiredQuantity) {
+        ProductRawMaterial prm = new ProductRawMaterial();
+        prm.setProduct(product);
+        prm.setRawMaterial(rawMaterial);
+        prm.setRequiredQuantity(requiredQuantity);
+        product.getMaterials().add(prm);
+    }
+}
@@ -0,0 +1,282 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.ComponentRow;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductComponent;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    private CatalogIndex catalogIndex;
+
+    private RawMaterial steel;
+    private Product chair;
+    private Product stool;
+
+    @BeforeEach
+    void setUp() {
+        catalogIndex = new CatalogIndex(productRepository, rawMaterialRepository);
+
+        steel = new RawMaterial(1L, "STL-001", "Steel", 100);
+        chair = product(1L, "Chair", 200.0);
+        stool = product(2L, "Stool", 80.0);
+        addMaterial(chair, steel, 4);
+        addMaterial(stool, steel, 3);
+
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(stool, chair));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel));
+    }
+
+    @Test
+    @DisplayName("snapshot - should load once and order products by value")
+    void snapshot_loadsOnce() {
+        CatalogIndex.Snapshot first = catalogIndex.snapshot();
+        CatalogIndex.Snapshot second = catalogIndex.snapshot();
+
+        assertThat(second).isSameAs(first);
+        assertThat(names(first)).containsExactly("Chair", "Stool");
+        assertThat(first.materialCount()).isEqualTo(1);
+        verify(productRepository, times(1)).findAllWithMaterials();
+    }
+
+    @Test
+    @DisplayName("upsertProduct - should reorder and rewrite the BOM without touching older snapshots")
+    void upsertProduct_copyOnWrite() {
+        CatalogIndex.Snapshot before = catalogIndex.snapshot();
+
+        stool.setValue(500.0);
+        stool.getMaterials().get(0).setRequiredQuantity(7);
+        catalogIndex.upsertProduct(stool);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+
+        assertThat(names(before)).containsExactly("Chair", "Stool");
+        assertThat(names(after)).containsExactly("Stool", "Chair");
+        int stoolSlot = after.order[0];
+        assertThat(after.bomQuantity[after.bomStart[stoolSlot]]).isEqualTo(7);
+        assertThat(before.bomQuantity[before.bomStart[before.order[1]]]).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("upsertProduct - should register new products and materials")
+    void upsertProduct_newProduct() {
+        catalogIndex.snapshot();
+        RawMaterial wood = new RawMaterial(2L, "WD-001", "Wood", 40);
+        Product table = product(3L, "Table", 120.0);
+        addMaterial(table, wood, 2);
+
+        catalogIndex.upsertProduct(table);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+
+        assertThat(names(after)).containsExactly("Chair", "Table", "Stool");
+        assertThat(after.copyStock()[after.materialSlot(2L)]).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("removeProduct - should drop the product from the planning order")
+    void removeProduct_success() {
+        catalogIndex.snapshot();
+
+        catalogIndex.removeProduct(1L);
+
+        assertThat(names(catalogIndex.snapshot())).containsExactly("Stool");
+    }
+
+    @Test
+    @DisplayName("upsertMaterial - should update stock in a new snapshot only")
+    void upsertMaterial_stock() {
+        CatalogIndex.Snapshot before = catalogIndex.snapshot();
+
+        steel.setStock(7);
+        catalogIndex.upsertMaterial(steel);
+
+        assertThat(before.copyStock()[before.materialSlot(1L)]).isEqualTo(100);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+        assertThat(after.copyStock()[after.materialSlot(1L)]).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("adjustStock - should apply deltas and ignore unknown materials")
+    void adjustStock_deltas() {
+        CatalogIndex.Snapshot before = catalogIndex.snapshot();
+
+        catalogIndex.adjustStock(Map.of(1L, -30, 99L, -5));
+        catalogIndex.adjustStock(Map.of(1L, -20));
+
+        assertThat(before.copyStock()[before.materialSlot(1L)]).isEqualTo(100);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+        assertThat(after.copyStock()[after.materialSlot(1L)]).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("upsertProduct - should compact dead BOM rows after many edits")
+    void upsertProduct_compaction() {
+        catalogIndex.snapshot();
+
+        for (int i = 0; i < 3_000; i++) {
+            chair.setValue(200.0 + i);
+            catalogIndex.upsertProduct(chair);
+        }
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+
+        assertThat(after.bomSize).isLessThan(3_000);
+        assertThat(after.liveBomRows).isEqualTo(2);
+        assertThat(names(after)).containsExactly("Chair", "Stool");
+        assertThat(after.productValues[after.order[0]]).isEqualTo(3_199.0);
+    }
+
+    @Test
+    @DisplayName("changesBetween - should collect the slots written between two snapshots")
+    void changesBetween_collectsSlots() {
+        CatalogIndex.Snapshot before = catalogIndex.snapshot();
+        int chairSlot = before.order[0];
+
+        catalogIndex.adjustStock(Map.of(1L, -10));
+        catalogIndex.upsertProduct(chair);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+
+        CatalogIndex.Changes changes = catalogIndex.changesBetween(before, after);
+        assertThat(changes.materialSlots()).containsExactly(after.materialSlot(1L));
+        assertThat(changes.productSlots()).containsExactly(chairSlot);
+        assertThat(catalogIndex.changesBetween(after, after).productSlots()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("changesBetween - should be unknown across a reload, a compaction or more writes than the journal keeps")
+    void changesBetween_unknown() {
+        CatalogIndex.Snapshot loaded = catalogIndex.snapshot();
+        catalogIndex.invalidate();
+        CatalogIndex.Snapshot reloaded = catalogIndex.snapshot();
+
+        assertThat(catalogIndex.changesBetween(loaded, reloaded)).isNull();
+        assertThat(catalogIndex.changesBetween(reloaded, loaded)).isNull();
+
+        for (int i = 0; i < 3_000; i++)
+            catalogIndex.upsertProduct(chair);
+        assertThat(catalogIndex.changesBetween(reloaded, catalogIndex.snapshot())).isNull();
+    }
+
+    @Test
+    @DisplayName("snapshot - should explode sub-assemblies loaded from the component rows")
+    void snapshot_flattensComponents() {
+        when(productRepository.findAllComponentRows()).thenReturn(List.of(new ComponentRow(1L, 2L, 2)));
+
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+
+        // chair: 4 steel of its own + 2 stools of 3 steel
+        assertThat(rows(catalog, 1L)).containsExactly(Map.entry(1L, 10));
+        assertThat(catalogIndex.components(1L)).containsExactly(new BomExplosion.Component(2L, 2));
+        assertThat(catalogIndex.components(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("upsertProduct - should rewrite every product built from a changed sub-assembly")
+    void upsertProduct_rewritesParents() {
+        catalogIndex.snapshot();
+        RawMaterial wood = new RawMaterial(2L, "WD-001", "Wood", 40);
+        Product table = product(3L, "Table", 120.0);
+        addMaterial(table, wood, 2);
+        addComponent(table, stool, 4);
+        catalogIndex.upsertProduct(table);
+        CatalogIndex.Snapshot before = catalogIndex.snapshot();
+
+        stool.getMaterials().get(0).setRequiredQuantity(5);
+        catalogIndex.upsertProduct(stool);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+
+        assertThat(rows(before, 3L)).containsExactly(Map.entry(1L, 12), Map.entry(2L, 2));
+        assertThat(rows(after, 3L)).containsExactly(Map.entry(1L, 20), Map.entry(2L, 2));
+        assertThat(catalogIndex.changesBetween(before, after).productSlots())
+                .containsExactlyInAnyOrder(after.productSlot(2L), after.productSlot(3L));
+    }
+
+    @Test
+    @DisplayName("removeMaterial / removeProduct - should leave the slots of older snapshots as they were")
+    void remove_olderSnapshotsKeepSlots() {
+        CatalogIndex.Snapshot before = catalogIndex.snapshot();
+
+        catalogIndex.upsertMaterial(new RawMaterial(9L, "ALU-001", "Aluminium", 5));
+        catalogIndex.removeMaterial(1L);
+        catalogIndex.removeProduct(2L);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+
+        assertThat(before.materialSlot(1L)).isNotNegative();
+        assertThat(before.productSlot(2L)).isNotNegative();
+        assertThat(before.materialSlots).doesNotContainKey(9L);
+        assertThat(after.materialSlot(1L)).isEqualTo(-1);
+        assertThat(after.productSlot(2L)).isEqualTo(-1);
+        assertThat(after.copyStock()[after.materialSlot(9L)]).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("upsertProducts - should leave the index unchanged when the write fails part-way")
+    void upsertProducts_failedWrite() {
+        CatalogIndex.Snapshot before = catalogIndex.snapshot();
+        Product table = product(3L, "Table", 120.0);
+        addComponent(table, stool, 4);
+        Product broken = product(4L, "Broken", 10.0);
+        broken.getMaterials().add(new ProductRawMaterial(null, broken, null, 1));
+
+        assertThatThrownBy(() -> catalogIndex.upsertProducts(List.of(table, broken)))
+                .isInstanceOf(NullPointerException.class);
+
+        assertThat(catalogIndex.snapshot()).isSameAs(before);
+        assertThat(before.productSlots).doesNotContainKey(3L);
+        assertThat(catalogIndex.components(3L)).isEmpty();
+        // the stool no longer has the table as a parent, so its next write touches only itself
+        catalogIndex.upsertProduct(stool);
+        CatalogIndex.Snapshot after = catalogIndex.snapshot();
+        assertThat(catalogIndex.changesBetween(before, after).productSlots()).containsExactly(after.productSlot(2L));
+    }
+
+    @Test
+    @DisplayName("writes before the first load - should be ignored until the index is loaded")
+    void write_beforeLoad() {
+        catalogIndex.removeProduct(1L);
+
+        assertThat(names(catalogIndex.snapshot())).containsExactly("Chair", "Stool");
+    }
+
+    private List<String> names(CatalogIndex.Snapshot snapshot) {
+        List<String> names = new ArrayList<>();
+        for (int slot : snapshot.order)
+            names.add(snapshot.productNames[slot]);
+        return names;
+    }
+
+    private List<Map.Entry<Long, Integer>> rows(CatalogIndex.Snapshot snapshot, Long productId) {
+        int slot = snapshot.productSlot(productId);
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>();
+        for (int r = snapshot.bomStart[slot]; r < snapshot.bomEnd[slot]; r++)
+            rows.add(Map.entry(snapshot.materialIds[snapshot.bomMaterial[r]], snapshot.bomQuantity[r]));
+        return rows;
+    }
+
+    private void addComponent(Product product, Product component, int requiredQuantity) {
+        product.getComponents().add(new ProductComponent(null, product, component, requiredQuantity));
+    }
+}
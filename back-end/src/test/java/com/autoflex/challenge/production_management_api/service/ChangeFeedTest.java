@@ -0,0 +1,241 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialChangeEvent;
+import com.autoflex.challenge.production_management_api.dto.response.PlanChangeEvent;
+import com.autoflex.challenge.production_management_api.dto.response.ProductChangeEvent;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    private CatalogIndex catalogIndex;
+    private CatalogVersion catalogVersion;
+    private SimpleMeterRegistry meterRegistry;
+    private final Queue<Runnable> pendingSends = new ArrayDeque<>();
+
+    private RawMaterial steel;
+    private RawMaterial wood;
+    private Product chair;
+    private Product stool;
+
+    @BeforeEach
+    void setUp() {
+        catalogIndex = new CatalogIndex(productRepository, rawMaterialRepository);
+        catalogVersion = new CatalogVersion();
+        meterRegistry = new SimpleMeterRegistry();
+
+        steel = new RawMaterial(1L, "STL-001", "Steel", 100);
+        wood = new RawMaterial(2L, "WD-001", "Wood", 50);
+        chair = product(1L, "Chair", 200.0);
+        stool = product(2L, "Stool", 80.0);
+        addMaterial(chair, steel, 40);
+        addMaterial(stool, steel, 3);
+
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(chair, stool));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel, wood));
+    }
+
+    // ── publish ──────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("register - should greet the subscriber with the catalog version it starts after")
+    void register_ready() {
+        ChangeFeed feed = feed(16, Runnable::run);
+        List<ChangeFeed.Event> events = new ArrayList<>();
+
+        feed.register(collect(events));
+
+        assertThat(events).extracting(ChangeFeed.Event::name).containsExactly(ChangeFeed.READY);
+        assertThat(events.get(0).data()).isEqualTo(Map.of("version", catalogVersion.current()));
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("publish - should push the stock change and only the plan rows that changed")
+    void publish_stockChange() {
+        ChangeFeed feed = feed(16, Runnable::run);
+        List<ChangeFeed.Event> events = new ArrayList<>();
+        feed.register(collect(events));
+        events.clear();
+
+        // chair 2 units (80 steel), stool 6 units (18 steel) → chair 1 unit, stool 6 units
+        catalogIndex.adjustStock(Map.of(1L, -40));
+        long version = catalogVersion.bump();
+
+        assertThat(events).extracting(ChangeFeed.Event::name).containsExactly(ChangeFeed.MATERIAL, ChangeFeed.PLAN);
+        assertThat(events).extracting(ChangeFeed.Event::id).containsOnly(version);
+        assertThat(events.get(0).data()).isEqualTo(new MaterialChangeEvent(1L, 60, false));
+        PlanChangeEvent plan = (PlanChangeEvent) events.get(1).data();
+        assertThat(plan.changed()).containsExactly(new ProductSuggestionDTO(1L, "Chair", 1, 200.0));
+        assertThat(plan.removed()).isEmpty();
+        assertThat(plan.totalValue()).isEqualTo(680.0);
+    }
+
+    @Test
+    @DisplayName("publish - should report deleted products and the plan rows they leave behind")
+    void publish_productRemoved() {
+        ChangeFeed feed = feed(16, Runnable::run);
+        List<ChangeFeed.Event> events = new ArrayList<>();
+        feed.register(collect(events));
+        events.clear();
+
+        catalogIndex.removeProduct(1L);
+        catalogVersion.bump();
+
+        assertThat(events).extracting(ChangeFeed.Event::name).containsExactly(ChangeFeed.PRODUCT, ChangeFeed.PLAN);
+        assertThat(events.get(0).data()).isEqualTo(new ProductChangeEvent(1L, null, null, true));
+        PlanChangeEvent plan = (PlanChangeEvent) events.get(1).data();
+        assertThat(plan.removed()).containsExactly(1L);
+        assertThat(plan.changed()).containsExactly(new ProductSuggestionDTO(2L, "Stool", 33, 2640.0));
+        assertThat(plan.suggestionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("publish - should tell plan rows of products sharing a name apart by id")
+    void publish_duplicateNames() {
+        stool.setName("Chair");
+        ChangeFeed feed = feed(16, Runnable::run);
+        List<ChangeFeed.Event> events = new ArrayList<>();
+        feed.register(collect(events));
+        events.clear();
+
+        catalogIndex.removeProduct(1L);
+        catalogVersion.bump();
+
+        PlanChangeEvent plan = (PlanChangeEvent) events.get(1).data();
+        assertThat(plan.removed()).containsExactly(1L);
+        assertThat(plan.changed()).containsExactly(new ProductSuggestionDTO(2L, "Chair", 33, 2640.0));
+    }
+
+    @Test
+    @DisplayName("publish - should tell subscribers to resync after the catalog is reloaded")
+    void publish_reloadResyncs() {
+        ChangeFeed feed = feed(16, Runnable::run);
+        List<ChangeFeed.Event> events = new ArrayList<>();
+        feed.register(collect(events));
+        events.clear();
+
+        catalogIndex.invalidate();
+        catalogVersion.bump();
+
+        assertThat(events).extracting(ChangeFeed.Event::name).containsExactly(ChangeFeed.RESYNC);
+        assertThat(meterRegistry.get("events.resyncs").tag("reason", "catalog_reset").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("register - should diff against a fresh baseline after a period without subscribers")
+    void register_freshBaseline() {
+        ChangeFeed feed = feed(16, Runnable::run);
+        feed.register(collect(new ArrayList<>())).close();
+        catalogIndex.adjustStock(Map.of(1L, -40));
+        catalogVersion.bump();
+
+        List<ChangeFeed.Event> events = new ArrayList<>();
+        feed.register(collect(events));
+        // 40 steel left: one chair, no stools
+        catalogIndex.adjustStock(Map.of(1L, -20));
+        catalogVersion.bump();
+
+        assertThat(events).extracting(ChangeFeed.Event::name)
+                .containsExactly(ChangeFeed.READY, ChangeFeed.MATERIAL, ChangeFeed.PLAN);
+        PlanChangeEvent plan = (PlanChangeEvent) events.get(2).data();
+        assertThat(plan.changed()).isEmpty();
+        assertThat(plan.removed()).containsExactly(2L);
+    }
+
+    // ── slow consumers ───────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("offer - should replace an overflowing backlog with a single resync event")
+    void offer_slowConsumer() {
+        ChangeFeed feed = feed(3, pendingSends::add);
+        List<ChangeFeed.Event> slow = new ArrayList<>();
+        feed.register(collect(slow));
+
+        // wood is in no BOM, so each write is a single material event and no plan event
+        for (int i = 0; i < 5; i++) {
+            wood.setStock(100 + i);
+            catalogIndex.upsertMaterial(wood);
+            catalogVersion.bump();
+        }
+        pendingSends.forEach(Runnable::run);
+
+        assertThat(slow).extracting(ChangeFeed.Event::name)
+                .containsExactly(ChangeFeed.RESYNC, ChangeFeed.MATERIAL, ChangeFeed.MATERIAL);
+        assertThat(slow.get(2).data()).isEqualTo(new MaterialChangeEvent(2L, 104, false));
+        assertThat(meterRegistry.get("events.resyncs").tag("reason", "slow_consumer").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("send - should drop a subscriber whose connection failed without affecting the others")
+    void send_failureDropsSubscriber() {
+        ChangeFeed feed = feed(16, Runnable::run);
+        List<ChangeFeed.Event> healthy = new ArrayList<>();
+        feed.register(collect(healthy));
+        feed.register(new ChangeFeed.EventSink() {
+            @Override
+            public void send(ChangeFeed.Event event) throws IOException {
+                if (!event.name().equals(ChangeFeed.READY))
+                    throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        catalogIndex.adjustStock(Map.of(1L, -40));
+        catalogVersion.bump();
+
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        assertThat(healthy).extracting(ChangeFeed.Event::name).contains(ChangeFeed.MATERIAL);
+    }
+
+    private ChangeFeed feed(int bufferSize, Executor senders) {
+        return new ChangeFeed(catalogIndex, new IncrementalGreedyPlanner(catalogIndex), catalogVersion, meterRegistry,
+                bufferSize, 0L, Runnable::run, senders);
+    }
+
+    private ChangeFeed.EventSink collect(List<ChangeFeed.Event> events) {
+        return new ChangeFeed.EventSink() {
+            @Override
+            public void send(ChangeFeed.Event event) {
+                events.add(event);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GreedyProductionPlannerTest {
+
+    private GreedyProductionPlanner planner;
+
+    private RawMaterial steel;
+    private RawMaterial plastic;
+
+    @BeforeEach
+    void setUp() {
+        planner = new GreedyProductionPlanner();
+        steel = rawMaterial(1L, "Steel");
+        plastic = rawMaterial(2L, "Plastic");
+    }
+
+    @Test
+    @DisplayName("plan - should consume shared stock in value order")
+    void plan_sharedMaterial() {
+        Product chair = product(1L, "Chair", 200.0);
+        addMaterial(chair, steel, 4);
+        addMaterial(chair, plastic, 1);
+        Product stool = product(2L, "Stool", 80.0);
+        addMaterial(stool, steel, 3);
+        steel.setStock(30);
+        plastic.setStock(5);
+
+        CatalogIndex.Snapshot catalog = catalog(List.of(stool, chair));
+        int[] stock = catalog.copyStock();
+
+        ProductSuggestionResponse response = planner.plan(catalog, stock);
+
+        // Chair: min(30/4, 5/1) = 5 → 10 steel left → Stool: 10/3 = 3
+        assertThat(response.suggestions()).hasSize(2);
+        assertThat(response.suggestions().get(0).productName()).isEqualTo("Chair");
+        assertThat(response.suggestions().get(0).quantityProduced()).isEqualTo(5);
+        assertThat(response.suggestions().get(1).quantityProduced()).isEqualTo(3);
+        assertThat(response.suggestions().get(1).subtotal()).isEqualTo(240.0);
+        assertThat(response.totalValue()).isEqualTo(1240.0);
+        assertThat(stock[catalog.materialSlot(1L)]).isEqualTo(1);
+        assertThat(stock[catalog.materialSlot(2L)]).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("plan - should skip products without materials")
+    void plan_emptyBom() {
+        Product empty = product(1L, "Empty", 10.0);
+        steel.setStock(100);
+
+        CatalogIndex.Snapshot catalog = catalog(List.of(empty));
+        ProductSuggestionResponse response = planner.plan(catalog, catalog.copyStock());
+
+        assertThat(response.suggestions()).isEmpty();
+        assertThat(response.totalValue()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("plan - should skip products whose materials are out of stock")
+    void plan_outOfStock() {
+        Product chair = product(1L, "Chair", 200.0);
+        addMaterial(chair, steel, 4);
+        addMaterial(chair, plastic, 1);
+        steel.setStock(400);
+        plastic.setStock(0);
+
+        CatalogIndex.Snapshot catalog = catalog(List.of(chair));
+        int[] stock = catalog.copyStock();
+
+        ProductSuggestionResponse response = planner.plan(catalog, stock);
+
+        assertThat(response.suggestions()).isEmpty();
+        assertThat(stock[catalog.materialSlot(1L)]).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("plan - should return the products ranked so far, flagged partial, once the deadline has passed")
+    void plan_deadlinePassed() {
+        // each product has a material of its own, so every one of them is buildable
+        List<RawMaterial> materials = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            RawMaterial material = rawMaterial((long) i + 1, "Material " + i);
+            material.setStock(1);
+            materials.add(material);
+            Product product = product((long) i + 1, "Product " + i, 1000.0 - i);
+            addMaterial(product, material, 1);
+            products.add(product);
+        }
+
+        CatalogIndex.Snapshot catalog = catalog(products, materials);
+        ProductSuggestionResponse response = planner.plan(catalog, catalog.copyStock(), Deadline.in(0));
+
+        // one chunk is always planned
+        assertThat(response.partial()).isTrue();
+        assertThat(response.suggestions()).hasSize(GreedyProductionPlanner.CHECK_INTERVAL);
+        assertThat(response.suggestions().get(0).productName()).isEqualTo("Product 0");
+        assertThat(planner.plan(catalog, catalog.copyStock()).partial()).isFalse();
+    }
+
+    private CatalogIndex.Snapshot catalog(List<Product> products) {
+        return catalog(products, List.of(steel, plastic));
+    }
+
+    private CatalogIndex.Snapshot catalog(List<Product> products, List<RawMaterial> materials) {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        RawMaterialRepository rawMaterialRepository = mock(RawMaterialRepository.class);
+        when(productRepository.findAllWithMaterials()).thenReturn(products);
+        when(rawMaterialRepository.findAll()).thenReturn(materials);
+        return new CatalogIndex(productRepository, rawMaterialRepository).snapshot();
+    }
+
+    private RawMaterial rawMaterial(Long id, String name) {
+        RawMaterial rawMaterial = new RawMaterial();
+        rawMaterial.setId(id);
+        rawMaterial.setName(name);
+        rawMaterial.setSkuCode(name.toUpperCase());
+        return rawMaterial;
+    }
+}
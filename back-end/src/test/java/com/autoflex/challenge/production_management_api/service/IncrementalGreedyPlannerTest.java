@@ -0,0 +1,261 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IncrementalGreedyPlannerTest {
+
+    private static final int PRODUCTS = 40;
+    private static final int MATERIALS = 12;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    private CatalogIndex catalogIndex;
+    private IncrementalGreedyPlanner planner;
+
+    private List<RawMaterial> materials;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        catalogIndex = new CatalogIndex(productRepository, rawMaterialRepository);
+        planner = new IncrementalGreedyPlanner(catalogIndex);
+
+        materials = new ArrayList<>();
+        for (int i = 0; i < MATERIALS; i++)
+            materials.add(new RawMaterial((long) i + 1, "MAT-" + i, "Material " + i, 500));
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = product((long) i + 1, 1000.0 - i * 10);
+            // each product uses its "own" material plus a shared one, so most writes touch a short suffix
+            addMaterial(product, materials.get(i % (MATERIALS - 1)), 3);
+            addMaterial(product, materials.get(MATERIALS - 1), 1);
+            products.add(product);
+        }
+
+        when(productRepository.findAllWithMaterials()).thenReturn(products);
+        when(rawMaterialRepository.findAll()).thenReturn(materials);
+    }
+
+    // ── plan ─────────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("plan - should run a full pass first and reuse the plan when nothing changed")
+    void plan_firstRunIsFull() {
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+
+        IncrementalGreedyPlanner.Result first = planner.plan(catalog);
+        IncrementalGreedyPlanner.Result second = planner.plan(catalog);
+
+        assertThat(first.incremental()).isFalse();
+        assertThat(first.productsEvaluated()).isEqualTo(PRODUCTS);
+        assertThat(second.incremental()).isTrue();
+        assertThat(second.productsEvaluated()).isZero();
+        assertSameAsFullPlan(second.response(), catalog);
+    }
+
+    @Test
+    @DisplayName("plan - should only replay products from the first consumer of a written material")
+    void plan_stockChangeReplaysSuffix() {
+        planner.plan(catalogIndex.snapshot());
+
+        // material 10 is used by products 10, 21 and 32 (positions 10, 21, 32)
+        catalogIndex.adjustStock(Map.of(11L, -200));
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        IncrementalGreedyPlanner.Result result = planner.plan(catalog);
+
+        assertThat(result.incremental()).isTrue();
+        assertThat(result.productsEvaluated()).isEqualTo(PRODUCTS - 10);
+        assertSameAsFullPlan(result.response(), catalog);
+    }
+
+    @Test
+    @DisplayName("plan - should replay from the old position of a product that moved up the ranking")
+    void plan_productMoved() {
+        planner.plan(catalogIndex.snapshot());
+
+        Product last = products.get(PRODUCTS - 1);
+        last.setValue(5000.0);
+        last.getMaterials().get(0).setRequiredQuantity(7);
+        catalogIndex.upsertProduct(last);
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        IncrementalGreedyPlanner.Result result = planner.plan(catalog);
+
+        assertThat(result.incremental()).isTrue();
+        assertThat(result.productsEvaluated()).isEqualTo(PRODUCTS);
+        assertSameAsFullPlan(result.response(), catalog);
+    }
+
+    @Test
+    @DisplayName("plan - should match a full greedy pass after random stock and BOM writes")
+    void plan_randomWritesMatchFullPlan() {
+        Random random = new Random(42);
+        planner.plan(catalogIndex.snapshot());
+
+        long nextId = 1000;
+        for (int step = 0; step < 300; step++) {
+            switch (random.nextInt(6)) {
+                case 0 -> catalogIndex.adjustStock(Map.of((long) random.nextInt(MATERIALS) + 1, random.nextInt(41) - 20));
+                case 1 -> {
+                    RawMaterial material = materials.get(random.nextInt(materials.size()));
+                    material.setStock(random.nextInt(600));
+                    catalogIndex.upsertMaterial(material);
+                }
+                case 2 -> {
+                    Product product = products.get(random.nextInt(products.size()));
+                    product.setValue(random.nextInt(2000));
+                    product.getMaterials().get(0).setRequiredQuantity(random.nextInt(6) + 1);
+                    catalogIndex.upsertProduct(product);
+                }
+                case 3 -> {
+                    Product product = product(nextId++, random.nextInt(2000));
+                    addMaterial(product, materials.get(random.nextInt(materials.size())), random.nextInt(5) + 1);
+                    if (random.nextBoolean()) {
+                        RawMaterial fresh = new RawMaterial(nextId++, "NEW-" + step, "New " + step, random.nextInt(100));
+                        materials.add(fresh);
+                        addMaterial(product, fresh, 1);
+                    }
+                    products.add(product);
+                    catalogIndex.upsertProduct(product);
+                }
+                case 4 -> {
+                    if (products.size() > 1)
+                        catalogIndex.removeProduct(products.remove(random.nextInt(products.size())).getId());
+                }
+                default -> {
+                    // several writes between two plans
+                    catalogIndex.adjustStock(Map.of(1L, 5, (long) MATERIALS, -3));
+                    Product product = products.get(random.nextInt(products.size()));
+                    product.setValue(product.getValue() + 1);
+                    catalogIndex.upsertProduct(product);
+                }
+            }
+            CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+            IncrementalGreedyPlanner.Result result = planner.plan(catalog);
+            assertSameAsFullPlan(result.response(), catalog);
+        }
+    }
+
+    @Test
+    @DisplayName("plan - should fall back to a full pass after the catalog is reloaded")
+    void plan_reloadFallsBack() {
+        planner.plan(catalogIndex.snapshot());
+
+        catalogIndex.invalidate();
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        IncrementalGreedyPlanner.Result result = planner.plan(catalog);
+
+        assertThat(result.incremental()).isFalse();
+        assertSameAsFullPlan(result.response(), catalog);
+    }
+
+    @Test
+    @DisplayName("plan - should fall back to a full pass for an older snapshot")
+    void plan_olderSnapshotFallsBack() {
+        CatalogIndex.Snapshot older = catalogIndex.snapshot();
+        catalogIndex.adjustStock(Map.of(1L, -100));
+        planner.plan(catalogIndex.snapshot());
+
+        IncrementalGreedyPlanner.Result result = planner.plan(older);
+
+        assertThat(result.incremental()).isFalse();
+        assertSameAsFullPlan(result.response(), older);
+    }
+
+    // ── deadline ─────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("plan - should return the plan of the products ranked so far when the deadline has passed")
+    void plan_deadlineReturnsPrefix() {
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        ProductSuggestionResponse full = new GreedyProductionPlanner().plan(catalog, catalog.copyStock());
+
+        IncrementalGreedyPlanner.Result first = planner.plan(catalog, Deadline.in(0));
+        IncrementalGreedyPlanner.Result second = planner.plan(catalog, Deadline.in(0));
+
+        // one chunk per call, and the second call resumes where the first stopped
+        assertThat(first.response().partial()).isTrue();
+        assertThat(first.productsEvaluated()).isEqualTo(32);
+        assertThat(full.suggestions()).startsWith(first.response().suggestions().toArray(new ProductSuggestionDTO[0]));
+        assertThat(first.response().totalValue())
+                .isEqualTo(first.response().suggestions().stream().mapToDouble(ProductSuggestionDTO::subtotal).sum());
+        assertThat(second.response().partial()).isFalse();
+        assertThat(second.productsEvaluated()).isEqualTo(PRODUCTS - 32);
+        assertSameAsFullPlan(second.response(), catalog);
+    }
+
+    @Test
+    @DisplayName("plan - should resume an unfinished plan after a write to a product it had not reached")
+    void plan_partialThenWrite() {
+        planner.plan(catalogIndex.snapshot(), Deadline.in(0));
+
+        Product last = products.get(PRODUCTS - 1);
+        last.getMaterials().get(0).setRequiredQuantity(1);
+        catalogIndex.upsertProduct(last);
+        CatalogIndex.Snapshot catalog = catalogIndex.snapshot();
+        IncrementalGreedyPlanner.Result result = planner.plan(catalog);
+
+        assertThat(result.incremental()).isTrue();
+        assertThat(result.productsEvaluated()).isEqualTo(PRODUCTS - 32);
+        assertSameAsFullPlan(result.response(), catalog);
+    }
+
+    @Test
+    @DisplayName("plan - should give up waiting for another pass once the deadline passes")
+    void plan_lockWaitBoundedByDeadline() throws Exception {
+        CatalogIndex blocking = spy(catalogIndex);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(blocking).changesBetween(any(), any());
+        planner = new IncrementalGreedyPlanner(blocking);
+        CatalogIndex.Snapshot catalog = blocking.snapshot();
+        planner.plan(catalog);
+
+        Thread holder = new Thread(() -> planner.plan(catalog));
+        holder.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(planner.plan(catalog, Deadline.in(20))).isNull();
+
+        release.countDown();
+        holder.join(5_000);
+        assertSameAsFullPlan(planner.plan(catalog, Deadline.in(5_000)).response(), catalog);
+    }
+
+    private void assertSameAsFullPlan(ProductSuggestionResponse response, CatalogIndex.Snapshot catalog) {
+        ProductSuggestionResponse expected = new GreedyProductionPlanner().plan(catalog, catalog.copyStock());
+        assertThat(response.suggestions()).isEqualTo(expected.suggestions());
+        assertThat(response.totalValue()).isEqualTo(expected.totalValue());
+    }
+}
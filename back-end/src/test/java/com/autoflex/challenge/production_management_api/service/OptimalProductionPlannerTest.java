@@ -0,0 +1,139 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.OptimalSuggestionResponse;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OptimalProductionPlannerTest {
+
+    private OptimalProductionPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new OptimalProductionPlanner();
+    }
+
+    @Test
+    @DisplayName("plan - should find the optimal mix over several shared materials")
+    void plan_multipleMaterials() {
+        RawMaterial steel = rawMaterial(1L);
+        RawMaterial wood = rawMaterial(2L);
+        Product table = product(1L, 90.0);
+        addMaterial(table, steel, 5);
+        addMaterial(table, wood, 4);
+        Product shelf = product(2L, 70.0);
+        addMaterial(shelf, steel, 2);
+        addMaterial(shelf, wood, 5);
+        Product rack = product(3L, 40.0);
+        addMaterial(rack, steel, 3);
+
+        Map<Long, Integer> inventory = Map.of(1L, 23, 2L, 21);
+        List<Product> products = List.of(table, shelf, rack);
+
+        OptimalSuggestionResponse response = plan(products, List.of(steel, wood), inventory, 5_000);
+
+        assertThat(response.optimal()).isTrue();
+        assertThat(response.totalValue()).isEqualTo(bruteForce(products, inventory));
+    }
+
+    @Test
+    @DisplayName("plan - should match exhaustive search on random small catalogs")
+    void plan_matchesBruteForce() {
+        Random random = new Random(42);
+        for (int round = 0; round < 40; round++) {
+            List<RawMaterial> materials = new ArrayList<>();
+            Map<Long, Integer> inventory = new HashMap<>();
+            for (long id = 1; id <= 3; id++) {
+                materials.add(rawMaterial(id));
+                inventory.put(id, random.nextInt(25));
+            }
+            List<Product> products = new ArrayList<>();
+            for (long id = 1; id <= 3; id++) {
+                Product p = product(id, 1 + random.nextInt(50));
+                for (RawMaterial material : materials)
+                    if (random.nextBoolean())
+                        addMaterial(p, material, 1 + random.nextInt(7));
+                products.add(p);
+            }
+            OptimalSuggestionResponse response = plan(products, materials, inventory, 5_000);
+
+            assertThat(response.optimal()).isTrue();
+            assertThat(response.totalValue()).isEqualTo(bruteForce(products, inventory));
+        }
+    }
+
+    @Test
+    @DisplayName("plan - should fall back to the greedy plan and report a gap when the budget is exhausted")
+    void plan_budgetExhausted() {
+        RawMaterial steel = rawMaterial(1L);
+        Product large = product(1L, 150.0);
+        addMaterial(large, steel, 10);
+        Product small = product(2L, 100.0);
+        addMaterial(small, steel, 8);
+
+        OptimalSuggestionResponse response = plan(List.of(large, small), List.of(steel), Map.of(1L, 16), 0);
+
+        assertThat(response.optimal()).isFalse();
+        assertThat(response.totalValue()).isEqualTo(150.0);
+        assertThat(response.upperBound()).isGreaterThanOrEqualTo(200.0);
+        assertThat(response.optimalityGap()).isGreaterThan(0.0);
+    }
+
+    private OptimalSuggestionResponse plan(List<Product> products, List<RawMaterial> materials,
+                                           Map<Long, Integer> inventory, long budgetMs) {
+        materials.forEach(material -> material.setStock(inventory.get(material.getId())));
+        ProductRepository productRepository = mock(ProductRepository.class);
+        RawMaterialRepository rawMaterialRepository = mock(RawMaterialRepository.class);
+        when(productRepository.findAllWithMaterials()).thenReturn(products);
+        when(rawMaterialRepository.findAll()).thenReturn(materials);
+
+        CatalogIndex.Snapshot catalog = new CatalogIndex(productRepository, rawMaterialRepository).snapshot();
+        return planner.plan(catalog, catalog.copyStock(), budgetMs);
+    }
+
+    private double bruteForce(List<Product> products, Map<Long, Integer> inventory) {
+        return search(products, 0, new HashMap<>(inventory));
+    }
+
+    private double search(List<Product> products, int index, Map<Long, Integer> stock) {
+        if (index == products.size())
+            return 0;
+        Product p = products.get(index);
+        double best = search(products, index + 1, stock);
+        if (p.getMaterials().isEmpty())
+            return best;
+        Map<Long, Integer> remaining = new HashMap<>(stock);
+        for (int units = 1; ; units++) {
+            for (ProductRawMaterial pm : p.getMaterials())
+                remaining.merge(pm.getRawMaterial().getId(), -pm.getRequiredQuantity(), Integer::sum);
+            if (remaining.values().stream().anyMatch(v -> v < 0))
+                return best;
+            best = Math.max(best, units * p.getValue() + search(products, index + 1, remaining));
+        }
+    }
+
+    private RawMaterial rawMaterial(Long id) {
+        RawMaterial rawMaterial = new RawMaterial();
+        rawMaterial.setId(id);
+        rawMaterial.setName("Material " + id);
+        rawMaterial.setSkuCode("MAT-" + id);
+        return rawMaterial;
+    }
+}
@@ -0,0 +1,122 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.exceptions.PlanningOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PlanningExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PlanningExecutor planningExecutor;
+    private ExecutorService callers;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // one planner thread and room for one queued plan
+        planningExecutor = new PlanningExecutor(meterRegistry, 1, 1, 2);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        planningExecutor.shutdown();
+    }
+
+    // ── call ─────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("call - should return the task's result and rethrow its exception unchanged")
+    void call_runsTask() {
+        assertThat(planningExecutor.call(() -> "plan", Deadline.none())).isEqualTo("plan");
+        assertThatThrownBy(() -> planningExecutor.call(() -> {
+            throw new EntityNotFoundException("No products found");
+        }, Deadline.none())).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("call - should shed a request with a retry hint when the queue is full")
+    void call_queueFull() throws Exception {
+        Future<String> running = callers.submit(() -> planningExecutor.call(this::blocked, Deadline.none()));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(() -> planningExecutor.call(() -> "queued", Deadline.none()));
+        awaitQueueSize(1);
+
+        assertThatThrownBy(() -> planningExecutor.call(() -> "shed", Deadline.none()))
+                .isInstanceOf(PlanningOverloadedException.class)
+                .extracting(e -> ((PlanningOverloadedException) e).getRetryAfterSeconds())
+                .isEqualTo(2L);
+        assertThat(meterRegistry.get("planning.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("blocked");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    @DisplayName("call - should withdraw a plan whose deadline passes while it is still queued")
+    void call_deadlineWhileQueued() throws Exception {
+        callers.submit(() -> planningExecutor.call(this::blocked, Deadline.none()));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThatThrownBy(() -> planningExecutor.call(() -> ran.getAndSet(true), Deadline.in(50)))
+                .isInstanceOf(PlanningOverloadedException.class)
+                .hasMessageContaining("still queued");
+
+        release.countDown();
+        planningExecutor.call(() -> "after", Deadline.none());
+        assertThat(ran).isFalse();
+    }
+
+    @Test
+    @DisplayName("call - should give up on a running plan that does not stop at the deadline")
+    void call_taskOverrunsDeadline() {
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> planningExecutor.call(this::blocked, Deadline.in(50)))
+                .isInstanceOf(PlanningOverloadedException.class)
+                .hasMessageContaining("did not stop");
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+        // the abandoned task was interrupted, so the planner thread is free again
+        assertThat(planningExecutor.call(() -> "after", Deadline.in(2_000))).isEqualTo("after");
+    }
+
+    private String blocked() {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "blocked";
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("planning.queue.size").gauge().value() != size) {
+            if (System.nanoTime() > until) {
+                fail("Planning queue never reached size " + size);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcurementServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    private ProcurementService procurementService;
+    private JsonMapper jsonMapper;
+
+    @BeforeEach
+    void setUp() {
+        RawMaterial steel = new RawMaterial(1L, "STL-001", "Steel", 100);
+        RawMaterial plastic = new RawMaterial(2L, "PLS-001", "Plastic", 10);
+        RawMaterial wood = new RawMaterial(3L, "WD-001", "Wood", 50);
+        Product chair = product(1L, "Chair", 200.0);
+        addMaterial(chair, steel, 4);
+        addMaterial(chair, plastic, 1);
+        Product stool = product(2L, "Stool", 80.0);
+        addMaterial(stool, steel, 3);
+        Product shelf = product(3L, "Shelf", 90.0);
+        addMaterial(shelf, wood, 5);
+
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(chair, stool, shelf));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel, plastic, wood));
+
+        jsonMapper = JsonMapper.builder().build();
+        procurementService = new ProcurementService(new CatalogIndex(productRepository, rawMaterialRepository), jsonMapper);
+    }
+
+    // ── calculate ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("calculate - should sum requirements across lines and rank bottlenecks by stock coverage")
+    void calculate_shortfallAndBottlenecks() {
+        // Chair 20 + 5 = 25 → steel 100, plastic 25; Stool 10 → steel 30
+        String body = """
+                [{"productId":1,"quantity":20},{"productId":2,"quantity":10,"note":{"ignored":true}},
+                 {"productId":1,"quantity":5}]""";
+
+        JsonNode result = write(procurementService.calculate(json(body)));
+
+        assertThat(result.get("lines").asInt()).isEqualTo(3);
+        assertThat(result.get("products").asInt()).isEqualTo(2);
+        assertThat(result.get("materials").asInt()).isEqualTo(2);
+        assertThat(result.get("totalShortfall").asLong()).isEqualTo(30 + 15);
+        JsonNode steel = result.get("requirements").get(0);
+        assertThat(steel.get("rawMaterialId").asLong()).isEqualTo(1L);
+        assertThat(steel.get("requiredQuantity").asLong()).isEqualTo(130);
+        assertThat(steel.get("stock").asInt()).isEqualTo(100);
+        assertThat(steel.get("shortfall").asLong()).isEqualTo(30);
+        // plastic covers 10/25 of its requirement, steel 100/130
+        assertThat(result.get("bottlenecks")).extracting(node -> node.get("rawMaterialId").asLong())
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("calculate - should report no shortfall when stock covers every target")
+    void calculate_covered() {
+        JsonNode result = write(procurementService.calculate(json("[{\"productId\":3,\"quantity\":10}]")));
+
+        assertThat(result.get("totalShortfall").asLong()).isZero();
+        assertThat(result.get("bottlenecks")).isEmpty();
+        assertThat(result.get("requirements").get(0).get("requiredQuantity").asLong()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("calculate - should aggregate a large order book")
+    void calculate_largeOrderBook() {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 100_000; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"productId\":").append(i % 3 + 1).append(",\"quantity\":1}");
+        }
+        body.append(']');
+
+        ProcurementService.Requirements requirements = procurementService.calculate(json(body.toString()));
+
+        assertThat(requirements.lines()).isEqualTo(100_000);
+        JsonNode result = write(requirements);
+        // 33 334 chairs and 33 333 stools on steel
+        assertThat(result.get("requirements").get(0).get("requiredQuantity").asLong()).isEqualTo(33_334L * 4 + 33_333L * 3);
+    }
+
+    @Test
+    @DisplayName("calculate - should reject unknown products, bad quantities and malformed bodies")
+    void calculate_invalid() {
+        assertThatThrownBy(() -> procurementService.calculate(json("[{\"productId\":99,\"quantity\":1}]")))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Product not found with ID: 99");
+        assertThatThrownBy(() -> procurementService.calculate(json("[{\"productId\":1,\"quantity\":0}]")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 1: quantity must be at least 1");
+        assertThatThrownBy(() -> procurementService.calculate(json("[{\"quantity\":1}]")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 1: productId is required");
+        assertThatThrownBy(() -> procurementService.calculate(json("{\"productId\":1}")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expected a JSON array of production targets");
+        assertThatThrownBy(() -> procurementService.calculate(json("[{\"productId\":1,")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Malformed JSON");
+    }
+
+    private InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode write(ProcurementService.Requirements requirements) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        procurementService.write(requirements, out);
+        return jsonMapper.readTree(out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,168 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.MaterialItemRequest;
+import com.autoflex.challenge.production_management_api.dto.request.ProductRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.BulkProductResponse;
+import com.autoflex.challenge.production_management_api.dto.response.RejectedRowDTO;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private CatalogIndex catalogIndex;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private ProductSummaryStore productSummaryStore;
+
+    private ValidatorFactory validatorFactory;
+    private ProductBulkService productBulkService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        productBulkService = new ProductBulkService(productRepository, rawMaterialRepository,
+                validatorFactory.getValidator(), catalogIndex, catalogVersion, productSummaryStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    // ── createProducts ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("createProducts - should resolve all materials with one query and save every valid row at once")
+    void createProducts_success() {
+        List<ProductRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            requests.add(request("Product " + i, "PRD-" + i, 1L, 2L));
+        }
+        when(rawMaterialRepository.findAllById(any())).thenReturn(List.of(material(1L), material(2L)));
+        when(productRepository.findExistingSkuCodes(anyCollection())).thenReturn(List.of());
+        stubSaveAllWithIds();
+
+        BulkProductResponse response = productBulkService.createProducts(requests);
+
+        assertThat(response.createdCount()).isEqualTo(1_000);
+        assertThat(response.rejected()).isEmpty();
+        verify(rawMaterialRepository, times(1)).findAllById(any());
+        verify(rawMaterialRepository, never()).findById(any());
+        verify(productRepository, times(1)).saveAll(any());
+        verify(productSummaryStore).insert(argThat(saved -> saved.size() == 1_000));
+        verify(catalogIndex).upsertProducts(anyCollection());
+        verify(catalogVersion).bump();
+    }
+
+    @Test
+    @DisplayName("createProducts - should report each invalid row and still create the valid ones")
+    void createProducts_partial() {
+        List<ProductRequestDTO> requests = List.of(
+                request("Table", "TBL-001", 1L),
+                request("", "CHR-001", 1L),
+                request("Stool", "STL-001", 99L),
+                request("Bench", "BNC-001", 1L, 1L),
+                request("Desk", "TBL-001", 1L),
+                request("Shelf", "SHF-001", 1L)
+        );
+        when(rawMaterialRepository.findAllById(any())).thenReturn(List.of(material(1L)));
+        when(productRepository.findExistingSkuCodes(anyCollection())).thenReturn(List.of("SHF-001"));
+        stubSaveAllWithIds();
+
+        BulkProductResponse response = productBulkService.createProducts(requests);
+
+        assertThat(response.createdCount()).isEqualTo(1);
+        assertThat(response.rejected()).extracting(RejectedRowDTO::index).containsExactly(1, 2, 3, 4, 5);
+        assertThat(response.rejected().get(0).errors()).containsExactly("productName: Product name is required");
+        assertThat(response.rejected().get(1).errors()).containsExactly("materialsRequired: Material not found with ID: 99");
+        assertThat(response.rejected().get(2).errors()).containsExactly("materialsRequired: Material listed more than once: 1");
+        assertThat(response.rejected().get(3).errors()).containsExactly("skuCode: Duplicate SKU in request: TBL-001");
+        assertThat(response.rejected().get(4).errors()).containsExactly("skuCode: Product already exists with SKU: SHF-001");
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.captor();
+        verify(productRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Product::getSkuCode).containsExactly("TBL-001");
+    }
+
+    @Test
+    @DisplayName("createProducts - should not save nor touch the catalog when every row is rejected")
+    void createProducts_allRejected() {
+        when(productRepository.findExistingSkuCodes(anyCollection())).thenReturn(List.of());
+
+        BulkProductResponse response = productBulkService.createProducts(List.of(request("Table", "TBL-001", 5L)));
+
+        assertThat(response.createdCount()).isZero();
+        assertThat(response.rejected()).hasSize(1);
+        verify(productRepository, never()).saveAll(any());
+        verifyNoInteractions(catalogIndex, catalogVersion, productSummaryStore);
+    }
+
+    @Test
+    @DisplayName("createProducts - should reject empty and oversized requests")
+    void createProducts_bounds() {
+        List<ProductRequestDTO> tooMany = Collections.nCopies(ProductBulkService.MAX_BULK_SIZE + 1,
+                request("Table", "TBL-001", 1L));
+
+        assertThatThrownBy(() -> productBulkService.createProducts(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productBulkService.createProducts(tooMany))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(ProductBulkService.MAX_BULK_SIZE));
+    }
+
+    // ── helpers ──────────────────────────────────────────────────────────────
+
+    private void stubSaveAllWithIds() {
+        AtomicLong ids = new AtomicLong();
+        when(productRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(p -> p.setId(ids.incrementAndGet()));
+            return products;
+        });
+    }
+
+    private static ProductRequestDTO request(String name, String sku, Long... materialIds) {
+        List<MaterialItemRequest> items = new ArrayList<>();
+        for (Long id : materialIds) {
+            items.add(new MaterialItemRequest(id, 2));
+        }
+        return new ProductRequestDTO(name, sku, 10.0, items);
+    }
+
+    private static RawMaterial material(Long id) {
+        return new RawMaterial(id, "MAT-" + id, "Material " + id, 100);
+    }
+}
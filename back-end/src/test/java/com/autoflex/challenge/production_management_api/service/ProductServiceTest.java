@@ -1,27 +1,45 @@
 package com.autoflex.challenge.production_management_api.service;
 
+import com.autoflex.challenge.production_management_api.dto.request.ComponentItemRequest;
 import com.autoflex.challenge.production_management_api.dto.request.MaterialItemRequest;
 import com.autoflex.challenge.production_management_api.dto.request.ProductRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.BomLineRow;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentRow;
+import com.autoflex.challenge.production_management_api.dto.response.ComponentSummaryDTO;
+import com.autoflex.challenge.production_management_api.dto.response.CursorPageResponse;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialSummaryDTO;
+import com.autoflex.challenge.production_management_api.dto.response.OptimalSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ProductBomResponse;
 import com.autoflex.challenge.production_management_api.dto.response.ProductResponseDTO;
 import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSummaryRow;
 import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductComponent;
 import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.ProductSummary;
 import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.NaturalIdLookup;
 import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.ProductSummaryRepository;
 import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,15 +54,38 @@ class ProductServiceTest {
     @Mock
     private RawMaterialRepository rawMaterialRepository;
 
-    @InjectMocks
+    @Mock
+    private NaturalIdLookup naturalIdLookup;
+
+    @Mock
+    private ProductSummaryRepository productSummaryRepository;
+
     private ProductService productService;
+    private CatalogIndex catalogIndex;
+    private CatalogVersion catalogVersion;
+    private SimpleMeterRegistry meterRegistry;
 
     private RawMaterial rawMaterial;
     private Product product;
+    private ProductSummaryRow productRow;
     private ProductRequestDTO productRequestDTO;
 
     @BeforeEach
     void setUp() {
+        catalogIndex = new CatalogIndex(productRepository, rawMaterialRepository);
+        catalogVersion = new CatalogVersion();
+        meterRegistry = new SimpleMeterRegistry();
+        productService = new ProductService(productRepository, rawMaterialRepository, new IncrementalGreedyPlanner(catalogIndex),
+                new OptimalProductionPlanner(), catalogIndex, catalogVersion, new PlannerMetrics(meterRegistry, catalogIndex),
+                naturalIdLookup, new PlanningExecutor(meterRegistry, 1, 4, 1) {
+                    // plans run on the test thread, so an already expired deadline still gets its first chunk
+                    @Override
+                    public <T> T call(Supplier<T> task, Deadline deadline) {
+                        return task.get();
+                    }
+                }, new ProductSummaryStore(productSummaryRepository, productRepository, JsonMapper.builder().build()),
+                new BomReader(productRepository));
+
         rawMaterial = new RawMaterial();
         rawMaterial.setId(1L);
         rawMaterial.setName("Steel");
@@ -65,6 +106,9 @@ class ProductServiceTest {
         prm.setRequiredQuantity(10);
         product.getMaterials().add(prm);
 
+        productRow = new ProductSummaryRow(1L, "Widget A", "WGT-001", 150.0,
+                "[{\"materialName\":\"Steel\",\"requiredQuantity\":10}]");
+
         productRequestDTO = new ProductRequestDTO(
                 "Widget A",
                 "WGT-001",
@@ -87,6 +131,7 @@ class ProductServiceTest {
         assertThat(result.productName()).isEqualTo("Widget A");
         assertThat(result.productValue()).isEqualTo(150.0);
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productSummaryRepository).saveAll(argThat(summaries -> summaries.iterator().next().isNew()));
     }
 
     @Test
@@ -105,8 +150,6 @@ class ProductServiceTest {
     @DisplayName("updateProduct - should update and return updated product DTO")
     void updateProduct_success() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
-        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(rawMaterial));
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         ProductResponseDTO result = productService.updateProduct(1L, productRequestDTO);
@@ -114,6 +157,66 @@ class ProductServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.productName()).isEqualTo("Widget A");
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+        verifyNoInteractions(rawMaterialRepository);
+    }
+
+    @Test
+    @DisplayName("updateProduct - should rewrite the stored summary in place")
+    void updateProduct_summary() {
+        ProductSummary stored = new ProductSummary();
+        stored.setProductId(1L);
+        stored.setMaterialsJson("[]");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productSummaryRepository.lockAllById(List.of(1L))).thenReturn(List.of(stored));
+
+        productService.updateProduct(1L, new ProductRequestDTO("Widget A+", "WGT-001", 160.0,
+                List.of(new MaterialItemRequest(1L, 12))));
+
+        assertThat(stored.getName()).isEqualTo("Widget A+");
+        assertThat(stored.getValue()).isEqualTo(160.0);
+        assertThat(stored.getMaterialsJson()).isEqualTo("[{\"materialName\":\"Steel\",\"requiredQuantity\":12}]");
+        verify(productSummaryRepository).saveAll(List.of());
+    }
+
+    @Test
+    @DisplayName("updateProduct - should keep unchanged lines, update quantities and fetch only new materials")
+    void updateProduct_bomDiff() {
+        RawMaterial plastic = new RawMaterial(2L, "PLS-001", "Plastic", 50);
+        RawMaterial wood = new RawMaterial(3L, "WD-001", "Wood", 50);
+        product.getMaterials().add(new ProductRawMaterial(2L, product, plastic, 4));
+        ProductRawMaterial steelLine = product.getMaterials().get(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(rawMaterialRepository.findAllById(Set.of(3L))).thenReturn(List.of(wood));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        ProductRequestDTO request = new ProductRequestDTO("Widget A", "WGT-001", 175.0,
+                List.of(new MaterialItemRequest(1L, 12), new MaterialItemRequest(3L, 2)));
+
+        productService.updateProduct(1L, request);
+
+        assertThat(product.getValue()).isEqualTo(175.0);
+        assertThat(product.getMaterials()).extracting(line -> line.getRawMaterial().getId()).containsExactly(1L, 3L);
+        assertThat(product.getMaterials().get(0)).isSameAs(steelLine);
+        assertThat(steelLine.getRequiredQuantity()).isEqualTo(12);
+        verify(rawMaterialRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("updateProduct - should reject unknown and repeated materials")
+    void updateProduct_invalidLines() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(rawMaterialRepository.findAllById(Set.of(9L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> productService.updateProduct(1L, new ProductRequestDTO("Widget A", "WGT-001", 150.0,
+                List.of(new MaterialItemRequest(9L, 1)))))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Material not found with ID: 9");
+        assertThatThrownBy(() -> productService.updateProduct(1L, new ProductRequestDTO("Widget A", "WGT-001", 150.0,
+                List.of(new MaterialItemRequest(1L, 1), new MaterialItemRequest(1L, 2)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Material listed more than once: 1");
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
@@ -126,6 +229,109 @@ class ProductServiceTest {
                 .hasMessageContaining("Product not found");
     }
 
+    @Test
+    @DisplayName("updateProduct - should reject a component that already contains the product")
+    void updateProduct_componentCycle() {
+        // the frame already contains the widget in the database
+        when(productRepository.findComponentRows(any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .contains(2L) ? List.of(new ComponentRow(2L, 1L, 2)) : List.of());
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        ProductRequestDTO request = new ProductRequestDTO("Widget A", "WGT-001", 150.0,
+                List.of(new MaterialItemRequest(1L, 10)), List.of(new ComponentItemRequest(2L, 1)));
+
+        assertThatThrownBy(() -> productService.updateProduct(1L, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Product 2 already contains product 1 and cannot be one of its components");
+        // the product and everything below the new component are locked before the final read
+        verify(productRepository).lockAllById(new TreeSet<>(Set.of(1L, 2L)));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    @DisplayName("updateProduct - should diff components like material lines and fetch only new components")
+    void updateProduct_componentDiff() {
+        Product frame = new Product(2L, "FRM-001", "Frame", 400.0, new ArrayList<>(), new ArrayList<>());
+        Product seat = new Product(3L, "SEA-001", "Seat", 80.0, new ArrayList<>(), new ArrayList<>());
+        Product leg = new Product(5L, "LEG-001", "Leg", 20.0, new ArrayList<>(), new ArrayList<>());
+        ProductComponent frameLine = new ProductComponent(1L, product, frame, 1);
+        product.getComponents().add(frameLine);
+        product.getComponents().add(new ProductComponent(2L, product, seat, 1));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findComponentRows(any())).thenReturn(List.of());
+        when(productRepository.findAllById(Set.of(5L))).thenReturn(List.of(leg));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        ProductRequestDTO request = new ProductRequestDTO("Widget A", "WGT-001", 150.0,
+                List.of(new MaterialItemRequest(1L, 10)),
+                List.of(new ComponentItemRequest(2L, 4), new ComponentItemRequest(5L, 4)));
+
+        productService.updateProduct(1L, request);
+
+        assertThat(product.getComponents()).extracting(line -> line.getComponent().getId()).containsExactly(2L, 5L);
+        assertThat(product.getComponents().get(0)).isSameAs(frameLine);
+        assertThat(frameLine.getRequiredQuantity()).isEqualTo(4);
+        verify(productRepository, never()).findById(2L);
+    }
+
+    @Test
+    @DisplayName("updateProduct - should reject unknown and repeated components")
+    void updateProduct_invalidComponents() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findComponentRows(any())).thenReturn(List.of());
+        when(productRepository.findAllById(Set.of(9L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> productService.updateProduct(1L, new ProductRequestDTO("Widget A", "WGT-001", 150.0,
+                List.of(new MaterialItemRequest(1L, 10)), List.of(new ComponentItemRequest(9L, 1)))))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Component product not found with ID: 9");
+        assertThatThrownBy(() -> productService.updateProduct(1L, new ProductRequestDTO("Widget A", "WGT-001", 150.0,
+                List.of(new MaterialItemRequest(1L, 10)), List.of(new ComponentItemRequest(9L, 1), new ComponentItemRequest(9L, 2)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Component listed more than once: 9");
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    // ── updateMaterialLine ───────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("updateMaterialLine - should change the quantity of an existing line in place")
+    void updateMaterialLine_existing() {
+        ProductRawMaterial steelLine = product.getMaterials().get(0);
+        long version = catalogVersion.current();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        ProductResponseDTO result = productService.updateMaterialLine(1L, 1L, 25);
+
+        assertThat(result.materialsRequired()).extracting(MaterialSummaryDTO::requiredQuantity).containsExactly(25);
+        assertThat(product.getMaterials()).containsExactly(steelLine);
+        verifyNoInteractions(rawMaterialRepository);
+        assertThat(catalogVersion.current()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @DisplayName("updateMaterialLine - should add a line for a material not in the BOM yet")
+    void updateMaterialLine_newLine() {
+        RawMaterial plastic = new RawMaterial(2L, "PLS-001", "Plastic", 50);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(rawMaterialRepository.findById(2L)).thenReturn(Optional.of(plastic));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateMaterialLine(1L, 2L, 3);
+
+        assertThat(product.getMaterials()).extracting(ProductRawMaterial::getRequiredQuantity).containsExactly(10, 3);
+    }
+
+    @Test
+    @DisplayName("updateMaterialLine - should throw EntityNotFoundException for an unknown material")
+    void updateMaterialLine_materialNotFound() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(rawMaterialRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.updateMaterialLine(1L, 9L, 3))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Material not found with ID: 9");
+    }
+
     // ── deleteProduct ────────────────────────────────────────────────────────
 
     @Test
@@ -136,6 +342,7 @@ class ProductServiceTest {
 
         assertThatCode(() -> productService.deleteProduct(1L)).doesNotThrowAnyException();
         verify(productRepository, times(1)).delete(product);
+        verify(productSummaryRepository).deleteByProductId(1L);
     }
 
     @Test
@@ -148,36 +355,99 @@ class ProductServiceTest {
                 .hasMessageContaining("Product not found");
     }
 
+    @Test
+    @DisplayName("deleteProduct - should refuse to delete a product used as a component")
+    void deleteProduct_usedAsComponent() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.isUsedAsComponent(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.deleteProduct(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Product 1 is a component of other products and cannot be deleted");
+        verify(productRepository, never()).delete(any(Product.class));
+        verifyNoInteractions(productSummaryRepository);
+    }
+
+    // ── getProductBom ────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getProductBom - should list direct components and the flattened raw materials")
+    void getProductBom_flattened() {
+        stubAssemblyCatalog();
+        when(rawMaterialRepository.findAllById(List.of(1L))).thenReturn(List.of(rawMaterial));
+
+        ProductBomResponse result = productService.getProductBom(2L);
+
+        assertThat(result.productName()).isEqualTo("Frame");
+        assertThat(result.components()).containsExactly(new ComponentSummaryDTO(1L, "Widget A", 2));
+        assertThat(result.rawMaterials()).containsExactly(new BomLineRow(1L, "Steel", 25));
+    }
+
+    @Test
+    @DisplayName("getProductBom - should throw EntityNotFoundException for an unknown product")
+    void getProductBom_notFound() {
+        stubAssemblyCatalog();
+
+        assertThatThrownBy(() -> productService.getProductBom(99L))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Product not found with ID: 99");
+    }
+
     // ── getProduct ───────────────────────────────────────────────────────────
 
     @Test
     @DisplayName("getProduct - should return product DTO by ID")
     void getProduct_success() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productSummaryRepository.findRowById(1L)).thenReturn(Optional.of(productRow));
 
         ProductResponseDTO result = productService.getProduct(1L);
 
         assertThat(result).isNotNull();
         assertThat(result.productId()).isEqualTo(1L);
         assertThat(result.productName()).isEqualTo("Widget A");
+        assertThat(result.materialsRequired()).containsExactly(new MaterialSummaryDTO("Steel", 10));
     }
 
     @Test
     @DisplayName("getProduct - should throw EntityNotFoundException when not found")
     void getProduct_notFound() {
-        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+        when(productSummaryRepository.findRowById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> productService.getProduct(99L))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Product not found with ID: 99");
     }
 
+    // ── getProductBySku ──────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getProductBySku - should resolve the product through its natural id")
+    void getProductBySku_success() {
+        when(naturalIdLookup.find(Product.class, "WGT-001")).thenReturn(Optional.of(product));
+
+        ProductResponseDTO result = productService.getProductBySku("WGT-001");
+
+        assertThat(result.productId()).isEqualTo(1L);
+        assertThat(result.materialsRequired()).containsExactly(new MaterialSummaryDTO("Steel", 10));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("getProductBySku - should throw EntityNotFoundException for an unknown SKU")
+    void getProductBySku_notFound() {
+        when(naturalIdLookup.find(Product.class, "NOPE")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.getProductBySku("NOPE"))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Product not found with SKU: NOPE");
+    }
+
     // ── getAllProducts ───────────────────────────────────────────────────────
 
     @Test
     @DisplayName("getAllProducts - should return list of product DTOs")
     void getAllProducts_success() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
+        when(productSummaryRepository.findAllRows()).thenReturn(List.of(productRow));
 
         List<ProductResponseDTO> result = productService.getAllProducts();
 
@@ -185,16 +455,70 @@ class ProductServiceTest {
         assertThat(result.get(0).productName()).isEqualTo("Widget A");
     }
 
+    @Test
+    @DisplayName("getAllProducts - should decode each summary's BOM lines and keep products without materials")
+    void getAllProducts_decodesSummaries() {
+        when(productSummaryRepository.findAllRows()).thenReturn(List.of(
+                new ProductSummaryRow(1L, "Widget A", "WGT-001", 150.0,
+                        "[{\"materialName\":\"Steel\",\"requiredQuantity\":10},{\"materialName\":\"Bolt\",\"requiredQuantity\":4}]"),
+                new ProductSummaryRow(2L, "Widget B", "WGT-002", 50.0, "[]")
+        ));
+
+        List<ProductResponseDTO> result = productService.getAllProducts();
+
+        assertThat(result).extracting(ProductResponseDTO::productName).containsExactly("Widget A", "Widget B");
+        assertThat(result.get(0).materialsRequired()).extracting(MaterialSummaryDTO::materialName)
+                .containsExactly("Steel", "Bolt");
+        assertThat(result.get(1).materialsRequired()).isEmpty();
+    }
+
     @Test
     @DisplayName("getAllProducts - should return empty list when no products")
     void getAllProducts_empty() {
-        when(productRepository.findAll()).thenReturn(Collections.emptyList());
+        when(productSummaryRepository.findAllRows()).thenReturn(Collections.emptyList());
 
         List<ProductResponseDTO> result = productService.getAllProducts();
 
         assertThat(result).isEmpty();
     }
 
+    // ── getProductPage ───────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getProductPage - should seek after the cursor and return the next cursor when more rows exist")
+    void getProductPage_hasNext() {
+        when(productSummaryRepository.findRowsAfter(0L, Limit.of(2))).thenReturn(List.of(productRow,
+                new ProductSummaryRow(2L, "Widget B", "WGT-002", 50.0, "[]")));
+
+        CursorPageResponse<ProductResponseDTO> page = productService.getProductPage(null, 1);
+
+        assertThat(page.items()).extracting(ProductResponseDTO::productName).containsExactly("Widget A");
+        assertThat(page.nextCursor()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("getProductPage - should return an empty last page")
+    void getProductPage_end() {
+        when(productSummaryRepository.findRowsAfter(1L, Limit.of(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(List.of());
+
+        CursorPageResponse<ProductResponseDTO> page = productService.getProductPage(1L, null);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getProductPage - should cap the page size and reject non-positive limits")
+    void getProductPage_limits() {
+        when(productSummaryRepository.findRowsAfter(0L, Limit.of(CursorPage.MAX_LIMIT + 1))).thenReturn(List.of());
+
+        productService.getProductPage(null, 10_000);
+
+        verify(productSummaryRepository).findRowsAfter(0L, Limit.of(CursorPage.MAX_LIMIT + 1));
+        assertThatThrownBy(() -> productService.getProductPage(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     // ── getProductSuggestion ─────────────────────────────────────────────────
 
     @Test
@@ -204,7 +528,7 @@ class ProductServiceTest {
         when(productRepository.findAllWithMaterials()).thenReturn(List.of(product));
         when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
 
-        ProductSuggestionResponse response = productService.getProductSuggestion();
+        ProductSuggestionResponse response = productService.getProductSuggestion(Deadline.none());
 
         assertThat(response.suggestions()).hasSize(1);
         assertThat(response.suggestions().get(0).productName()).isEqualTo("Widget A");
@@ -217,7 +541,7 @@ class ProductServiceTest {
     void getProductSuggestion_noProducts() {
         when(productRepository.findAllWithMaterials()).thenReturn(Collections.emptyList());
 
-        assertThatThrownBy(() -> productService.getProductSuggestion())
+        assertThatThrownBy(() -> productService.getProductSuggestion(Deadline.none()))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("No products found");
     }
@@ -229,7 +553,7 @@ class ProductServiceTest {
         when(productRepository.findAllWithMaterials()).thenReturn(List.of(product));
         when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
 
-        ProductSuggestionResponse response = productService.getProductSuggestion();
+        ProductSuggestionResponse response = productService.getProductSuggestion(Deadline.none());
 
         assertThat(response.suggestions()).isEmpty();
         assertThat(response.totalValue()).isEqualTo(0.0);
@@ -260,10 +584,180 @@ class ProductServiceTest {
         when(productRepository.findAllWithMaterials()).thenReturn(List.of(product, productB));
         when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
 
-        ProductSuggestionResponse response = productService.getProductSuggestion();
+        ProductSuggestionResponse response = productService.getProductSuggestion(Deadline.none());
 
         assertThat(response.suggestions()).hasSize(1);
         assertThat(response.suggestions().get(0).productName()).isEqualTo("Widget A");
         assertThat(response.totalValue()).isEqualTo(150.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("getProductSuggestion - should serve the cached plan while the catalog version is unchanged")
+    void getProductSuggestion_cachedByVersion() {
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
+
+        ProductSuggestionResponse first = productService.getProductSuggestion(Deadline.none());
+        ProductSuggestionResponse second = productService.getProductSuggestion(Deadline.none());
+
+        assertThat(second).isSameAs(first);
+        verify(productRepository, times(1)).findAllWithMaterials();
+    }
+
+    @Test
+    @DisplayName("getProductSuggestion - should record planner work once per computed plan")
+    void getProductSuggestion_metrics() {
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
+
+        productService.getProductSuggestion(Deadline.none());
+        productService.getProductSuggestion(Deadline.none());
+
+        assertThat(meterRegistry.get("planner.duration").tag("planner", "greedy").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("planner.products.evaluated").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("planner.bom.rows.scanned").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("planner.units.produced").counter().count()).isEqualTo(10.0);
+        assertThat(meterRegistry.get("catalog.products").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("getProductSuggestion - should flag a plan cut short by the deadline and not cache it")
+    void getProductSuggestion_partialNotCached() {
+        // 40 products, each with a material of its own, so every one of them is in the full plan
+        List<Product> catalog = new ArrayList<>();
+        List<RawMaterial> materials = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            RawMaterial material = new RawMaterial(id, "MAT-" + id, "Material " + id, 10);
+            Product next = new Product(id, "WGT-" + id, "Widget " + id, 100.0 + id, new ArrayList<>(), new ArrayList<>());
+            next.getMaterials().add(new ProductRawMaterial(id, next, material, 1));
+            materials.add(material);
+            catalog.add(next);
+        }
+        when(productRepository.findAllWithMaterials()).thenReturn(catalog);
+        when(rawMaterialRepository.findAll()).thenReturn(materials);
+
+        ProductSuggestionResponse partial = productService.getProductSuggestion(Deadline.in(0));
+        ProductSuggestionResponse resumed = productService.getProductSuggestion(Deadline.in(0));
+        ProductSuggestionResponse cached = productService.getProductSuggestion(Deadline.in(0));
+
+        assertThat(partial.partial()).isTrue();
+        assertThat(partial.suggestions()).hasSize(32);
+        assertThat(resumed.partial()).isFalse();
+        assertThat(resumed.suggestions()).hasSize(40);
+        assertThat(cached).isSameAs(resumed);
+        assertThat(meterRegistry.get("planner.partial").tag("planner", "greedy").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("getProductSuggestion - should recompute after a catalog write bumps the version")
+    void getProductSuggestion_recomputedAfterWrite() {
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
+        ProductSuggestionResponse before = productService.getProductSuggestion(Deadline.none());
+        long versionBefore = productService.getCatalogVersion();
+
+        product.setValue(200.0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        productService.updateProduct(1L, new ProductRequestDTO("Widget A", "WGT-001", 200.0,
+                List.of(new MaterialItemRequest(1L, 10))));
+
+        ProductSuggestionResponse after = productService.getProductSuggestion(Deadline.none());
+
+        assertThat(productService.getCatalogVersion()).isGreaterThan(versionBefore);
+        assertThat(before.totalValue()).isEqualTo(1500.0);
+        assertThat(after.totalValue()).isEqualTo(2000.0);
+    }
+
+    @Test
+    @DisplayName("getProductSuggestion - should plan large quantities limited by the scarcest material")
+    void getProductSuggestion_largeStock() {
+        RawMaterial bolt = new RawMaterial();
+        bolt.setId(2L);
+        bolt.setName("Bolt");
+        bolt.setSkuCode("BLT-001");
+        bolt.setStock(7_000_001);
+
+        ProductRawMaterial prmBolt = new ProductRawMaterial();
+        prmBolt.setId(2L);
+        prmBolt.setProduct(product);
+        prmBolt.setRawMaterial(bolt);
+        prmBolt.setRequiredQuantity(3);
+        product.getMaterials().add(prmBolt);
+
+        // Steel allows 2,000,000 units, bolts allow 2,333,333 → steel is the bottleneck
+        rawMaterial.setStock(20_000_005);
+
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial, bolt));
+
+        ProductSuggestionResponse response = productService.getProductSuggestion(Deadline.none());
+
+        assertThat(response.suggestions()).hasSize(1);
+        assertThat(response.suggestions().get(0).quantityProduced()).isEqualTo(2_000_000);
+        assertThat(response.totalValue()).isEqualTo(300_000_000.0);
+    }
+
+    // ── getOptimalProductSuggestion ──────────────────────────────────────────
+
+    @Test
+    @DisplayName("getOptimalProductSuggestion - should beat greedy when a cheaper product uses stock better")
+    void getOptimalProductSuggestion_beatsGreedy() {
+        // Stock = 16: greedy builds one A (150, uses 10) and leaves 6; two B (2 x 100, uses 16) is better
+        Product productB = new Product();
+        productB.setId(2L);
+        productB.setName("Widget B");
+        productB.setSkuCode("WGT-002");
+        productB.setValue(100.0);
+        productB.setMaterials(new ArrayList<>());
+
+        ProductRawMaterial prmB = new ProductRawMaterial();
+        prmB.setId(2L);
+        prmB.setProduct(productB);
+        prmB.setRawMaterial(rawMaterial);
+        prmB.setRequiredQuantity(8);
+        productB.getMaterials().add(prmB);
+
+        rawMaterial.setStock(16);
+
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(product, productB));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
+
+        OptimalSuggestionResponse response = productService.getOptimalProductSuggestion(1_000L, Deadline.none());
+
+        assertThat(response.optimal()).isTrue();
+        assertThat(response.optimalityGap()).isEqualTo(0.0);
+        assertThat(response.totalValue()).isEqualTo(200.0);
+        assertThat(response.suggestions()).hasSize(1);
+        assertThat(response.suggestions().get(0).productName()).isEqualTo("Widget B");
+        assertThat(response.suggestions().get(0).quantityProduced()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("getOptimalProductSuggestion - should throw EntityNotFoundException when no products")
+    void getOptimalProductSuggestion_noProducts() {
+        when(productRepository.findAllWithMaterials()).thenReturn(Collections.emptyList());
+
+        assertThatThrownBy(() -> productService.getOptimalProductSuggestion(null, Deadline.none()))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("No products found");
+    }
+
+    /** Frame (id 2) uses 5 steel of its own plus two Widget A sub-assemblies. */
+    private void stubAssemblyCatalog() {
+        Product frame = new Product();
+        frame.setId(2L);
+        frame.setName("Frame");
+        frame.setSkuCode("FRM-001");
+        frame.setValue(400.0);
+        ProductRawMaterial prm = new ProductRawMaterial();
+        prm.setProduct(frame);
+        prm.setRawMaterial(rawMaterial);
+        prm.setRequiredQuantity(5);
+        frame.getMaterials().add(prm);
+
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(product, frame));
+        when(productRepository.findAllComponentRows()).thenReturn(List.of(new ComponentRow(2L, 1L, 2)));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(rawMaterial));
+    }
+}
@@ -0,0 +1,115 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductionOrderRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialConsumptionDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductionOrderResponseDTO;
+import com.autoflex.challenge.production_management_api.exceptions.InsufficientStockException;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductionOrderServiceTest {
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private BomReader bomReader;
+
+    @Mock
+    private CatalogIndex catalogIndex;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private ProductionOrderService productionOrderService;
+
+    private final List<BomReader.Line> bom = List.of(
+            new BomReader.Line(1L, "Steel", 4),
+            new BomReader.Line(2L, "Bolt", 10)
+    );
+
+    // ── createProductionOrder ────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("createProductionOrder - should decrement every material in BOM order and update the catalog")
+    void createProductionOrder_success() {
+        when(bomReader.flatten(1L)).thenReturn(Optional.of(bom));
+        when(rawMaterialRepository.consumeStock(anyLong(), anyInt())).thenReturn(1);
+
+        ProductionOrderResponseDTO result = productionOrderService.createProductionOrder(new ProductionOrderRequestDTO(1L, 3));
+
+        assertThat(result.materialsConsumed()).containsExactly(
+                new MaterialConsumptionDTO(1L, "Steel", 12),
+                new MaterialConsumptionDTO(2L, "Bolt", 30));
+        InOrder inOrder = inOrder(rawMaterialRepository);
+        inOrder.verify(rawMaterialRepository).consumeStock(1L, 12);
+        inOrder.verify(rawMaterialRepository).consumeStock(2L, 30);
+        verify(catalogIndex).adjustStock(Map.of(1L, -12, 2L, -30));
+        verify(catalogVersion).bump();
+    }
+
+    @Test
+    @DisplayName("createProductionOrder - should throw InsufficientStockException and skip the catalog when stock is short")
+    void createProductionOrder_insufficientStock() {
+        when(bomReader.flatten(1L)).thenReturn(Optional.of(bom));
+        when(rawMaterialRepository.consumeStock(1L, 12)).thenReturn(1);
+        when(rawMaterialRepository.consumeStock(2L, 30)).thenReturn(0);
+
+        assertThatThrownBy(() -> productionOrderService.createProductionOrder(new ProductionOrderRequestDTO(1L, 3)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("Insufficient stock of Bolt");
+        verify(catalogIndex, never()).adjustStock(any());
+        verifyNoInteractions(catalogVersion);
+    }
+
+    @Test
+    @DisplayName("createProductionOrder - should throw EntityNotFoundException when product does not exist")
+    void createProductionOrder_notFound() {
+        when(bomReader.flatten(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productionOrderService.createProductionOrder(new ProductionOrderRequestDTO(99L, 1)))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Product not found with ID: 99");
+        verify(rawMaterialRepository, never()).consumeStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("createProductionOrder - should reject quantities whose consumption overflows")
+    void createProductionOrder_overflow() {
+        when(bomReader.flatten(1L)).thenReturn(Optional.of(bom));
+
+        assertThatThrownBy(() -> productionOrderService.createProductionOrder(new ProductionOrderRequestDTO(1L, Integer.MAX_VALUE)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(rawMaterialRepository, never()).consumeStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("createProductionOrder - should reject a BOM whose per-unit quantity saturated instead of clamping it")
+    void createProductionOrder_saturatedBom() {
+        when(bomReader.flatten(1L)).thenReturn(Optional.of(List.of(new BomReader.Line(1L, "Steel", Long.MAX_VALUE))));
+
+        assertThatThrownBy(() -> productionOrderService.createProductionOrder(new ProductionOrderRequestDTO(1L, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Quantity too large for material ID: 1");
+        verify(rawMaterialRepository, never()).consumeStock(any(), anyInt());
+    }
+}
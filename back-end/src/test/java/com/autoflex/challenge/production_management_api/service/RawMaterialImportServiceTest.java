@@ -0,0 +1,199 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.response.RawMaterialImportResponse;
+import com.autoflex.challenge.production_management_api.dto.response.MaterialSummaryDTO;
+import com.autoflex.challenge.production_management_api.dto.response.RejectedRowDTO;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.ProductRawMaterial;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.ProductSummaryRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.show-sql=false",
+        // the JVM-wide JCache manager is closed by any context that fails to start; EntityCacheTest covers the cache
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+class RawMaterialImportServiceTest {
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSummaryRepository productSummaryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ValidatorFactory validatorFactory;
+    private CatalogIndex catalogIndex;
+    private CatalogVersion catalogVersion;
+    private ProductSummaryStore productSummaryStore;
+    private RawMaterialImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        catalogIndex = mock(CatalogIndex.class);
+        catalogVersion = mock(CatalogVersion.class);
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        productSummaryStore = new ProductSummaryStore(productSummaryRepository, productRepository, jsonMapper);
+        importService = new RawMaterialImportService(rawMaterialRepository, entityManager,
+                new TransactionTemplate(transactionManager), validatorFactory.getValidator(),
+                jsonMapper, catalogIndex, catalogVersion, productSummaryStore, 2);
+
+        rawMaterialRepository.saveAndFlush(new RawMaterial(null, "STL-001", "Steel", 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    // ── importRawMaterials (CSV) ─────────────────────────────────────────────
+
+    @Test
+    @DisplayName("importRawMaterials - should upsert CSV rows by SKU across batches and report bad lines")
+    void importCsv_upsertsAndRejects() {
+        String csv = """
+                skuCode,materialName,stock
+                STL-001,Steel,75
+                ALU-001,"Aluminium, sheet",20
+                CPR-001,Copper,not-a-number
+
+                WOD-001,,5
+                RUB-001,Rubber,-1
+                ALU-001,Aluminium,30
+                """;
+
+        RawMaterialImportResponse response = importService.importRawMaterials(body(csv), ImportFormat.CSV);
+
+        assertThat(response.processed()).isEqualTo(6);
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.updated()).isEqualTo(2);
+        assertThat(response.rejectedCount()).isEqualTo(3);
+        assertThat(response.rejected()).extracting(RejectedRowDTO::index).containsExactly(4, 6, 7);
+        assertThat(response.rejected().get(0).errors()).containsExactly("stock: Must be an integer");
+
+        assertThat(rawMaterialRepository.findBySkuCodeIn(List.of("STL-001", "ALU-001")))
+                .extracting(RawMaterial::getSkuCode, RawMaterial::getName, RawMaterial::getStock)
+                .containsExactlyInAnyOrder(tuple("STL-001", "Steel", 75), tuple("ALU-001", "Aluminium", 30));
+        verify(catalogIndex).invalidate();
+        verify(catalogVersion).bump();
+    }
+
+    @Test
+    @DisplayName("importRawMaterials - should reject a SKU repeated within one batch instead of counting it twice")
+    void importCsv_duplicateSkuInBatch() {
+        String csv = """
+                skuCode,materialName,stock
+                GLS-001,Glass,12
+                GLS-001,Tempered glass,15
+                """;
+
+        RawMaterialImportResponse response = importService.importRawMaterials(body(csv), ImportFormat.CSV);
+
+        assertThat(response.processed()).isEqualTo(2);
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.updated()).isZero();
+        assertThat(response.rejected()).singleElement().satisfies(row -> {
+            assertThat(row.index()).isEqualTo(3);
+            assertThat(row.errors()).containsExactly("skuCode: Duplicate of line 2");
+        });
+        assertThat(rawMaterialRepository.findBySkuCodeIn(List.of("GLS-001"))).singleElement()
+                .extracting(RawMaterial::getName, RawMaterial::getStock).containsExactly("Glass", 12);
+    }
+
+    @Test
+    @DisplayName("importRawMaterials - should reject a CSV without the required header")
+    void importCsv_missingHeader() {
+        assertThatThrownBy(() -> importService.importRawMaterials(body("sku,name\nA,B\n"), ImportFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("materialName, skuCode, stock");
+        verifyNoInteractions(catalogIndex, catalogVersion);
+    }
+
+    // ── importRawMaterials (NDJSON) ──────────────────────────────────────────
+
+    @Test
+    @DisplayName("importRawMaterials - should import NDJSON lines and report malformed ones")
+    void importNdjson() {
+        String ndjson = """
+                {"materialName":"Glass","skuCode":"GLS-001","stock":12}
+                {"materialName":"Glass","skuCode":
+                {"materialName":"Steel","skuCode":"STL-001","stock":3}
+                """;
+
+        RawMaterialImportResponse response = importService.importRawMaterials(body(ndjson), ImportFormat.NDJSON);
+
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.rejected()).singleElement().satisfies(row -> {
+            assertThat(row.index()).isEqualTo(2);
+            assertThat(row.errors().get(0)).startsWith("Malformed JSON");
+        });
+        assertThat(rawMaterialRepository.findBySkuCodeIn(List.of("GLS-001"))).singleElement()
+                .extracting(RawMaterial::getStock).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("importRawMaterials - should refresh the summaries of products using a renamed material")
+    void import_renameRefreshesSummaries() {
+        RawMaterial steel = rawMaterialRepository.findBySkuCodeIn(List.of("STL-001")).get(0);
+        Product frame = new Product();
+        frame.setName("Frame");
+        frame.setSkuCode("FRM-001");
+        frame.setValue(90.0);
+        frame.getMaterials().add(new ProductRawMaterial(null, frame, steel, 4));
+        productSummaryStore.insert(List.of(productRepository.saveAndFlush(frame)));
+
+        importService.importRawMaterials(body("skuCode,materialName,stock\nSTL-001,Carbon steel,10\n"), ImportFormat.CSV);
+
+        assertThat(productSummaryStore.find(frame.getId())).get()
+                .satisfies(summary -> assertThat(summary.materialsRequired())
+                        .containsExactly(new MaterialSummaryDTO("Carbon steel", 4)));
+    }
+
+    // ── splitCsv ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("splitCsv - should honour quotes, escaped quotes and empty fields")
+    void splitCsv() {
+        assertThat(RawMaterialImportService.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\",,"))
+                .containsExactly("a", "b, c", "say \"hi\"", "", "");
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
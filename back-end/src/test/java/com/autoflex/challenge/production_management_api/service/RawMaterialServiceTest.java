@@ -1,8 +1,11 @@
 package com.autoflex.challenge.production_management_api.service;
 
 import com.autoflex.challenge.production_management_api.dto.request.RawMaterialRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.CursorPageResponse;
 import com.autoflex.challenge.production_management_api.dto.response.RawMaterialResponseDTO;
+import com.autoflex.challenge.production_management_api.dto.response.StockDeltaResponseDTO;
 import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.repository.NaturalIdLookup;
 import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +15,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -27,6 +32,21 @@ class RawMaterialServiceTest {
     @Mock
     private RawMaterialRepository rawMaterialRepository;
 
+    @Mock
+    private CatalogIndex catalogIndex;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private StockDeltaBuffer stockDeltaBuffer;
+
+    @Mock
+    private NaturalIdLookup naturalIdLookup;
+
+    @Mock
+    private ProductSummaryStore productSummaryStore;
+
     @InjectMocks
     private RawMaterialService rawMaterialService;
 
@@ -68,6 +88,31 @@ class RawMaterialServiceTest {
         assertThat(result).isEmpty();
     }
 
+    // ── getRawMaterialPage ───────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getRawMaterialPage - should return one page and the cursor of its last row")
+    void getRawMaterialPage_hasNext() {
+        RawMaterial next = new RawMaterial(2L, "ALU-001", "Aluminium", 10);
+        when(rawMaterialRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(rawMaterial, next));
+
+        CursorPageResponse<RawMaterialResponseDTO> page = rawMaterialService.getRawMaterialPage(null, 1);
+
+        assertThat(page.items()).extracting(RawMaterialResponseDTO::materialName).containsExactly("Steel");
+        assertThat(page.nextCursor()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("getRawMaterialPage - should return no cursor on the last page")
+    void getRawMaterialPage_end() {
+        when(rawMaterialRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(List.of(rawMaterial));
+
+        CursorPageResponse<RawMaterialResponseDTO> page = rawMaterialService.getRawMaterialPage(0L, 2);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
     // ── getRawMaterialById ───────────────────────────────────────────────────
 
     @Test
@@ -82,6 +127,17 @@ class RawMaterialServiceTest {
         assertThat(result.materialName()).isEqualTo("Steel");
     }
 
+    @Test
+    @DisplayName("getRawMaterialById - should include stock deltas not yet flushed")
+    void getRawMaterialById_pendingDelta() {
+        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(rawMaterial));
+        when(stockDeltaBuffer.pendingDelta(1L)).thenReturn(-8L);
+
+        RawMaterialResponseDTO result = rawMaterialService.getRawMaterialById(1L);
+
+        assertThat(result.stock()).isEqualTo(42);
+    }
+
     @Test
     @DisplayName("getRawMaterialById - should throw EntityNotFoundException when not found")
     void getRawMaterialById_notFound() {
@@ -92,6 +148,67 @@ class RawMaterialServiceTest {
                 .hasMessageContaining("Raw material not found with ID: 99");
     }
 
+    // ── getRawMaterialBySku ──────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getRawMaterialBySku - should resolve the material through its natural id")
+    void getRawMaterialBySku_success() {
+        when(naturalIdLookup.find(RawMaterial.class, "STL-001")).thenReturn(Optional.of(rawMaterial));
+        when(stockDeltaBuffer.pendingDelta(1L)).thenReturn(5L);
+
+        RawMaterialResponseDTO result = rawMaterialService.getRawMaterialBySku("STL-001");
+
+        assertThat(result.id()).isEqualTo(1L);
+        assertThat(result.stock()).isEqualTo(55);
+        verifyNoInteractions(rawMaterialRepository);
+    }
+
+    @Test
+    @DisplayName("getRawMaterialBySku - should throw EntityNotFoundException for an unknown SKU")
+    void getRawMaterialBySku_notFound() {
+        when(naturalIdLookup.find(RawMaterial.class, "NOPE")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> rawMaterialService.getRawMaterialBySku("NOPE"))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Raw material not found with SKU: NOPE");
+    }
+
+    // ── recordStockDelta ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("recordStockDelta - should buffer the delta without touching the repository")
+    void recordStockDelta_success() {
+        when(catalogIndex.snapshot()).thenReturn(CatalogIndex.build(List.of(rawMaterial), List.of()));
+        when(stockDeltaBuffer.add(1L, -3)).thenReturn(-5L);
+        when(stockDeltaBuffer.rejectedDeltaCount(1L)).thenReturn(1L);
+
+        StockDeltaResponseDTO result = rawMaterialService.recordStockDelta(1L, -3);
+
+        assertThat(result.rawMaterialId()).isEqualTo(1L);
+        assertThat(result.pendingDelta()).isEqualTo(-5L);
+        assertThat(result.rejectedDeltas()).isEqualTo(1L);
+        verifyNoInteractions(rawMaterialRepository);
+    }
+
+    @Test
+    @DisplayName("recordStockDelta - should throw EntityNotFoundException for unknown materials")
+    void recordStockDelta_notFound() {
+        when(catalogIndex.snapshot()).thenReturn(CatalogIndex.build(List.of(rawMaterial), List.of()));
+
+        assertThatThrownBy(() -> rawMaterialService.recordStockDelta(99L, 1))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Raw material not found with ID: 99");
+        verifyNoInteractions(stockDeltaBuffer);
+    }
+
+    @Test
+    @DisplayName("recordStockDelta - should reject a zero delta")
+    void recordStockDelta_zero() {
+        assertThatThrownBy(() -> rawMaterialService.recordStockDelta(1L, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(stockDeltaBuffer);
+    }
+
     // ── createRawMaterial ────────────────────────────────────────────────────
 
     @Test
@@ -106,6 +223,8 @@ class RawMaterialServiceTest {
         assertThat(result.skuCode()).isEqualTo("STL-001");
         assertThat(result.stock()).isEqualTo(50);
         verify(rawMaterialRepository, times(1)).save(any(RawMaterial.class));
+        verify(catalogIndex).upsertMaterial(rawMaterial);
+        verify(catalogVersion).bump();
     }
 
     // ── updateRawMaterial ────────────────────────────────────────────────────
@@ -120,7 +239,7 @@ class RawMaterialServiceTest {
         updated.setSkuCode("STL-001");
         updated.setStock(75);
 
-        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(rawMaterial));
+        when(rawMaterialRepository.lockById(1L)).thenReturn(Optional.of(rawMaterial));
         when(rawMaterialRepository.save(any(RawMaterial.class))).thenReturn(updated);
 
         RawMaterialResponseDTO result = rawMaterialService.updateRawMaterial(updateDTO, 1L);
@@ -128,12 +247,41 @@ class RawMaterialServiceTest {
         assertThat(result.materialName()).isEqualTo("Steel Updated");
         assertThat(result.stock()).isEqualTo(75);
         verify(rawMaterialRepository, times(1)).save(any(RawMaterial.class));
+        // the resident stock moves by the change, not to the value read in this transaction
+        verify(catalogIndex).adjustStock(Map.of(1L, 25));
+        verify(catalogIndex, never()).upsertMaterial(any());
+        verify(productSummaryStore).refreshMaterials(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("updateRawMaterial - should leave product summaries alone when only the stock changes")
+    void updateRawMaterial_stockOnly() {
+        when(rawMaterialRepository.lockById(1L)).thenReturn(Optional.of(rawMaterial));
+        when(rawMaterialRepository.save(rawMaterial)).thenReturn(rawMaterial);
+
+        rawMaterialService.updateRawMaterial(new RawMaterialRequestDTO("Steel", "STL-001", 80), 1L);
+
+        assertThat(rawMaterial.getStock()).isEqualTo(80);
+        verify(catalogIndex).adjustStock(Map.of(1L, 30));
+        verifyNoInteractions(productSummaryStore);
+    }
+
+    @Test
+    @DisplayName("updateRawMaterial - should leave the resident stock alone when only the name changes")
+    void updateRawMaterial_nameOnly() {
+        when(rawMaterialRepository.lockById(1L)).thenReturn(Optional.of(rawMaterial));
+        when(rawMaterialRepository.save(rawMaterial)).thenReturn(rawMaterial);
+
+        rawMaterialService.updateRawMaterial(new RawMaterialRequestDTO("Carbon Steel", "STL-001", 50), 1L);
+
+        verify(catalogIndex, never()).adjustStock(any());
+        verify(catalogVersion).bump();
     }
 
     @Test
     @DisplayName("updateRawMaterial - should throw EntityNotFoundException when not found")
     void updateRawMaterial_notFound() {
-        when(rawMaterialRepository.findById(99L)).thenReturn(Optional.empty());
+        when(rawMaterialRepository.lockById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> rawMaterialService.updateRawMaterial(requestDTO, 99L))
                 .isInstanceOf(EntityNotFoundException.class)
@@ -150,6 +298,8 @@ class RawMaterialServiceTest {
 
         assertThatCode(() -> rawMaterialService.deleteRawMaterial(1L)).doesNotThrowAnyException();
         verify(rawMaterialRepository, times(1)).delete(rawMaterial);
+        verify(catalogIndex).removeMaterial(1L);
+        verify(catalogVersion).bump();
     }
 
     @Test
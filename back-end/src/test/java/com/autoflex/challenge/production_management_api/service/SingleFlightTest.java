@@ -0,0 +1,106 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    // ── execute ──────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("execute - concurrent callers for the same key should share one computation")
+    void execute_coalescesConcurrentCalls() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> flight.execute(1L, () -> {
+            computations.incrementAndGet();
+            await(release);
+            return "plan";
+        }), flight, release);
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("plan");
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(flight.coalescedCount()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    @DisplayName("execute - waiters should receive the leader's exception")
+    void execute_sharesFailure() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> flight.execute(1L, () -> {
+            await(release);
+            throw new EntityNotFoundException("No products found");
+        }), flight, release);
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(EntityNotFoundException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("execute - different keys and sequential calls should each compute")
+    void execute_doesNotCoalesceSequentialCalls() {
+        SingleFlight<Long, Long> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        flight.execute(1L, () -> (long) computations.incrementAndGet());
+        flight.execute(1L, () -> (long) computations.incrementAndGet());
+        flight.execute(2L, () -> (long) computations.incrementAndGet());
+
+        assertThat(computations).hasValue(3);
+        assertThat(flight.coalescedCount()).isZero();
+    }
+
+    // ── helpers ──────────────────────────────────────────────────────────────
+
+    /** Starts all callers, waits until every follower has joined the leader, then lets the leader finish. */
+    private static List<Future<String>> runConcurrently(Callable<String> call,
+                                                        SingleFlight<Long, String> flight,
+                                                        CountDownLatch release) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(call));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.coalescedCount() < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockDeltaBufferTest {
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private CatalogIndex catalogIndex;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    private StockDeltaBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new StockDeltaBuffer(rawMaterialRepository, transactionTemplate, taskScheduler, catalogIndex, catalogVersion, 1_000);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(rawMaterialRepository.applyStockDelta(anyLong(), anyInt())).thenReturn(1);
+    }
+
+    // ── add ──────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("add - should merge deltas per material until the next flush")
+    void add_merges() {
+        buffer.add(1L, 5);
+        buffer.add(1L, -2);
+        long merged = buffer.add(2L, 7);
+
+        assertThat(merged).isEqualTo(7);
+        assertThat(buffer.pendingDelta(1L)).isEqualTo(3);
+        verifyNoInteractions(rawMaterialRepository);
+    }
+
+    @Test
+    @DisplayName("add - should hand one early flush to the scheduler once max-pending adjustments are buffered")
+    void add_flushesAtMaxPending() {
+        buffer = new StockDeltaBuffer(rawMaterialRepository, transactionTemplate, taskScheduler, catalogIndex, catalogVersion, 3);
+
+        for (int i = 0; i < 5; i++) {
+            buffer.add(1L, 1);
+        }
+
+        // nothing is written on the caller's thread
+        verifyNoInteractions(rawMaterialRepository);
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(flush.capture(), any(Instant.class));
+        flush.getValue().run();
+        verify(rawMaterialRepository).applyStockDelta(1L, 5);
+        assertThat(buffer.pendingDelta(1L)).isZero();
+
+        // the flush re-arms the trigger
+        for (int i = 0; i < 3; i++) {
+            buffer.add(1L, 1);
+        }
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    // ── flush ────────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("flush - should write one update per material and apply them to the catalog")
+    void flush_writesMergedDeltas() {
+        buffer.add(1L, 5);
+        buffer.add(1L, 5);
+        buffer.add(2L, -4);
+        buffer.add(3L, 2);
+        buffer.add(3L, -2);
+
+        buffer.flush();
+
+        verify(rawMaterialRepository).applyStockDelta(1L, 10);
+        verify(rawMaterialRepository).applyStockDelta(2L, -4);
+        verify(rawMaterialRepository, never()).applyStockDelta(eq(3L), anyInt());
+        verify(catalogIndex).adjustStock(Map.of(1L, 10, 2L, -4));
+        verify(catalogVersion).bump();
+        assertThat(buffer.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("flush - should keep showing a delta until its batch commits, plus what arrives meanwhile")
+    void flush_inFlightStaysVisible() {
+        List<Long> seenDuringWrite = new ArrayList<>();
+        when(rawMaterialRepository.applyStockDelta(1L, 5)).thenAnswer(invocation -> {
+            seenDuringWrite.add(buffer.pendingDelta(1L));
+            buffer.add(1L, 2);
+            return 1;
+        });
+        buffer.add(1L, 5);
+
+        buffer.flush();
+
+        assertThat(seenDuringWrite).containsExactly(5L);
+        assertThat(buffer.pendingDelta(1L)).isEqualTo(2);
+        verify(catalogIndex).adjustStock(Map.of(1L, 5));
+    }
+
+    @Test
+    @DisplayName("flush - should keep the deltas for the next attempt when the database write fails")
+    void flush_retainsOnFailure() {
+        buffer.add(1L, 5);
+        doThrow(new DataAccessResourceFailureException("down")).when(transactionTemplate).execute(any());
+
+        buffer.flush();
+        buffer.add(1L, 1);
+
+        assertThat(buffer.pendingDelta(1L)).isEqualTo(6);
+        verifyNoInteractions(catalogIndex, catalogVersion);
+    }
+
+    @Test
+    @DisplayName("flush - should drop and count deltas the conditional update refuses")
+    void flush_countsRejected() {
+        when(rawMaterialRepository.applyStockDelta(1L, -50)).thenReturn(0);
+        buffer.add(1L, -50);
+        buffer.add(2L, 1);
+
+        buffer.flush();
+
+        assertThat(buffer.rejectedDeltaCount()).isEqualTo(1);
+        assertThat(buffer.rejectedDeltaCount(1L)).isEqualTo(1);
+        assertThat(buffer.rejectedDeltaCount(2L)).isZero();
+        assertThat(buffer.pendingDelta(1L)).isZero();
+        verify(catalogIndex).adjustStock(Map.of(2L, 1));
+    }
+
+    @Test
+    @DisplayName("flush - should update the rows in material id order")
+    void flush_idOrder() {
+        for (long id : new long[]{42L, 7L, 1_000L, 3L, 19L}) {
+            buffer.add(id, 1);
+        }
+
+        buffer.flush();
+
+        InOrder inOrder = inOrder(rawMaterialRepository);
+        for (long id : new long[]{3L, 7L, 19L, 42L, 1_000L}) {
+            inOrder.verify(rawMaterialRepository).applyStockDelta(id, 1);
+        }
+    }
+
+    @Test
+    @DisplayName("flush - should not lose adjustments that race with concurrent flushes")
+    void flush_concurrentAdds() throws Exception {
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        when(rawMaterialRepository.applyStockDelta(eq(1L), anyInt())).thenAnswer(invocation -> {
+            written.add(invocation.getArgument(1));
+            return 1;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        buffer.add(1L, 1);
+                        if (i % 500 == 0) {
+                            buffer.flush();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        buffer.flush();
+
+        assertThat(written.stream().mapToInt(Integer::intValue).sum()).isEqualTo(40_000);
+    }
+}
@@ -0,0 +1,131 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.StockScenarioDTO;
+import com.autoflex.challenge.production_management_api.dto.response.ProductSuggestionResponse;
+import com.autoflex.challenge.production_management_api.dto.response.ScenarioSuggestionDTO;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionSimulatorTest {
+
+    @Mock
+    private CatalogIndex catalogIndex;
+
+    private SuggestionSimulator simulator;
+    private CatalogIndex.Snapshot catalog;
+
+    @BeforeEach
+    void setUp() {
+        simulator = new SuggestionSimulator(catalogIndex, new GreedyProductionPlanner(), 4);
+
+        RawMaterial steel = new RawMaterial(1L, "STL-001", "Steel", 100);
+        RawMaterial wood = new RawMaterial(2L, "WD-001", "Wood", 30);
+        Product chair = product(1L, "Chair", 200.0);
+        addMaterial(chair, steel, 10);
+        addMaterial(chair, wood, 5);
+        catalog = CatalogIndex.build(List.of(steel, wood), List.of(chair));
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.shutdown();
+    }
+
+    // ── simulate ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("simulate - should plan over overridden and adjusted stock without changing the snapshot")
+    void simulate_overridesAndDeltas() {
+        when(catalogIndex.snapshot()).thenReturn(catalog);
+
+        // steel 500 → 50 chairs, wood 30 + 20 = 50 → 10 chairs
+        ProductSuggestionResponse response = simulator.simulate(
+                new StockScenarioDTO("more stock", Map.of(1L, 500), Map.of(2L, 20)));
+
+        assertThat(response.suggestions().get(0).quantityProduced()).isEqualTo(10);
+        assertThat(response.totalValue()).isEqualTo(2000.0);
+        assertThat(catalog.copyStock()).containsExactly(100, 30);
+    }
+
+    @Test
+    @DisplayName("simulate - should reject unknown raw materials")
+    void simulate_unknownMaterial() {
+        when(catalogIndex.snapshot()).thenReturn(catalog);
+
+        assertThatThrownBy(() -> simulator.simulate(new StockScenarioDTO(null, Map.of(99L, 10), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown raw material ID: 99");
+    }
+
+    @Test
+    @DisplayName("simulate - should reject deltas that drive stock below zero")
+    void simulate_negativeStock() {
+        when(catalogIndex.snapshot()).thenReturn(catalog);
+
+        assertThatThrownBy(() -> simulator.simulate(new StockScenarioDTO(null, null, Map.of(2L, -31))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("out of range");
+    }
+
+    @Test
+    @DisplayName("simulate - should throw EntityNotFoundException when there are no products")
+    void simulate_noProducts() {
+        when(catalogIndex.snapshot()).thenReturn(CatalogIndex.build(List.of(), List.of()));
+
+        assertThatThrownBy(() -> simulator.simulate(new StockScenarioDTO(null, null, null)))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    // ── simulateAll ──────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("simulateAll - should return one plan per scenario in request order")
+    void simulateAll_ordered() {
+        when(catalogIndex.snapshot()).thenReturn(catalog);
+        List<StockScenarioDTO> scenarios = new ArrayList<>();
+        for (int extraWood = 0; extraWood < 40; extraWood++) {
+            scenarios.add(new StockScenarioDTO(extraWood == 0 ? "baseline" : null, null, Map.of(2L, extraWood * 5)));
+        }
+
+        List<ScenarioSuggestionDTO> results = simulator.simulateAll(scenarios);
+
+        assertThat(results).hasSize(40);
+        assertThat(results.get(0).name()).isEqualTo("baseline");
+        assertThat(results.get(1).name()).isEqualTo("scenario-2");
+        for (int i = 0; i < 40; i++) {
+            // wood allows 6 + i chairs, steel caps the plan at 10
+            int expected = Math.min(10, 6 + i);
+            assertThat(results.get(i).suggestion().suggestions().get(0).quantityProduced()).isEqualTo(expected);
+        }
+        verify(catalogIndex, times(1)).snapshot();
+    }
+
+    @Test
+    @DisplayName("simulateAll - should reject the whole batch when one scenario is invalid")
+    void simulateAll_invalidScenario() {
+        when(catalogIndex.snapshot()).thenReturn(catalog);
+
+        assertThatThrownBy(() -> simulator.simulateAll(List.of(
+                new StockScenarioDTO("ok", null, null),
+                new StockScenarioDTO("bad", Map.of(42L, 1), null))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
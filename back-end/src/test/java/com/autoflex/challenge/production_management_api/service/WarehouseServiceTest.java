@@ -0,0 +1,218 @@
+package com.autoflex.challenge.production_management_api.service;
+
+import com.autoflex.challenge.production_management_api.dto.request.ProductSuggestionDTO;
+import com.autoflex.challenge.production_management_api.dto.request.WarehouseRequestDTO;
+import com.autoflex.challenge.production_management_api.dto.response.SiteStockRow;
+import com.autoflex.challenge.production_management_api.dto.response.SiteSuggestionResponse;
+import com.autoflex.challenge.production_management_api.entity.Product;
+import com.autoflex.challenge.production_management_api.entity.RawMaterial;
+import com.autoflex.challenge.production_management_api.entity.Warehouse;
+import com.autoflex.challenge.production_management_api.entity.WarehouseStock;
+import com.autoflex.challenge.production_management_api.repository.ProductRepository;
+import com.autoflex.challenge.production_management_api.repository.RawMaterialRepository;
+import com.autoflex.challenge.production_management_api.repository.WarehouseRepository;
+import com.autoflex.challenge.production_management_api.repository.WarehouseStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.addMaterial;
+import static com.autoflex.challenge.production_management_api.service.CatalogFixtures.product;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarehouseServiceTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private WarehouseStockRepository warehouseStockRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private WarehouseService warehouseService;
+    private SuggestionSimulator suggestionSimulator;
+    private PlanningExecutor planningExecutor;
+
+    private RawMaterial steel;
+    private RawMaterial wood;
+    private Warehouse north;
+    private Warehouse south;
+
+    @BeforeEach
+    void setUp() {
+        CatalogIndex catalogIndex = new CatalogIndex(productRepository, rawMaterialRepository);
+        suggestionSimulator = new SuggestionSimulator(catalogIndex, new GreedyProductionPlanner(), 2);
+        planningExecutor = new PlanningExecutor(new SimpleMeterRegistry(), 1, 4, 1);
+        warehouseService = new WarehouseService(warehouseRepository, warehouseStockRepository, rawMaterialRepository,
+                catalogIndex, suggestionSimulator, planningExecutor);
+
+        steel = new RawMaterial(1L, "STL-001", "Steel", 1_000);
+        wood = new RawMaterial(2L, "WD-001", "Wood", 1_000);
+        north = new Warehouse(10L, "NORTH", "North plant");
+        south = new Warehouse(11L, "SOUTH", "South plant");
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggestionSimulator.shutdown();
+        planningExecutor.shutdown();
+    }
+
+    // ── getSiteSuggestions ───────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getSiteSuggestions - should plan each site on its own stock and add the plans up")
+    void getSiteSuggestions_perSite() {
+        stubCatalog();
+        when(warehouseRepository.findAllByOrderByIdAsc()).thenReturn(List.of(north, south));
+        // north: steel only, so no tables; south: enough for one table, the rest goes to chairs
+        when(warehouseStockRepository.findAllStockRows()).thenReturn(List.of(
+                new SiteStockRow(10L, 1L, 20),
+                new SiteStockRow(11L, 1L, 25),
+                new SiteStockRow(11L, 2L, 10)));
+
+        SiteSuggestionResponse response = warehouseService.getSiteSuggestions(Deadline.none());
+
+        assertThat(response.sites()).extracting(site -> site.warehouseCode()).containsExactly("NORTH", "SOUTH");
+        assertThat(response.sites().get(0).suggestion().suggestions())
+                .containsExactly(new ProductSuggestionDTO(2L, "Chair", 4, 400.0));
+        assertThat(response.sites().get(1).suggestion().suggestions())
+                .containsExactly(new ProductSuggestionDTO(1L, "Table", 1, 500.0), new ProductSuggestionDTO(2L, "Chair", 4, 400.0));
+        assertThat(response.totals())
+                .containsExactly(new ProductSuggestionDTO(1L, "Table", 1, 500.0), new ProductSuggestionDTO(2L, "Chair", 8, 800.0));
+        assertThat(response.totalValue()).isEqualTo(1300.0);
+    }
+
+    @Test
+    @DisplayName("getSiteSuggestions - should add up the totals per product id, even for products sharing a name")
+    void getSiteSuggestions_totalsByProductId() {
+        Product otherChair = product(3L, "Chair", 90.0);
+        addMaterial(otherChair, wood, 2);
+        Product table = product(1L, "Table", 500.0);
+        addMaterial(table, steel, 5);
+        addMaterial(table, wood, 10);
+        Product chair = product(2L, "Chair", 100.0);
+        addMaterial(chair, steel, 5);
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(table, chair, otherChair));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel, wood));
+        when(warehouseRepository.findAllByOrderByIdAsc()).thenReturn(List.of(north, south));
+        when(warehouseStockRepository.findAllStockRows()).thenReturn(List.of(
+                new SiteStockRow(10L, 1L, 20),
+                new SiteStockRow(10L, 2L, 4),
+                new SiteStockRow(11L, 1L, 25),
+                new SiteStockRow(11L, 2L, 12)));
+
+        SiteSuggestionResponse response = warehouseService.getSiteSuggestions(Deadline.none());
+
+        assertThat(response.totals()).containsExactly(
+                new ProductSuggestionDTO(1L, "Table", 1, 500.0),
+                new ProductSuggestionDTO(2L, "Chair", 8, 800.0),
+                new ProductSuggestionDTO(3L, "Chair", 3, 270.0));
+        assertThat(response.totalValue()).isEqualTo(1570.0);
+        assertThat(response.partial()).isFalse();
+    }
+
+    @Test
+    @DisplayName("getSiteSuggestions - should give a site without stock rows an empty plan")
+    void getSiteSuggestions_siteWithoutStock() {
+        stubCatalog();
+        when(warehouseRepository.findAllByOrderByIdAsc()).thenReturn(List.of(north));
+        when(warehouseStockRepository.findAllStockRows()).thenReturn(List.of());
+
+        SiteSuggestionResponse response = warehouseService.getSiteSuggestions(Deadline.none());
+
+        assertThat(response.sites().get(0).suggestion().suggestions()).isEmpty();
+        assertThat(response.totals()).isEmpty();
+        assertThat(response.totalValue()).isZero();
+    }
+
+    @Test
+    @DisplayName("getSiteSuggestions - should throw EntityNotFoundException when there are no warehouses")
+    void getSiteSuggestions_noWarehouses() {
+        when(warehouseRepository.findAllByOrderByIdAsc()).thenReturn(List.of());
+
+        assertThatThrownBy(() -> warehouseService.getSiteSuggestions(Deadline.none()))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("No warehouses found");
+        verifyNoInteractions(warehouseStockRepository);
+    }
+
+    // ── warehouses and stock ─────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("createWarehouse - should reject a duplicate code")
+    void createWarehouse_duplicateCode() {
+        when(warehouseRepository.existsByCode("NORTH")).thenReturn(true);
+
+        assertThatThrownBy(() -> warehouseService.createWarehouse(new WarehouseRequestDTO("NORTH", "North plant")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("NORTH");
+        verify(warehouseRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("setSiteStock - should create the row the first time a material is stocked at a site")
+    void setSiteStock_createsRow() {
+        when(warehouseStockRepository.findByWarehouseIdAndRawMaterialId(10L, 1L)).thenReturn(Optional.empty());
+        when(warehouseRepository.findById(10L)).thenReturn(Optional.of(north));
+        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(steel));
+
+        SiteStockRow row = warehouseService.setSiteStock(10L, 1L, 30);
+
+        assertThat(row).isEqualTo(new SiteStockRow(10L, 1L, 30));
+        verify(warehouseStockRepository).save(argThat(saved -> saved.getWarehouse() == north
+                && saved.getRawMaterial() == steel && saved.getStock() == 30));
+    }
+
+    @Test
+    @DisplayName("setSiteStock - should update an existing row in place")
+    void setSiteStock_updatesRow() {
+        WarehouseStock existing = new WarehouseStock(5L, north, steel, 30);
+        when(warehouseStockRepository.findByWarehouseIdAndRawMaterialId(10L, 1L)).thenReturn(Optional.of(existing));
+
+        warehouseService.setSiteStock(10L, 1L, 12);
+
+        assertThat(existing.getStock()).isEqualTo(12);
+        verify(warehouseStockRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("setSiteStock - should throw EntityNotFoundException for an unknown raw material")
+    void setSiteStock_unknownMaterial() {
+        when(warehouseStockRepository.findByWarehouseIdAndRawMaterialId(10L, 99L)).thenReturn(Optional.empty());
+        when(warehouseRepository.findById(10L)).thenReturn(Optional.of(north));
+        when(rawMaterialRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> warehouseService.setSiteStock(10L, 99L, 5))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("99");
+    }
+
+    // table = 5 steel + 10 wood (500); chair = 5 steel (100)
+    private void stubCatalog() {
+        Product table = product(1L, "Table", 500.0);
+        addMaterial(table, steel, 5);
+        addMaterial(table, wood, 10);
+        Product chair = product(2L, "Chair", 100.0);
+        addMaterial(chair, steel, 5);
+        when(productRepository.findAllWithMaterials()).thenReturn(List.of(table, chair));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel, wood));
+    }
+}